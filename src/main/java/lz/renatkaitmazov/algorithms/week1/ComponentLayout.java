@@ -0,0 +1,156 @@
+package lz.renatkaitmazov.algorithms.week1;
+
+import java.util.Arrays;
+
+/**
+ * All the connected components of a {@link ConnectedComponent} laid out
+ * in the compressed sparse row format.
+ * <p>
+ * The components are numbered from 0 to {@link #count()} - 1 in the order of
+ * their smallest elements. The members of the component <code>c</code> occupy
+ * <code>members[offsets[c]]</code> .. <code>members[offsets[c + 1] - 1]</code>
+ * in ascending order.
+ * <p>
+ * A layout is built for its caller and never shared, so the arrays are handed
+ * out as they are, without copying.
+ *
+ * @author Renat Kaitmazov
+ */
+
+public final class ComponentLayout {
+
+    /*--------------------------------------------------------*/
+    /* Fields
+    /*--------------------------------------------------------*/
+
+    private final int[] roots;
+    private final int[] offsets;
+    private final int[] members;
+    private final int largest;
+
+    /*--------------------------------------------------------*/
+    /* Constructors
+    /*--------------------------------------------------------*/
+
+    /**
+     * Builds the layout from the root of every element.
+     *
+     * @param rootOf the root of each element.
+     */
+
+    ComponentLayout(final int[] rootOf) {
+        final int size = rootOf.length;
+        // Number the components in the order of their first elements.
+        // The number of a component is kept at the index of its root.
+        final int[] componentOf = new int[size];
+        Arrays.fill(componentOf, -1);
+        int count = 0;
+        for (int i = 0; i < size; ++i) {
+            if (componentOf[rootOf[i]] == -1) componentOf[rootOf[i]] = count++;
+        }
+        roots = new int[count];
+        offsets = new int[count + 1];
+        for (int i = 0; i < size; ++i) {
+            final int component = componentOf[rootOf[i]];
+            roots[component] = rootOf[i];
+            ++offsets[component + 1];
+        }
+        int largestComponent = 0;
+        for (int c = 0; c < count; ++c) {
+            if (offsets[c + 1] > offsets[largestComponent + 1]) largestComponent = c;
+            offsets[c + 1] += offsets[c];
+        }
+        largest = largestComponent;
+        // Counting sort: place every element at the next free slot of its component.
+        final int[] next = new int[count];
+        System.arraycopy(offsets, 0, next, 0, count);
+        members = new int[size];
+        for (int i = 0; i < size; ++i) {
+            members[next[componentOf[rootOf[i]]]++] = i;
+        }
+    }
+
+    /*--------------------------------------------------------*/
+    /* API
+    /*--------------------------------------------------------*/
+
+    /**
+     * Returns the number of components.
+     *
+     * @return number of components.
+     */
+
+    public int count() {
+        return roots.length;
+    }
+
+    /**
+     * Returns the root of the given component.
+     *
+     * @param component the index of the component.
+     * @return the root element of the component.
+     */
+
+    public int root(int component) {
+        return roots[component];
+    }
+
+    /**
+     * Returns the number of elements in the given component.
+     *
+     * @param component the index of the component.
+     * @return size of the component.
+     */
+
+    public int size(int component) {
+        return offsets[component + 1] - offsets[component];
+    }
+
+    /**
+     * Returns the index of the largest component.
+     * If there are several, the one with the smallest first element.
+     *
+     * @return the index of the largest component.
+     */
+
+    public int largest() {
+        return largest;
+    }
+
+    /**
+     * Returns the elements of all the components grouped by component.
+     *
+     * @return the members array, not a copy.
+     */
+
+    public int[] members() {
+        return members;
+    }
+
+    /**
+     * Returns where each component starts in {@link #members()}.
+     * The last entry is equal to the number of elements.
+     *
+     * @return the offsets array of length {@link #count()} + 1, not a copy.
+     */
+
+    public int[] offsets() {
+        return offsets;
+    }
+
+    /**
+     * Returns how many components there are of each size.
+     *
+     * @return an array whose entry <code>s</code> is the number of components of size <code>s</code>,
+     * its length is the size of the largest component plus one.
+     */
+
+    public int[] sizeHistogram() {
+        final int count = roots.length;
+        final int[] histogram = new int[size(largest) + 1];
+        for (int c = 0; c < count; ++c) {
+            ++histogram[size(c)];
+        }
+        return histogram;
+    }
+}
@@ -0,0 +1,227 @@
+package lz.renatkaitmazov.algorithms.week1;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A thread-safe counterpart of {@link WeightedQuickUnion}.
+ * Interprets connected components as a tree of elements where
+ * each array entry holds a reference to its immediate root, just like
+ * {@link Union} does, but the entries live in an {@link AtomicIntegerArray}
+ * so that many threads can perform union and check operations at the same
+ * time without a global lock.
+ * <p>
+ * Two roots are linked with a single compare-and-set. The root with the lower
+ * priority always becomes a subtree of the root with the higher priority.
+ * Priorities are a fixed pseudo-random permutation of the indices, which keeps
+ * the expected height of a tree logarithmic (weights cannot be used here because
+ * a weight and a link cannot be updated atomically together).
+ * Instead of full path compression the algorithm uses path halving: every element
+ * on the path to the root is made to point to its grandparent. This needs only one
+ * pass and is safe to perform concurrently because an element never stops being
+ * in the same tree.
+ *
+ * @author Renat Kaitmazov
+ */
+
+public final class ConcurrentQuickUnion {
+
+    /*--------------------------------------------------------*/
+    /* Fields
+    /*--------------------------------------------------------*/
+
+    /**
+     * An amount of connected components.
+     * Decremented exactly once per successful link.
+     */
+
+    private final AtomicInteger numberOfComponents;
+
+    /**
+     * An array of elements used to model connected components.
+     * Each entry holds a reference to its immediate root.
+     */
+
+    private final AtomicIntegerArray elements;
+
+    /*--------------------------------------------------------*/
+    /* Constructors
+    /*--------------------------------------------------------*/
+
+    public ConcurrentQuickUnion(int numberOfComponents) {
+        if (numberOfComponents < 1) {
+            throw new IllegalArgumentException("Number of components must be positive");
+        }
+        this.numberOfComponents = new AtomicInteger(numberOfComponents);
+        elements = new AtomicIntegerArray(numberOfComponents);
+        for (int i = 0; i < numberOfComponents; ++i) {
+            elements.set(i, i);
+        }
+    }
+
+    /*--------------------------------------------------------*/
+    /* Getters
+    /*--------------------------------------------------------*/
+
+    /**
+     * Returns the amount of connected components.
+     *
+     * @return number of connected components.
+     */
+
+    public int components() {
+        return numberOfComponents.get();
+    }
+
+    /**
+     * Returns a copy of the array with its elements.
+     * If other threads are performing unions at the same time,
+     * the copy is not guaranteed to be a consistent snapshot.
+     *
+     * @return connected component elements.
+     */
+
+    public int[] elements() {
+        final int size = elements.length();
+        final int[] copy = new int[size];
+        for (int i = 0; i < size; ++i) {
+            copy[i] = elements.get(i);
+        }
+        return copy;
+    }
+
+    /*--------------------------------------------------------*/
+    /* API
+    /*--------------------------------------------------------*/
+
+    /**
+     * Performs a union operation of the given elements.
+     *
+     * @param element1 the first element.
+     * @param element2 the second element.
+     * @return <code>true</code> if this call connected the given
+     * elements, <code>false</code> if they were already connected.
+     */
+
+    public boolean union(int element1, int element2) {
+        validateIndex(element1);
+        validateIndex(element2);
+        while (true) {
+            int id1 = findId(element1);
+            int id2 = findId(element2);
+            if (id1 == id2) {
+                // Already connected
+                return false;
+            }
+            if (isLowerPriority(id2, id1)) {
+                final int temp = id1;
+                id1 = id2;
+                id2 = temp;
+            }
+            // The first root has the lower priority and becomes a subtree of the second one.
+            // The link fails if some other thread has already attached the first root
+            // somewhere else, in that case we simply look for the new roots and try again.
+            if (elements.compareAndSet(id1, id1, id2)) {
+                numberOfComponents.decrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Checks to see if the given elements are connected.
+     *
+     * @param element1 the first element.
+     * @param element2 the second element.
+     * @return <code>true</code> if the elements are connected,
+     * <code>false</code> otherwise.
+     */
+
+    public boolean isConnected(int element1, int element2) {
+        validateIndex(element1);
+        validateIndex(element2);
+        while (true) {
+            final int id1 = findId(element1);
+            final int id2 = findId(element2);
+            if (id1 == id2) {
+                return true;
+            }
+            // The roots differ. The answer is only correct if the first root
+            // is still a root, otherwise a union has happened in between.
+            if (elements.get(id1) == id1) {
+                return false;
+            }
+        }
+    }
+
+    /*--------------------------------------------------------*/
+    /* Helper methods
+    /*--------------------------------------------------------*/
+
+    /**
+     * Returns the entry id of the given element.
+     * Performs path halving along the way.
+     *
+     * @param element whose id we are looking for.
+     * @return an id of the element from {@link #elements}.
+     */
+
+    int findId(int element) {
+        int current = element;
+        while (true) {
+            final int parent = elements.get(current);
+            if (parent == current) {
+                return current;
+            }
+            final int grandparent = elements.get(parent);
+            if (parent != grandparent) {
+                // Make the current element skip its parent. If the CAS fails,
+                // someone else has already moved it closer to the root.
+                elements.compareAndSet(current, parent, grandparent);
+            }
+            current = grandparent;
+        }
+    }
+
+    private static boolean isLowerPriority(int id1, int id2) {
+        // The mix is a bijection, so two different roots never have the same priority.
+        return priority(id1) < priority(id2);
+    }
+
+    /**
+     * A bijective integer mix (the finalizer of MurmurHash3).
+     * Gives every index a pseudo-random but fixed priority.
+     */
+
+    private static int priority(int id) {
+        int h = id;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private void validateIndex(int index) {
+        final int size = elements.length();
+        if (index < 0 || index >= size) {
+            final String msg = String.format("Index should be in the range [0, %d]. Your index is %d", size, index);
+            throw new IllegalArgumentException(msg);
+        }
+    }
+
+    /*--------------------------------------------------------*/
+    /* Object class methods
+    /*--------------------------------------------------------*/
+
+    @Override
+    @SuppressWarnings("StringBufferReplaceableByString")
+    public String toString() {
+        return new StringBuilder("Number of components: ")
+                .append(numberOfComponents.get())
+                .append("\n")
+                .append(elements)
+                .toString();
+    }
+}
@@ -1,6 +1,8 @@
 package lz.renatkaitmazov.algorithms.week1;
 
+import java.nio.IntBuffer;
 import java.util.Arrays;
+import java.util.stream.IntStream;
 
 /**
  * An abstraction for a data type known as a connected component.
@@ -16,6 +18,17 @@ import java.util.Arrays;
 
 public abstract class ConnectedComponent {
 
+    /*--------------------------------------------------------*/
+    /* Constants
+    /*--------------------------------------------------------*/
+
+    /**
+     * The number of elements starting from which {@link #layout()}
+     * resolves roots in parallel.
+     */
+
+    private static final int PARALLEL_LAYOUT_THRESHOLD = 1 << 16;
+
     /*--------------------------------------------------------*/
     /* Fields
     /*--------------------------------------------------------*/
@@ -101,6 +114,61 @@ public abstract class ConnectedComponent {
         return copy;
     }
 
+    /**
+     * Returns all the connected components with their members,
+     * see {@link ComponentLayout}.
+     * Every element of {@link #elements} is interpreted as a link to its parent
+     * (which holds for all the subclasses). The roots are resolved in a single
+     * linear pass: once the root of an element is known, it is remembered for every
+     * element on the path to it, so no path is ever walked twice. The remembered
+     * roots live in a separate array and the structure itself is not modified.
+     * When there are many elements the roots are resolved in parallel.
+     *
+     * @return the layout of the components.
+     */
+
+    public final ComponentLayout layout() {
+        final int size = elements.length;
+        final int[] rootOf = new int[size];
+        Arrays.fill(rootOf, -1);
+        if (size < PARALLEL_LAYOUT_THRESHOLD) {
+            for (int i = 0; i < size; ++i) {
+                resolveRoot(rootOf, i);
+            }
+        } else {
+            // Threads may resolve the same path at the same time, but they all
+            // write the same values, so the worst outcome is some repeated work.
+            IntStream.range(0, size).parallel().forEach(i -> resolveRoot(rootOf, i));
+        }
+        return new ComponentLayout(rootOf);
+    }
+
+    private void resolveRoot(final int[] rootOf, int element) {
+        if (rootOf[element] != -1) return;
+        // Go up until the root or an element with a known root is found.
+        int current = element;
+        while (rootOf[current] == -1 && elements[current] != current) {
+            current = elements[current];
+        }
+        final int root = rootOf[current] == -1 ? current : rootOf[current];
+        // Remember the root for the whole path.
+        current = element;
+        while (rootOf[current] == -1 && current != root) {
+            rootOf[current] = root;
+            current = elements[current];
+        }
+        rootOf[root] = root;
+    }
+
+    /**
+     * Undoes the effect of a successful union on the amount of components.
+     * Meant for subclasses that are able to take their unions back.
+     */
+
+    final void splitComponent() {
+        ++numberOfComponents;
+    }
+
     /*--------------------------------------------------------*/
     /* Abstract methods
     /*--------------------------------------------------------*/
@@ -117,6 +185,73 @@ public abstract class ConnectedComponent {
     public final boolean union(int element1, int element2) {
         validateIndex(element1);
         validateIndex(element2);
+        return link(element1, element2);
+    }
+
+    /**
+     * Performs a union operation for each edge in the given batch.
+     * The edge number <code>i</code> connects <code>from[offset + i]</code>
+     * with <code>to[offset + i]</code>.
+     * The whole batch is validated once before any union is performed,
+     * so either all the edges are applied or none of them.
+     *
+     * @param from   the first elements of the edges.
+     * @param to     the second elements of the edges.
+     * @param offset the index of the first edge in the arrays.
+     * @param length the amount of edges.
+     * @return number of edges that connected two different components.
+     */
+
+    public final int unionAll(final int[] from, final int[] to, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > from.length - length || offset > to.length - length) {
+            throw new IndexOutOfBoundsException("Wrong offset or length");
+        }
+        final int end = offset + length;
+        validateIndices(from, offset, end);
+        validateIndices(to, offset, end);
+        int connected = 0;
+        for (int i = offset; i < end; ++i) {
+            if (link(from[i], to[i])) ++connected;
+        }
+        return connected;
+    }
+
+    /**
+     * Performs a union operation for each edge in the given buffer.
+     * The buffer is read as a sequence of pairs starting at its position,
+     * each pair being an edge. A <code>ByteBuffer</code> can be passed in
+     * through its <code>asIntBuffer()</code> view.
+     * The whole batch is validated once before any union is performed.
+     * The position of the buffer is advanced past the consumed pairs.
+     *
+     * @param edges a buffer with an even number of remaining elements.
+     * @return number of edges that connected two different components.
+     */
+
+    public final int unionAll(final IntBuffer edges) {
+        final int start = edges.position();
+        final int end = edges.limit();
+        if (((end - start) & 1) != 0) {
+            throw new IllegalArgumentException("The buffer must contain pairs of elements");
+        }
+        final int size = elements.length;
+        for (int i = start; i < end; ++i) {
+            final int element = edges.get(i);
+            if (element < 0 || element >= size) validateIndex(element);
+        }
+        int connected = 0;
+        for (int i = start; i < end; i += 2) {
+            if (link(edges.get(i), edges.get(i + 1))) ++connected;
+        }
+        edges.position(end);
+        return connected;
+    }
+
+    /**
+     * Connects two elements which are known to be valid.
+     */
+
+    private boolean link(int element1, int element2) {
         final int id1 = findId(element1);
         final int id2 = findId(element2);
         if (id1 == id2) {
@@ -195,6 +330,15 @@ public abstract class ConnectedComponent {
     /* Helper methods
     /*--------------------------------------------------------*/
 
+    private void validateIndices(final int[] indices, int start, int end) {
+        final int size = elements.length;
+        for (int i = start; i < end; ++i) {
+            final int index = indices[i];
+            // Delegate to the single index check only to build the error message.
+            if (index < 0 || index >= size) validateIndex(index);
+        }
+    }
+
     private void validateIndex(int index) {
         final int size = elements.length;
         if (index < 0 || index >= size) {
@@ -0,0 +1,281 @@
+package lz.renatkaitmazov.algorithms.week1;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A union-find whose state is memory-mapped from a snapshot file.
+ * <p>
+ * {@link #save(ConnectedComponent, Path)} writes the elements, the weights (if the
+ * component has them) and the number of components of any {@link ConnectedComponent}
+ * into a flat binary file. {@link #load(Path)} maps that file straight back without
+ * parsing a single element, so the time it takes is dominated by the page faults
+ * on first access rather than by re-running the unions.
+ * <p>
+ * The file is mapped privately (copy-on-write): unions performed on a loaded instance
+ * only copy the pages they touch and never change the file. Finds do not compress
+ * paths, so answering queries keeps all the pages clean and shared with the page cache.
+ * <p>
+ * File layout, all values are little-endian ints:
+ * <pre>
+ *   header:   magic ('UFSN'), version, number of elements, number of components,
+ *             flags (bit 0 - weights are present), three reserved ints
+ *   elements: one int per element, the immediate root of the element
+ *   weights:  one int per element, present only if the flag is set
+ * </pre>
+ *
+ * @author Renat Kaitmazov
+ */
+
+public final class MappedUnion {
+
+    /*--------------------------------------------------------*/
+    /* Constants
+    /*--------------------------------------------------------*/
+
+    static final int MAGIC = 0x4E534655;
+    static final int VERSION = 1;
+    private static final int HEADER_INTS = 8;
+    private static final int HEADER_BYTES = HEADER_INTS * Integer.BYTES;
+    private static final int HAS_WEIGHTS = 1;
+
+    /**
+     * A single mapping cannot exceed 2GB, so arrays are mapped in chunks of 2^28 ints (1GB).
+     */
+
+    private static final int CHUNK_SHIFT = 28;
+    private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+
+    /*--------------------------------------------------------*/
+    /* Fields
+    /*--------------------------------------------------------*/
+
+    private final int size;
+    private final IntBuffer[] elements;
+    private final IntBuffer[] weights;
+    private int numberOfComponents;
+
+    /*--------------------------------------------------------*/
+    /* Constructors
+    /*--------------------------------------------------------*/
+
+    private MappedUnion(int size, int numberOfComponents, IntBuffer[] elements, IntBuffer[] weights) {
+        this.size = size;
+        this.numberOfComponents = numberOfComponents;
+        this.elements = elements;
+        this.weights = weights;
+    }
+
+    /*--------------------------------------------------------*/
+    /* Persistence
+    /*--------------------------------------------------------*/
+
+    /**
+     * Writes the state of the given component into a snapshot file.
+     * The file is created or truncated.
+     *
+     * @param component whose state to save.
+     * @param file      where to save the state.
+     * @throws IOException if the file cannot be written.
+     */
+
+    public static void save(ConnectedComponent component, Path file) throws IOException {
+        final int[] elements = component.elements;
+        final int[] weights = component instanceof WeightedQuickUnion
+                ? ((WeightedQuickUnion) component).weights()
+                : null;
+        final int size = elements.length;
+        final long arrayBytes = (long) size * Integer.BYTES;
+        final long fileSize = HEADER_BYTES + (weights == null ? arrayBytes : arrayBytes << 1);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC)
+                  .putInt(VERSION)
+                  .putInt(size)
+                  .putInt(component.components())
+                  .putInt(weights == null ? 0 : HAS_WEIGHTS);
+            // The reserved ints stay zero.
+            header.rewind();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            final IntBuffer[] elementChunks = map(channel, FileChannel.MapMode.READ_WRITE, HEADER_BYTES, size);
+            copy(elements, elementChunks);
+            if (weights != null) {
+                final IntBuffer[] weightChunks = map(channel, FileChannel.MapMode.READ_WRITE,
+                                                     HEADER_BYTES + arrayBytes, size);
+                copy(weights, weightChunks);
+            }
+            if (channel.size() != fileSize) throw new IOException("Failed to write the whole snapshot");
+        }
+    }
+
+    /**
+     * Maps a snapshot file created by {@link #save(ConnectedComponent, Path)}.
+     * The file must be writable but is never modified.
+     * It can even be deleted afterwards, the mapping stays valid.
+     *
+     * @param file the snapshot to map.
+     * @return a union-find backed by the file.
+     * @throws IOException if the file cannot be read or is not a valid snapshot.
+     */
+
+    public static MappedUnion load(Path file) throws IOException {
+        // Private mappings require a channel open for writing, even though the file is never written to.
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) throw new IOException("Truncated header");
+            }
+            header.flip();
+            if (header.getInt() != MAGIC) throw new IOException("Not a union-find snapshot");
+            final int version = header.getInt();
+            if (version != VERSION) throw new IOException("Unsupported snapshot version: " + version);
+            final int size = header.getInt();
+            final int components = header.getInt();
+            final boolean hasWeights = (header.getInt() & HAS_WEIGHTS) != 0;
+            final long arrayBytes = (long) size * Integer.BYTES;
+            final long expectedSize = HEADER_BYTES + (hasWeights ? arrayBytes << 1 : arrayBytes);
+            if (size < 1 || components < 1 || components > size || channel.size() != expectedSize) {
+                throw new IOException("Corrupted snapshot");
+            }
+            final IntBuffer[] elements = map(channel, FileChannel.MapMode.PRIVATE, HEADER_BYTES, size);
+            final IntBuffer[] weights = hasWeights
+                    ? map(channel, FileChannel.MapMode.PRIVATE, HEADER_BYTES + arrayBytes, size)
+                    : null;
+            return new MappedUnion(size, components, elements, weights);
+        }
+    }
+
+    /*--------------------------------------------------------*/
+    /* API
+    /*--------------------------------------------------------*/
+
+    /**
+     * Returns the amount of connected components.
+     *
+     * @return number of connected components.
+     */
+
+    public int components() {
+        return numberOfComponents;
+    }
+
+    /**
+     * Returns the amount of elements.
+     *
+     * @return number of elements.
+     */
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks to see if the given elements are connected.
+     *
+     * @param element1 the first element.
+     * @param element2 the second element.
+     * @return <code>true</code> if the elements are connected,
+     * <code>false</code> otherwise.
+     */
+
+    public boolean isConnected(int element1, int element2) {
+        validateIndex(element1);
+        validateIndex(element2);
+        return findId(element1) == findId(element2);
+    }
+
+    /**
+     * Performs a union operation of the given elements.
+     * The change is private to this instance and never reaches the file.
+     * If the snapshot has weights, the smaller tree becomes a subtree of the bigger one,
+     * otherwise the second tree becomes a subtree of the first one.
+     *
+     * @param element1 the first element.
+     * @param element2 the second element.
+     * @return <code>true</code> if managed to connect the given
+     * elements, <code>false</code> otherwise.
+     */
+
+    public boolean union(int element1, int element2) {
+        validateIndex(element1);
+        validateIndex(element2);
+        int id1 = findId(element1);
+        int id2 = findId(element2);
+        if (id1 == id2) {
+            // Already connected
+            return false;
+        }
+        if (weights != null) {
+            final int weight1 = get(weights, id1);
+            final int weight2 = get(weights, id2);
+            if (weight2 > weight1) {
+                final int temp = id1;
+                id1 = id2;
+                id2 = temp;
+            }
+            put(weights, id1, weight1 + weight2);
+        }
+        put(elements, id2, id1);
+        --numberOfComponents;
+        return true;
+    }
+
+    /*--------------------------------------------------------*/
+    /* Helper methods
+    /*--------------------------------------------------------*/
+
+    int findId(int element) {
+        int currentRoot = element;
+        int parent = get(elements, currentRoot);
+        while (currentRoot != parent) {
+            currentRoot = parent;
+            parent = get(elements, currentRoot);
+        }
+        return currentRoot;
+    }
+
+    private static IntBuffer[] map(FileChannel channel, FileChannel.MapMode mode, long position, int length)
+            throws IOException {
+        final int chunkCount = (int) (((long) length + CHUNK_MASK) >>> CHUNK_SHIFT);
+        final IntBuffer[] chunks = new IntBuffer[chunkCount];
+        for (int i = 0; i < chunkCount; ++i) {
+            final int start = i << CHUNK_SHIFT;
+            final int ints = Math.min(CHUNK_MASK + 1, length - start);
+            final MappedByteBuffer buffer = channel.map(mode, position + (long) start * Integer.BYTES,
+                                                        (long) ints * Integer.BYTES);
+            chunks[i] = buffer.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        }
+        return chunks;
+    }
+
+    private static void copy(int[] source, IntBuffer[] chunks) {
+        for (int i = 0; i < chunks.length; ++i) {
+            final IntBuffer chunk = chunks[i];
+            chunk.put(source, i << CHUNK_SHIFT, chunk.remaining());
+        }
+    }
+
+    private static int get(IntBuffer[] chunks, int index) {
+        return chunks[index >>> CHUNK_SHIFT].get(index & CHUNK_MASK);
+    }
+
+    private static void put(IntBuffer[] chunks, int index, int value) {
+        chunks[index >>> CHUNK_SHIFT].put(index & CHUNK_MASK, value);
+    }
+
+    private void validateIndex(int index) {
+        if (index < 0 || index >= size) {
+            final String msg = String.format("Index should be in the range [0, %d]. Your index is %d", size, index);
+            throw new IllegalArgumentException(msg);
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package lz.renatkaitmazov.algorithms.week1;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Answers connectivity queries over a sequence of edge insertions and deletions,
+ * provided that the whole sequence is known in advance.
+ * <p>
+ * Every operation gets a moment of time equal to its position in the sequence.
+ * Each edge is alive during some interval of time, from its insertion until its
+ * deletion (or the end of the sequence). The intervals are stored in a segment tree
+ * over time, so every interval is split into at most O(logT) nodes. A depth-first
+ * walk over the tree performs the unions of a node on the way down and takes them
+ * back with {@link RollbackUnion} on the way up. When the walk reaches a leaf, exactly
+ * the edges alive at that moment have been applied and the query can be answered.
+ * The whole sequence is processed in O(T * logT * logN) time.
+ * <p>
+ * Usage:
+ * <pre>
+ *     final OfflineDynamicConnectivity connectivity = new OfflineDynamicConnectivity(n);
+ *     connectivity.addEdge(0, 1);
+ *     final int query = connectivity.isConnected(0, 1);
+ *     connectivity.removeEdge(0, 1);
+ *     final boolean[] answers = connectivity.solve();
+ *     // answers[query] is true
+ * </pre>
+ *
+ * @author Renat Kaitmazov
+ */
+
+public final class OfflineDynamicConnectivity {
+
+    /*--------------------------------------------------------*/
+    /* Constants
+    /*--------------------------------------------------------*/
+
+    private static final int ADD = 0;
+    private static final int REMOVE = 1;
+    private static final int QUERY = 2;
+    private static final int INITIAL_CAPACITY = 16;
+
+    /*--------------------------------------------------------*/
+    /* Fields
+    /*--------------------------------------------------------*/
+
+    private final int numberOfElements;
+
+    /**
+     * The recorded operations: their types and endpoints.
+     */
+
+    private int[] types = new int[INITIAL_CAPACITY];
+    private int[] firstElements = new int[INITIAL_CAPACITY];
+    private int[] secondElements = new int[INITIAL_CAPACITY];
+    private int operations;
+    private int queries;
+
+    /**
+     * The moments at which the currently alive copies of each edge were inserted.
+     */
+
+    private final Map<Long, ArrayDeque<Integer>> aliveEdges = new HashMap<>();
+
+    /**
+     * Edges stored in the nodes of the segment tree as singly linked lists in arrays.
+     */
+
+    private int[] nodeHeads;
+    private int[] nextEntries;
+    private int[] entryFirst;
+    private int[] entrySecond;
+    private int entries;
+
+    private RollbackUnion union;
+    private boolean[] answers;
+    private int[] queryIndices;
+
+    /*--------------------------------------------------------*/
+    /* Constructors
+    /*--------------------------------------------------------*/
+
+    public OfflineDynamicConnectivity(int numberOfElements) {
+        if (numberOfElements < 1) {
+            throw new IllegalArgumentException("Number of elements must be positive");
+        }
+        this.numberOfElements = numberOfElements;
+    }
+
+    /*--------------------------------------------------------*/
+    /* API
+    /*--------------------------------------------------------*/
+
+    /**
+     * Records an insertion of an undirected edge.
+     * The same edge may be inserted several times.
+     *
+     * @param element1 the first element.
+     * @param element2 the second element.
+     */
+
+    public void addEdge(int element1, int element2) {
+        record(ADD, element1, element2);
+        aliveEdges.computeIfAbsent(key(element1, element2), k -> new ArrayDeque<>()).push(operations - 1);
+    }
+
+    /**
+     * Records a deletion of an undirected edge inserted earlier.
+     *
+     * @param element1 the first element.
+     * @param element2 the second element.
+     */
+
+    public void removeEdge(int element1, int element2) {
+        final ArrayDeque<Integer> moments = aliveEdges.get(key(element1, element2));
+        if (moments == null || moments.isEmpty()) {
+            throw new IllegalArgumentException("No such edge: " + element1 + " - " + element2);
+        }
+        record(REMOVE, element1, element2);
+        // Keeps the moment of insertion so that the interval can be built later.
+        secondElements[operations - 1] = moments.pop();
+        firstElements[operations - 1] = -1;
+    }
+
+    /**
+     * Records a query asking whether the given elements are connected
+     * at this point of the sequence.
+     *
+     * @param element1 the first element.
+     * @param element2 the second element.
+     * @return the index of the answer in the array returned by {@link #solve()}.
+     */
+
+    public int isConnected(int element1, int element2) {
+        record(QUERY, element1, element2);
+        return queries++;
+    }
+
+    /**
+     * Answers all the recorded queries.
+     *
+     * @return the answers in the order the queries were recorded.
+     */
+
+    public boolean[] solve() {
+        answers = new boolean[queries];
+        if (queries == 0) return answers;
+        final int time = operations;
+        nodeHeads = new int[time << 2];
+        Arrays.fill(nodeHeads, -1);
+        nextEntries = new int[INITIAL_CAPACITY];
+        entryFirst = new int[INITIAL_CAPACITY];
+        entrySecond = new int[INITIAL_CAPACITY];
+        entries = 0;
+
+        // An edge inserted at moment i and removed at moment j is alive during [i, j).
+        final boolean[] removed = new boolean[time];
+        for (int i = 0; i < time; ++i) {
+            if (types[i] == REMOVE) {
+                final int insertion = secondElements[i];
+                removed[insertion] = true;
+                insert(1, 0, time - 1, insertion, i - 1, firstElements[insertion], secondElements[insertion]);
+            }
+        }
+        for (int i = 0; i < time; ++i) {
+            if (types[i] == ADD && !removed[i]) {
+                insert(1, 0, time - 1, i, time - 1, firstElements[i], secondElements[i]);
+            }
+        }
+
+        queryIndices = new int[time];
+        for (int i = 0, query = 0; i < time; ++i) {
+            if (types[i] == QUERY) queryIndices[i] = query++;
+        }
+        union = new RollbackUnion(numberOfElements);
+        walk(1, 0, time - 1);
+
+        // Let the garbage collector take the working memory.
+        final boolean[] result = answers;
+        nodeHeads = nextEntries = entryFirst = entrySecond = queryIndices = null;
+        union = null;
+        answers = null;
+        return result;
+    }
+
+    /*--------------------------------------------------------*/
+    /* Helper methods
+    /*--------------------------------------------------------*/
+
+    private void record(int type, int element1, int element2) {
+        validateIndex(element1);
+        validateIndex(element2);
+        if (operations == types.length) {
+            final int newCapacity = operations << 1;
+            types = Arrays.copyOf(types, newCapacity);
+            firstElements = Arrays.copyOf(firstElements, newCapacity);
+            secondElements = Arrays.copyOf(secondElements, newCapacity);
+        }
+        types[operations] = type;
+        firstElements[operations] = element1;
+        secondElements[operations] = element2;
+        ++operations;
+    }
+
+    /**
+     * Adds an edge alive during [from, to] to the segment tree.
+     */
+
+    private void insert(int node, int start, int end, int from, int to, int element1, int element2) {
+        if (to < start || end < from) return;
+        if (from <= start && end <= to) {
+            if (entries == nextEntries.length) {
+                final int newCapacity = entries << 1;
+                nextEntries = Arrays.copyOf(nextEntries, newCapacity);
+                entryFirst = Arrays.copyOf(entryFirst, newCapacity);
+                entrySecond = Arrays.copyOf(entrySecond, newCapacity);
+            }
+            entryFirst[entries] = element1;
+            entrySecond[entries] = element2;
+            nextEntries[entries] = nodeHeads[node];
+            nodeHeads[node] = entries++;
+            return;
+        }
+        final int middle = start + ((end - start) >> 1);
+        insert(node << 1, start, middle, from, to, element1, element2);
+        insert((node << 1) + 1, middle + 1, end, from, to, element1, element2);
+    }
+
+    private void walk(int node, int start, int end) {
+        final int snapshot = union.snapshot();
+        for (int entry = nodeHeads[node]; entry != -1; entry = nextEntries[entry]) {
+            union.union(entryFirst[entry], entrySecond[entry]);
+        }
+        if (start == end) {
+            if (types[start] == QUERY) {
+                answers[queryIndices[start]] = union.isConnected(firstElements[start], secondElements[start]);
+            }
+        } else {
+            final int middle = start + ((end - start) >> 1);
+            walk(node << 1, start, middle);
+            walk((node << 1) + 1, middle + 1, end);
+        }
+        union.rollback(snapshot);
+    }
+
+    private static Long key(int element1, int element2) {
+        final int min = Math.min(element1, element2);
+        final int max = Math.max(element1, element2);
+        return ((long) min << 32) | max;
+    }
+
+    private void validateIndex(int index) {
+        if (index < 0 || index >= numberOfElements) {
+            final String msg = String.format("Index should be in the range [0, %d]. Your index is %d", numberOfElements, index);
+            throw new IllegalArgumentException(msg);
+        }
+    }
+}
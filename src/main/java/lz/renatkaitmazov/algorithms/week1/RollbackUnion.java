@@ -0,0 +1,101 @@
+package lz.renatkaitmazov.algorithms.week1;
+
+/**
+ * A concrete implementation to solve dynamic week1 problem
+ * whose union operations can be taken back.
+ * Like {@link WeightedQuickUnion} it always makes the smaller tree
+ * a subtree of the bigger one, so the height of any tree is at most logarithmic.
+ * Unlike {@link WeightedQuickUnion} it does not compress paths: path compression
+ * changes many links at once and those changes cannot be cheaply undone.
+ * Every successful union changes exactly one link and one weight, and the root that
+ * has been linked is pushed onto a history stack. Rolling back pops the stack and
+ * restores both, which takes constant time per union.
+ *
+ * @author Renat Kaitmazov
+ */
+
+public final class RollbackUnion extends Union {
+
+    /*--------------------------------------------------------*/
+    /* Fields
+    /*--------------------------------------------------------*/
+
+    private final int[] weights;
+
+    /**
+     * The roots that have become subtrees, in the order of the unions.
+     * There can be at most N - 1 successful unions, so the array never grows.
+     */
+
+    private final int[] history;
+    private int historySize;
+
+    /*--------------------------------------------------------*/
+    /* Constructors
+    /*--------------------------------------------------------*/
+
+    public RollbackUnion(int numberOfComponents) {
+        super(numberOfComponents);
+        weights = new int[numberOfComponents];
+        for (int i = 0; i < numberOfComponents; ++i) {
+            weights[i] = 1;
+        }
+        history = new int[numberOfComponents];
+    }
+
+    /*--------------------------------------------------------*/
+    /* API
+    /*--------------------------------------------------------*/
+
+    /**
+     * Returns a marker of the current state that can later be passed to
+     * {@link #rollback(int)}.
+     *
+     * @return the number of successful unions performed so far.
+     */
+
+    public int snapshot() {
+        return historySize;
+    }
+
+    /**
+     * Takes back all the successful unions performed after the given snapshot
+     * was taken, the most recent first.
+     *
+     * @param snapshot a value returned by {@link #snapshot()}.
+     */
+
+    public void rollback(int snapshot) {
+        if (snapshot < 0 || snapshot > historySize) {
+            throw new IllegalArgumentException("Unknown snapshot: " + snapshot);
+        }
+        while (historySize > snapshot) {
+            final int child = history[--historySize];
+            final int parent = elements[child];
+            weights[parent] -= weights[child];
+            // The child becomes a root again.
+            elements[child] = child;
+            splitComponent();
+        }
+    }
+
+    /*--------------------------------------------------------*/
+    /* ConnectedComponent implementation
+    /*--------------------------------------------------------*/
+
+    @Override
+    final boolean connect(int id1, int id2) {
+        final int weight1 = weights[id1];
+        final int weight2 = weights[id2];
+        if (weight2 > weight1) {
+            elements[id1] = id2;
+            weights[id2] += weight1;
+            history[historySize++] = id1;
+        } else {
+            elements[id2] = id1;
+            weights[id1] += weight2;
+            history[historySize++] = id2;
+        }
+        return true;
+    }
+}
@@ -46,6 +46,17 @@ public final class WeightedQuickUnion extends Union {
         }
     }
 
+    /**
+     * Returns the array of weights itself, not a copy.
+     * Used to save the state without copying it twice.
+     *
+     * @return the weights of the trees, valid for the roots only.
+     */
+
+    final int[] weights() {
+        return weights;
+    }
+
     /*--------------------------------------------------------*/
     /* ConnectedComponent implementation
     /*--------------------------------------------------------*/
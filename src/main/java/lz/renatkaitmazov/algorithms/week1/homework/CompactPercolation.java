@@ -0,0 +1,152 @@
+package lz.renatkaitmazov.algorithms.week1.homework;
+
+/**
+ * A drop-in alternative to {@link Percolation} that uses a single union-find.
+ * <p>
+ * {@link Percolation} needs a second union-find without the virtual bottom site
+ * to avoid backwash. Here there are no virtual sites at all. Instead, the root of
+ * each component remembers whether the component touches the top row and whether
+ * it touches the bottom row. A site is full if and only if the root of its component
+ * touches the top, and the system percolates as soon as some root touches both.
+ * <p>
+ * Everything except the parent links is packed into one byte per site:
+ * <pre>
+ *   bit 0     - the site is open
+ *   bit 1     - the component is connected to the top (valid for roots only)
+ *   bit 2     - the component is connected to the bottom (valid for roots only)
+ *   bits 3..7 - the rank of the tree (valid for roots only)
+ * </pre>
+ * Union by rank keeps the rank below 32, so it fits into five bits.
+ * The whole grid takes five bytes per site instead of roughly seventeen.
+ *
+ * @author Renat Kaitmazov
+ */
+
+public final class CompactPercolation {
+
+    /*--------------------------------------------------------*/
+    /* Constants
+    /*--------------------------------------------------------*/
+
+    private static final int OPEN = 1;
+    private static final int TOP = 1 << 1;
+    private static final int BOTTOM = 1 << 2;
+    private static final int FLAGS = OPEN | TOP | BOTTOM;
+    private static final int RANK_SHIFT = 3;
+
+    /*--------------------------------------------------------*/
+    /* Fields
+    /*--------------------------------------------------------*/
+
+    private final int[] parents;
+    private final byte[] states;
+    private final int size;
+    private int openSites;
+    private boolean percolates;
+
+    /*--------------------------------------------------------*/
+    /* Constructors
+    /*--------------------------------------------------------*/
+
+    public CompactPercolation(int n) {
+        if (n < 1) throw new IllegalArgumentException("n is not positive");
+        final long sites = (long) n * n;
+        if (sites > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("n is too large");
+        size = n;
+        parents = new int[(int) sites];
+        states = new byte[(int) sites];
+        for (int i = 0; i < sites; ++i) {
+            parents[i] = i;
+        }
+    }
+
+    /*--------------------------------------------------------*/
+    /* API
+    /*--------------------------------------------------------*/
+
+    public void open(int row, int col) {
+        if (isOpen(row, col)) return;
+        ++openSites;
+        final int site = toIndex(row, col);
+        int state = OPEN;
+        if (row == 1) state |= TOP;
+        if (row == size) state |= BOTTOM;
+        states[site] = (byte) state;
+
+        // Connect all neighbors of the current site if and only if the neighbors are open.
+        if (row > 1) connectIfOpen(site - size, site);
+        if (row < size) connectIfOpen(site + size, site);
+        if (col > 1) connectIfOpen(site - 1, site);
+        if (col < size) connectIfOpen(site + 1, site);
+
+        final int rootState = states[find(site)];
+        if ((rootState & TOP) != 0 && (rootState & BOTTOM) != 0) percolates = true;
+    }
+
+    public boolean isOpen(int row, int col) {
+        validateRowAndColumn(row, col);
+        return (states[toIndex(row, col)] & OPEN) != 0;
+    }
+
+    public boolean isFull(int row, int col) {
+        validateRowAndColumn(row, col);
+        final int site = toIndex(row, col);
+        // A blocked site is its own root without the top flag.
+        return (states[find(site)] & TOP) != 0;
+    }
+
+    public int numberOfOpenSites() {
+        return openSites;
+    }
+
+    public boolean percolates() {
+        return percolates;
+    }
+
+    /*--------------------------------------------------------*/
+    /* Helper methods
+    /*--------------------------------------------------------*/
+
+    private void connectIfOpen(int neighbor, int site) {
+        if ((states[neighbor] & OPEN) == 0) return;
+        int root1 = find(neighbor);
+        int root2 = find(site);
+        if (root1 == root2) return;
+        final int state1 = states[root1];
+        final int state2 = states[root2];
+        final int rank1 = (state1 & 0xFF) >>> RANK_SHIFT;
+        final int rank2 = (state2 & 0xFF) >>> RANK_SHIFT;
+        int rank = Math.max(rank1, rank2);
+        if (rank1 < rank2) {
+            final int temp = root1;
+            root1 = root2;
+            root2 = temp;
+        } else if (rank1 == rank2) {
+            ++rank;
+        }
+        // The second root becomes a subtree of the first one and
+        // passes its connections to the top and to the bottom over.
+        parents[root2] = root1;
+        states[root1] = (byte) ((rank << RANK_SHIFT) | ((state1 | state2) & FLAGS));
+    }
+
+    private int find(int site) {
+        while (site != parents[site]) {
+            // Path halving: make every other site point to its grandparent.
+            parents[site] = parents[parents[site]];
+            site = parents[site];
+        }
+        return site;
+    }
+
+    private void validateRowAndColumn(int row, int col) {
+        // row or column must be in range [1, N]
+        if ((row < 1 || row > size) || (col < 1 || col > size)) {
+            throw new IllegalArgumentException("wrong row or column");
+        }
+    }
+
+    private int toIndex(int row, int col) {
+        return size * (row - 1) + (col - 1);
+    }
+}
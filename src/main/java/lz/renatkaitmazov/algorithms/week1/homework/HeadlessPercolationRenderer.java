@@ -0,0 +1,388 @@
+package lz.renatkaitmazov.algorithms.week1.homework;
+
+import edu.princeton.cs.algs4.In;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Records a {@link Percolation} run without a display, as an alternative to
+ * {@link PercolationVisualizer} on machines without a GUI.
+ * <p>
+ * The renderer keeps its own copy of the state of every site (blocked, open or full)
+ * and updates it incrementally. When a newly opened site turns out to be full, only
+ * the sites that became full together with it are visited, so the whole run costs
+ * time proportional to the number of sites rather than to the number of sites per open.
+ * The changes since the previous frame are tracked as a dirty rectangle.
+ * <p>
+ * Frames are appended to a binary log by a background thread, so the simulation
+ * does not wait for the output. The log has the following layout (all ints are big-endian):
+ * <pre>
+ *   header: int magic ('PERC'), int version, int n
+ *   frame:  int openSites, int top, int left, int height, int width,
+ *           height * width bytes with the states of the dirty rectangle row by row
+ * </pre>
+ * Rows and columns in the log are zero-based. A state is one of {@link #BLOCKED},
+ * {@link #OPEN} or {@link #FULL}. The current picture can also be saved as a PNG image.
+ *
+ * @author Renat Kaitmazov
+ */
+
+public final class HeadlessPercolationRenderer implements Closeable {
+
+    /*--------------------------------------------------------*/
+    /* Constants
+    /*--------------------------------------------------------*/
+
+    public static final int MAGIC = 0x50455243;
+    public static final int VERSION = 1;
+
+    public static final byte BLOCKED = 0;
+    public static final byte OPEN = 1;
+    public static final byte FULL = 2;
+
+    // The same colors as in PercolationVisualizer.
+    private static final int BLOCKED_COLOR = 0x000000;
+    private static final int OPEN_COLOR = 0xFFFFFF;
+    private static final int FULL_COLOR = 0x67C6F3;
+
+    /**
+     * How many frames may wait for the writer before the simulation is blocked.
+     */
+
+    private static final int QUEUE_CAPACITY = 1024;
+
+    /*--------------------------------------------------------*/
+    /* Fields
+    /*--------------------------------------------------------*/
+
+    private final Percolation percolation;
+    private final int size;
+    private final byte[] states;
+    private final int[] stack;
+
+    private int dirtyTop;
+    private int dirtyLeft;
+    private int dirtyBottom;
+    private int dirtyRight;
+
+    private final BlockingQueue<Frame> frames = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread writer;
+    private volatile IOException writeFailure;
+    private boolean closed;
+
+    /*--------------------------------------------------------*/
+    /* Nested classes
+    /*--------------------------------------------------------*/
+
+    private static final class Frame {
+
+        /**
+         * Tells the writer that there are no more frames.
+         */
+
+        static final Frame END = new Frame(0, 0, 0, 0, 0, new byte[0]);
+
+        final int openSites;
+        final int top;
+        final int left;
+        final int height;
+        final int width;
+        final byte[] states;
+
+        Frame(int openSites, int top, int left, int height, int width, byte[] states) {
+            this.openSites = openSites;
+            this.top = top;
+            this.left = left;
+            this.height = height;
+            this.width = width;
+            this.states = states;
+        }
+    }
+
+    /*--------------------------------------------------------*/
+    /* Constructors
+    /*--------------------------------------------------------*/
+
+    /**
+     * Creates a renderer for a new n-by-n percolation system.
+     *
+     * @param n   the size of the grid.
+     * @param log where to write frames, closed together with the renderer.
+     * @throws IOException if the header cannot be written.
+     */
+
+    public HeadlessPercolationRenderer(int n, OutputStream log) throws IOException {
+        percolation = new Percolation(n);
+        size = n;
+        states = new byte[n * n];
+        stack = new int[n * n];
+        resetDirtyRegion();
+
+        final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(log));
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeInt(n);
+        writer = new Thread(() -> writeFrames(output), "percolation-frame-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /*--------------------------------------------------------*/
+    /* API
+    /*--------------------------------------------------------*/
+
+    /**
+     * Returns the percolation system being rendered.
+     * Sites must be opened through {@link #open(int, int)} so that the renderer sees them.
+     *
+     * @return the underlying percolation system.
+     */
+
+    public Percolation percolation() {
+        return percolation;
+    }
+
+    /**
+     * Opens the given site and updates the picture.
+     *
+     * @param row the row of the site in the range [1, n].
+     * @param col the column of the site in the range [1, n].
+     */
+
+    public void open(int row, int col) {
+        percolation.open(row, col);
+        final int site = (row - 1) * size + (col - 1);
+        if (states[site] != BLOCKED) return;
+        states[site] = OPEN;
+        markDirty(site);
+        if (percolation.isFull(row, col)) fill(site);
+    }
+
+    /**
+     * Returns the state of the given site as it is drawn.
+     *
+     * @param row the row of the site in the range [1, n].
+     * @param col the column of the site in the range [1, n].
+     * @return {@link #BLOCKED}, {@link #OPEN} or {@link #FULL}.
+     */
+
+    public byte state(int row, int col) {
+        if (row < 1 || row > size || col < 1 || col > size) {
+            throw new IllegalArgumentException("wrong row or column");
+        }
+        return states[(row - 1) * size + (col - 1)];
+    }
+
+    /**
+     * Hands the sites changed since the previous frame over to the background writer.
+     * Does nothing if nothing has changed.
+     *
+     * @throws IOException if the writer has failed earlier.
+     */
+
+    public void frame() throws IOException {
+        checkWriter();
+        if (dirtyTop > dirtyBottom) return;
+        final int height = dirtyBottom - dirtyTop + 1;
+        final int width = dirtyRight - dirtyLeft + 1;
+        final byte[] region = new byte[height * width];
+        for (int r = 0; r < height; ++r) {
+            System.arraycopy(states, (dirtyTop + r) * size + dirtyLeft, region, r * width, width);
+        }
+        enqueue(new Frame(percolation.numberOfOpenSites(), dirtyTop, dirtyLeft, height, width, region));
+        resetDirtyRegion();
+    }
+
+    /**
+     * Saves the current picture as a PNG image.
+     *
+     * @param file     where to save the image.
+     * @param cellSize the side of a site in pixels.
+     * @throws IOException if the image cannot be written.
+     */
+
+    public void writePng(Path file, int cellSize) throws IOException {
+        if (cellSize < 1) throw new IllegalArgumentException("cell size is not positive");
+        final int side = size * cellSize;
+        final BufferedImage image = new BufferedImage(side, side, BufferedImage.TYPE_INT_RGB);
+        final int[] line = new int[side];
+        for (int row = 0; row < size; ++row) {
+            for (int col = 0; col < size; ++col) {
+                final int color = color(states[row * size + col]);
+                for (int x = col * cellSize, end = x + cellSize; x < end; ++x) {
+                    line[x] = color;
+                }
+            }
+            for (int y = row * cellSize, end = y + cellSize; y < end; ++y) {
+                image.setRGB(0, y, side, 1, line, 0, side);
+            }
+        }
+        try (OutputStream output = Files.newOutputStream(file)) {
+            ImageIO.write(image, "png", output);
+        }
+    }
+
+    /**
+     * Writes the pending changes, waits for the writer to finish and closes the log.
+     *
+     * @throws IOException if some frame could not be written.
+     */
+
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        try {
+            frame();
+        } finally {
+            enqueue(Frame.END);
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the writer");
+            }
+        }
+        checkWriter();
+    }
+
+    /*--------------------------------------------------------*/
+    /* Helper methods
+    /*--------------------------------------------------------*/
+
+    /**
+     * Marks as full every open site that is connected to the given full site
+     * and has not been full yet. These are exactly the sites that became full.
+     */
+
+    private void fill(int site) {
+        int top = 0;
+        stack[top++] = site;
+        states[site] = FULL;
+        while (top > 0) {
+            final int current = stack[--top];
+            markDirty(current);
+            final int row = current / size;
+            final int col = current - row * size;
+            if (row > 0) top = push(current - size, top);
+            if (row < size - 1) top = push(current + size, top);
+            if (col > 0) top = push(current - 1, top);
+            if (col < size - 1) top = push(current + 1, top);
+        }
+    }
+
+    private int push(int site, int top) {
+        if (states[site] != OPEN) return top;
+        // Mark it right away so that no site gets on the stack twice.
+        states[site] = FULL;
+        stack[top] = site;
+        return top + 1;
+    }
+
+    private void markDirty(int site) {
+        final int row = site / size;
+        final int col = site - row * size;
+        if (row < dirtyTop) dirtyTop = row;
+        if (row > dirtyBottom) dirtyBottom = row;
+        if (col < dirtyLeft) dirtyLeft = col;
+        if (col > dirtyRight) dirtyRight = col;
+    }
+
+    private void resetDirtyRegion() {
+        dirtyTop = size;
+        dirtyLeft = size;
+        dirtyBottom = -1;
+        dirtyRight = -1;
+    }
+
+    private void enqueue(Frame frame) throws IOException {
+        try {
+            frames.put(frame);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while handing a frame over");
+        }
+    }
+
+    private void checkWriter() throws IOException {
+        final IOException failure = writeFailure;
+        if (failure != null) throw failure;
+    }
+
+    private void writeFrames(DataOutputStream output) {
+        boolean ended = false;
+        try (DataOutputStream out = output) {
+            while (true) {
+                final Frame frame = frames.take();
+                if (frame == Frame.END) {
+                    ended = true;
+                    break;
+                }
+                out.writeInt(frame.openSites);
+                out.writeInt(frame.top);
+                out.writeInt(frame.left);
+                out.writeInt(frame.height);
+                out.writeInt(frame.width);
+                out.write(frame.states);
+            }
+        } catch (IOException e) {
+            writeFailure = e;
+            // Keep taking frames so that the simulation never blocks on a full queue.
+            if (!ended) drainUntilEnd();
+        } catch (InterruptedException e) {
+            writeFailure = new InterruptedIOException("The writer was interrupted");
+        }
+    }
+
+    private void drainUntilEnd() {
+        try {
+            while (frames.take() != Frame.END) {
+                // Discard.
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static int color(byte state) {
+        switch (state) {
+            case FULL: return FULL_COLOR;
+            case OPEN: return OPEN_COLOR;
+            default: return BLOCKED_COLOR;
+        }
+    }
+
+    /**
+     * Replays an input file in the format of {@link PercolationVisualizer}
+     * and records one frame per opened site.
+     *
+     * @param args the input file, the frame log and, optionally, the final PNG image.
+     */
+
+    public static void main(String[] args) throws IOException {
+        final In in = new In(args[0]);
+        final int n = in.readInt();
+        try (HeadlessPercolationRenderer renderer =
+                     new HeadlessPercolationRenderer(n, Files.newOutputStream(Paths.get(args[1])))) {
+            while (!in.isEmpty()) {
+                final int row = in.readInt();
+                final int col = in.readInt();
+                renderer.open(row, col);
+                renderer.frame();
+            }
+            if (args.length > 2) renderer.writePng(Paths.get(args[2]), 8);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package lz.renatkaitmazov.algorithms.week1.homework;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A percolation system that keeps its state in a memory-mapped file instead of
+ * the Java heap, so grids with far more than 2^31 sites (up to about 10^10) can
+ * be simulated. The operating system pages the parts of the grid that are in use
+ * in and out of its cache.
+ * <p>
+ * The model is the same as in {@link CompactPercolation}: a single union-find whose
+ * roots know if their component touches the top or the bottom row. Sites are indexed
+ * with <code>long</code>s. The file holds two regions:
+ * <pre>
+ *   [0, 8 * sites)         - parent links, one long per site
+ *   [8 * sites, 9 * sites) - one state byte per site (open, top, bottom, rank)
+ * </pre>
+ * A parent link is stored as <code>parent + 1</code> and <code>0</code> means that the
+ * site is its own root. Thus a freshly created (sparse, zero-filled) file is already a
+ * valid grid with every site blocked and nothing has to be initialized.
+ * The rank uses five bits and saturates at 31, which is never reached in practice.
+ * <p>
+ * The API mirrors {@link Percolation} except that the number of open sites is a
+ * <code>long</code>. The instance must be closed when it is no longer needed.
+ *
+ * @author Renat Kaitmazov
+ */
+
+public final class MappedPercolation implements Closeable {
+
+    /*--------------------------------------------------------*/
+    /* Constants
+    /*--------------------------------------------------------*/
+
+    private static final int OPEN = 1;
+    private static final int TOP = 1 << 1;
+    private static final int BOTTOM = 1 << 2;
+    private static final int FLAGS = OPEN | TOP | BOTTOM;
+    private static final int RANK_SHIFT = 3;
+    private static final int MAX_RANK = 31;
+
+    /**
+     * A single mapping cannot exceed 2GB, so the file is mapped in chunks of 1GB.
+     * The size is a multiple of 8, hence no long ever straddles two chunks.
+     */
+
+    private static final int CHUNK_SHIFT = 30;
+    private static final long CHUNK_SIZE = 1L << CHUNK_SHIFT;
+    private static final long CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /*--------------------------------------------------------*/
+    /* Fields
+    /*--------------------------------------------------------*/
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] chunks;
+    private final long statesOffset;
+    private final boolean temporary;
+    private final int size;
+    private long openSites;
+    private boolean percolates;
+
+    /*--------------------------------------------------------*/
+    /* Constructors
+    /*--------------------------------------------------------*/
+
+    /**
+     * Creates a grid backed by a temporary file that is deleted on {@link #close()}.
+     *
+     * @param n the size of the grid.
+     * @throws IOException if the file cannot be created or mapped.
+     */
+
+    public MappedPercolation(int n) throws IOException {
+        this(n, createTemporaryFile(n), true);
+    }
+
+    /**
+     * Creates a grid backed by the given file.
+     * The file must not exist.
+     *
+     * @param n    the size of the grid.
+     * @param file where to keep the grid.
+     * @throws IOException if the file cannot be created or mapped.
+     */
+
+    public MappedPercolation(int n, Path file) throws IOException {
+        this(n, file, false);
+    }
+
+    private MappedPercolation(int n, Path file, boolean temporary) throws IOException {
+        if (n < 1) throw new IllegalArgumentException("n is not positive");
+        size = n;
+        this.temporary = temporary;
+        final long sites = (long) n * n;
+        statesOffset = sites * Long.BYTES;
+        final long fileSize = statesOffset + sites;
+        channel = temporary
+                ? FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                                   StandardOpenOption.DELETE_ON_CLOSE)
+                : FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                                   StandardOpenOption.CREATE_NEW, StandardOpenOption.SPARSE);
+        try {
+            final int chunkCount = (int) ((fileSize + CHUNK_MASK) >>> CHUNK_SHIFT);
+            chunks = new MappedByteBuffer[chunkCount];
+            for (int i = 0; i < chunkCount; ++i) {
+                final long position = (long) i << CHUNK_SHIFT;
+                final long length = Math.min(CHUNK_SIZE, fileSize - position);
+                // Mapping past the end of the file grows it, the new bytes read as zeros.
+                chunks[i] = channel.map(FileChannel.MapMode.READ_WRITE, position, length);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static Path createTemporaryFile(int n) throws IOException {
+        // Validate before touching the file system so that nothing is left behind.
+        if (n < 1) throw new IllegalArgumentException("n is not positive");
+        return Files.createTempFile("percolation", ".grid");
+    }
+
+    /*--------------------------------------------------------*/
+    /* API
+    /*--------------------------------------------------------*/
+
+    public void open(int row, int col) {
+        if (isOpen(row, col)) return;
+        ++openSites;
+        final long site = toIndex(row, col);
+        int state = OPEN;
+        if (row == 1) state |= TOP;
+        if (row == size) state |= BOTTOM;
+        setState(site, state);
+
+        // Connect all neighbors of the current site if and only if the neighbors are open.
+        if (row > 1) connectIfOpen(site - size, site);
+        if (row < size) connectIfOpen(site + size, site);
+        if (col > 1) connectIfOpen(site - 1, site);
+        if (col < size) connectIfOpen(site + 1, site);
+
+        final int rootState = getState(find(site));
+        if ((rootState & TOP) != 0 && (rootState & BOTTOM) != 0) percolates = true;
+    }
+
+    public boolean isOpen(int row, int col) {
+        validateRowAndColumn(row, col);
+        return (getState(toIndex(row, col)) & OPEN) != 0;
+    }
+
+    public boolean isFull(int row, int col) {
+        validateRowAndColumn(row, col);
+        return (getState(find(toIndex(row, col))) & TOP) != 0;
+    }
+
+    public long numberOfOpenSites() {
+        return openSites;
+    }
+
+    public boolean percolates() {
+        return percolates;
+    }
+
+    /**
+     * Flushes the grid to the file (unless it is a temporary one) and closes it.
+     * The mapped memory itself is released once the instance is garbage collected.
+     *
+     * @throws IOException if the file cannot be closed.
+     */
+
+    @Override
+    public void close() throws IOException {
+        if (!temporary) {
+            for (final MappedByteBuffer chunk : chunks) {
+                chunk.force();
+            }
+        }
+        channel.close();
+    }
+
+    /*--------------------------------------------------------*/
+    /* Helper methods
+    /*--------------------------------------------------------*/
+
+    private void connectIfOpen(long neighbor, long site) {
+        if ((getState(neighbor) & OPEN) == 0) return;
+        long root1 = find(neighbor);
+        long root2 = find(site);
+        if (root1 == root2) return;
+        final int state1 = getState(root1);
+        final int state2 = getState(root2);
+        final int rank1 = state1 >>> RANK_SHIFT;
+        final int rank2 = state2 >>> RANK_SHIFT;
+        int rank = Math.max(rank1, rank2);
+        if (rank1 < rank2) {
+            final long temp = root1;
+            root1 = root2;
+            root2 = temp;
+        } else if (rank1 == rank2 && rank < MAX_RANK) {
+            ++rank;
+        }
+        setParent(root2, root1);
+        setState(root1, (rank << RANK_SHIFT) | ((state1 | state2) & FLAGS));
+    }
+
+    private long find(long site) {
+        long parent = getParent(site);
+        while (site != parent) {
+            // Path halving: make every other site point to its grandparent.
+            final long grandparent = getParent(parent);
+            setParent(site, grandparent);
+            site = grandparent;
+            parent = getParent(site);
+        }
+        return site;
+    }
+
+    private long getParent(long site) {
+        final long position = site * Long.BYTES;
+        final long link = chunks[(int) (position >>> CHUNK_SHIFT)].getLong((int) (position & CHUNK_MASK));
+        return link == 0 ? site : link - 1;
+    }
+
+    private void setParent(long site, long parent) {
+        final long position = site * Long.BYTES;
+        final long link = site == parent ? 0 : parent + 1;
+        chunks[(int) (position >>> CHUNK_SHIFT)].putLong((int) (position & CHUNK_MASK), link);
+    }
+
+    private int getState(long site) {
+        final long position = statesOffset + site;
+        return chunks[(int) (position >>> CHUNK_SHIFT)].get((int) (position & CHUNK_MASK)) & 0xFF;
+    }
+
+    private void setState(long site, int state) {
+        final long position = statesOffset + site;
+        chunks[(int) (position >>> CHUNK_SHIFT)].put((int) (position & CHUNK_MASK), (byte) state);
+    }
+
+    private void validateRowAndColumn(int row, int col) {
+        // row or column must be in range [1, N]
+        if ((row < 1 || row > size) || (col < 1 || col > size)) {
+            throw new IllegalArgumentException("wrong row or column");
+        }
+    }
+
+    private long toIndex(int row, int col) {
+        return (long) size * (row - 1) + (col - 1);
+    }
+}
@@ -0,0 +1,321 @@
+package lz.renatkaitmazov.algorithms.week1.homework;
+
+import edu.princeton.cs.algs4.StdStats;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * An alternative to {@link PercolationStats} based on the algorithm of Newman and Ziff.
+ * <p>
+ * Instead of opening random sites until the system percolates and then throwing the
+ * grid away, each trial opens all the sites one by one in the order of a single random
+ * permutation. While doing so it records the number of open sites at which the system
+ * starts to percolate and the number of full sites after every step. Thus one sweep
+ * answers questions for every number of open sites at once, and questions about
+ * the probability <code>p</code> of a site being open are answered by weighting those
+ * results with the binomial distribution.
+ * <p>
+ * The grid is modelled with a single union-find whose roots know the size of
+ * their component and whether it touches the top and the bottom rows.
+ *
+ * @author Renat Kaitmazov
+ */
+
+public final class NewmanZiffPercolationStats {
+
+    /*--------------------------------------------------------*/
+    /* Constants
+    /*--------------------------------------------------------*/
+
+    private static final double CONFIDENCE = 1.96;
+    private static final byte TOP = 1;
+    private static final byte BOTTOM = 1 << 1;
+
+    /*--------------------------------------------------------*/
+    /* Fields
+    /*--------------------------------------------------------*/
+
+    private final int size;
+    private final int sites;
+    private final int trials;
+
+    /**
+     * The number of open sites at which each trial started to percolate, sorted.
+     */
+
+    private final int[] thresholds;
+
+    /**
+     * The sum over all the trials of the number of full sites
+     * when exactly <code>i</code> sites are open.
+     */
+
+    private final long[] fullSites;
+
+    private final double mean;
+    private final double stdDeviation;
+
+    /*--------------------------------------------------------*/
+    /* Sweep state, reused by all the trials
+    /*--------------------------------------------------------*/
+
+    private final int[] parents;
+    private final int[] weights;
+    private final byte[] flags;
+    private final boolean[] open;
+    private final int[] order;
+    private long fullSitesInTrial;
+
+    /*--------------------------------------------------------*/
+    /* Constructors
+    /*--------------------------------------------------------*/
+
+    public NewmanZiffPercolationStats(int n, int trials, long seed) {
+        if (n < 1 || trials < 1) throw new IllegalArgumentException("wrong arguments");
+        if ((long) n * n > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("n is too large");
+        this.size = n;
+        this.sites = n * n;
+        this.trials = trials;
+        thresholds = new int[trials];
+        fullSites = new long[sites + 1];
+        parents = new int[sites];
+        weights = new int[sites];
+        flags = new byte[sites];
+        open = new boolean[sites];
+        order = new int[sites];
+
+        final double[] results = new double[trials];
+        for (int i = 0; i < trials; ++i) {
+            thresholds[i] = sweep(PercolationTrial.random(seed, i));
+            results[i] = (double) thresholds[i] / sites;
+        }
+        Arrays.sort(thresholds);
+        mean = StdStats.mean(results);
+        stdDeviation = StdStats.stddev(results);
+    }
+
+    /*--------------------------------------------------------*/
+    /* API
+    /*--------------------------------------------------------*/
+
+    /**
+     * Returns the sample mean of the percolation threshold.
+     *
+     * @return the mean fraction of open sites at which the system percolates.
+     */
+
+    public double mean() {
+        return mean;
+    }
+
+    public double stddev() {
+        return stdDeviation;
+    }
+
+    public double confidenceLo() {
+        return mean - (CONFIDENCE * stdDeviation / Math.sqrt(trials));
+    }
+
+    public double confidenceHi() {
+        return mean + (CONFIDENCE * stdDeviation / Math.sqrt(trials));
+    }
+
+    /**
+     * Returns the fraction of the trials that percolate when exactly
+     * the given number of sites is open.
+     *
+     * @param openSites the number of open sites in the range [0, n * n].
+     * @return the estimated spanning probability.
+     */
+
+    public double spanningProbability(int openSites) {
+        validateOpenSites(openSites);
+        // The number of thresholds that are not greater than openSites.
+        int low = 0;
+        int high = trials;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (thresholds[middle] <= openSites) low = middle + 1;
+            else high = middle;
+        }
+        return (double) low / trials;
+    }
+
+    /**
+     * Returns the probability that the system percolates if every site
+     * is open independently with the given probability.
+     *
+     * @param p the probability of a site being open.
+     * @return the estimated spanning probability.
+     */
+
+    public double spanningProbability(double p) {
+        final double[] binomial = binomial(p);
+        double result = 0;
+        for (int openSites = 0; openSites <= sites; ++openSites) {
+            result += binomial[openSites] * spanningProbability(openSites);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the mean fraction of sites that are full when exactly
+     * the given number of sites is open.
+     *
+     * @param openSites the number of open sites in the range [0, n * n].
+     * @return the estimated fraction of full sites.
+     */
+
+    public double fullFraction(int openSites) {
+        validateOpenSites(openSites);
+        return (double) fullSites[openSites] / trials / sites;
+    }
+
+    /**
+     * Returns the mean fraction of sites that are full if every site
+     * is open independently with the given probability.
+     *
+     * @param p the probability of a site being open.
+     * @return the estimated fraction of full sites.
+     */
+
+    public double fullFraction(double p) {
+        final double[] binomial = binomial(p);
+        double result = 0;
+        for (int openSites = 0; openSites <= sites; ++openSites) {
+            result += binomial[openSites] * fullFraction(openSites);
+        }
+        return result;
+    }
+
+    /*--------------------------------------------------------*/
+    /* Helper methods
+    /*--------------------------------------------------------*/
+
+    /**
+     * Opens all the sites in a random order.
+     *
+     * @param random a source of randomness for this trial only.
+     * @return the number of open sites at which the system started to percolate.
+     */
+
+    private int sweep(SplittableRandom random) {
+        for (int i = 0; i < sites; ++i) {
+            parents[i] = i;
+            order[i] = i;
+        }
+        Arrays.fill(weights, 1);
+        Arrays.fill(flags, (byte) 0);
+        Arrays.fill(open, false);
+        fullSitesInTrial = 0;
+
+        int threshold = 0;
+        for (int step = 0; step < sites; ++step) {
+            // Fisher-Yates shuffle performed lazily: pick the next site
+            // uniformly among the ones that have not been opened yet.
+            final int randomIndex = step + random.nextInt(sites - step);
+            final int site = order[randomIndex];
+            order[randomIndex] = order[step];
+            order[step] = site;
+
+            final boolean percolates = open(site);
+            if (threshold == 0 && percolates) threshold = step + 1;
+            fullSites[step + 1] += fullSitesInTrial;
+        }
+        return threshold;
+    }
+
+    /**
+     * Opens the given site.
+     *
+     * @return <code>true</code> if the component of the site touches both the top and the bottom.
+     */
+
+    private boolean open(int site) {
+        open[site] = true;
+        final int row = site / size;
+        final int col = site - row * size;
+        byte state = 0;
+        if (row == 0) {
+            state |= TOP;
+            ++fullSitesInTrial;
+        }
+        if (row == size - 1) state |= BOTTOM;
+        flags[site] = state;
+
+        if (row > 0) connectIfOpen(site - size, site);
+        if (row < size - 1) connectIfOpen(site + size, site);
+        if (col > 0) connectIfOpen(site - 1, site);
+        if (col < size - 1) connectIfOpen(site + 1, site);
+
+        return flags[find(site)] == (TOP | BOTTOM);
+    }
+
+    private void connectIfOpen(int neighbor, int site) {
+        if (!open[neighbor]) return;
+        int root1 = find(neighbor);
+        int root2 = find(site);
+        if (root1 == root2) return;
+        final boolean top1 = (flags[root1] & TOP) != 0;
+        final boolean top2 = (flags[root2] & TOP) != 0;
+        // One of the components becomes full as a whole.
+        if (top1 && !top2) fullSitesInTrial += weights[root2];
+        else if (top2 && !top1) fullSitesInTrial += weights[root1];
+
+        if (weights[root1] < weights[root2]) {
+            final int temp = root1;
+            root1 = root2;
+            root2 = temp;
+        }
+        parents[root2] = root1;
+        weights[root1] += weights[root2];
+        flags[root1] |= flags[root2];
+    }
+
+    private int find(int site) {
+        while (site != parents[site]) {
+            // Path halving: make every other site point to its grandparent.
+            parents[site] = parents[parents[site]];
+            site = parents[site];
+        }
+        return site;
+    }
+
+    /**
+     * Computes the binomial distribution B(n * n, p).
+     * Starts from the most likely number of open sites and goes both ways using
+     * the ratio of two neighboring terms, which neither underflows nor overflows.
+     */
+
+    private double[] binomial(double p) {
+        if (p < 0 || p > 1) throw new IllegalArgumentException("p must be in the range [0, 1]");
+        final double[] distribution = new double[sites + 1];
+        if (p == 0 || p == 1) {
+            distribution[p == 0 ? 0 : sites] = 1;
+            return distribution;
+        }
+        final int mode = (int) Math.min(sites, Math.floor((sites + 1) * p));
+        final double ratio = p / (1 - p);
+        distribution[mode] = 1;
+        double total = 1;
+        for (int i = mode + 1; i <= sites; ++i) {
+            distribution[i] = distribution[i - 1] * ratio * (sites - i + 1) / i;
+            total += distribution[i];
+        }
+        for (int i = mode - 1; i >= 0; --i) {
+            distribution[i] = distribution[i + 1] * (i + 1) / (ratio * (sites - i));
+            total += distribution[i];
+        }
+        for (int i = 0; i <= sites; ++i) {
+            distribution[i] /= total;
+        }
+        return distribution;
+    }
+
+    private void validateOpenSites(int openSites) {
+        if (openSites < 0 || openSites > sites) {
+            throw new IllegalArgumentException("wrong number of open sites");
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package lz.renatkaitmazov.algorithms.week1.homework;
+
+import edu.princeton.cs.algs4.StdStats;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A parallel version of {@link PercolationStats}.
+ * Trials are split into chunks that run on a {@link ForkJoinPool}.
+ * Each chunk allocates one {@link PercolationTrial} and reuses it for all
+ * of its trials.
+ * <p>
+ * Every trial draws from its own generator derived only from the seed and
+ * the index of the trial, and the results are stored by trial index and
+ * aggregated in that order. Hence the mean, the standard deviation and the
+ * confidence interval are bit-identical for a fixed seed no matter how many
+ * threads are used.
+ *
+ * @author Renat Kaitmazov
+ */
+
+public final class ParallelPercolationStats {
+
+    /*--------------------------------------------------------*/
+    /* Constants
+    /*--------------------------------------------------------*/
+
+    private static final double CONFIDENCE = 1.96;
+
+    /**
+     * How many chunks each thread gets on average.
+     * More than one so that faster threads can steal work from slower ones.
+     */
+
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /*--------------------------------------------------------*/
+    /* Fields
+    /*--------------------------------------------------------*/
+
+    private final double mean;
+    private final double stdDeviation;
+    private final int trials;
+
+    /*--------------------------------------------------------*/
+    /* Nested classes
+    /*--------------------------------------------------------*/
+
+    @SuppressWarnings("serial")
+    private static final class TrialsTask extends RecursiveAction {
+
+        private final int n;
+        private final long seed;
+        private final double[] results;
+        private final int start;
+        private final int end;
+        private final int threshold;
+
+        TrialsTask(int n, long seed, double[] results, int start, int end, int threshold) {
+            this.n = n;
+            this.seed = seed;
+            this.results = results;
+            this.start = start;
+            this.end = end;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= threshold) {
+                runTrials();
+                return;
+            }
+            final int middle = start + ((end - start) >> 1);
+            invokeAll(new TrialsTask(n, seed, results, start, middle, threshold),
+                      new TrialsTask(n, seed, results, middle, end, threshold));
+        }
+
+        private void runTrials() {
+            final double sites = (double) n * n;
+            final PercolationTrial trial = new PercolationTrial(n);
+            for (int i = start; i < end; ++i) {
+                if (i != start) trial.reset();
+                results[i] = trial.run(PercolationTrial.random(seed, i)) / sites;
+            }
+        }
+    }
+
+    /*--------------------------------------------------------*/
+    /* Constructors
+    /*--------------------------------------------------------*/
+
+    public ParallelPercolationStats(int n, int trials, long seed) {
+        this(n, trials, seed, ForkJoinPool.commonPool());
+    }
+
+    public ParallelPercolationStats(int n, int trials, long seed, int parallelism) {
+        this(n, trials, seed, newPool(parallelism));
+    }
+
+    private ParallelPercolationStats(int n, int trials, long seed, ForkJoinPool pool) {
+        this.trials = trials;
+        final double[] results;
+        try {
+            if (n < 1 || trials < 1) throw new IllegalArgumentException("wrong arguments");
+            results = new double[trials];
+            final int chunks = pool.getParallelism() * CHUNKS_PER_THREAD;
+            final int threshold = Math.max(1, trials / chunks);
+            pool.invoke(new TrialsTask(n, seed, results, 0, trials, threshold));
+        } finally {
+            if (pool != ForkJoinPool.commonPool()) pool.shutdown();
+        }
+        mean = StdStats.mean(results);
+        stdDeviation = StdStats.stddev(results);
+    }
+
+    private static ForkJoinPool newPool(int parallelism) {
+        if (parallelism < 1) throw new IllegalArgumentException("parallelism is not positive");
+        return new ForkJoinPool(parallelism);
+    }
+
+    /*--------------------------------------------------------*/
+    /* API
+    /*--------------------------------------------------------*/
+
+    public double mean() {
+        return mean;
+    }
+
+    public double stddev() {
+        return stdDeviation;
+    }
+
+    public double confidenceLo() {
+        return mean - (CONFIDENCE * stdDeviation / Math.sqrt(trials));
+    }
+
+    public double confidenceHi() {
+        return mean + (CONFIDENCE * stdDeviation / Math.sqrt(trials));
+    }
+}
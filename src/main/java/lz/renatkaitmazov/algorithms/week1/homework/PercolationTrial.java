@@ -0,0 +1,143 @@
+package lz.renatkaitmazov.algorithms.week1.homework;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * A reusable n-by-n percolation system used to run Monte Carlo trials.
+ * Unlike {@link Percolation} it only answers whether the system percolates,
+ * so a single union-find is enough (backwash does not matter here), and all
+ * its buffers are allocated once and cleared between trials.
+ * Sites are indexed as <code>row * n + col</code> with zero-based rows and columns.
+ *
+ * @author Renat Kaitmazov
+ */
+
+final class PercolationTrial {
+
+    /*--------------------------------------------------------*/
+    /* Constants
+    /*--------------------------------------------------------*/
+
+    private static final long MIX_MULTIPLIER1 = 0xbf58476d1ce4e5b9L;
+    private static final long MIX_MULTIPLIER2 = 0x94d049bb133111ebL;
+
+    /*--------------------------------------------------------*/
+    /* Fields
+    /*--------------------------------------------------------*/
+
+    private final int size;
+    private final int virtualTopId;
+    private final int virtualBottomId;
+    private final int[] parents;
+    private final int[] weights;
+    private final boolean[] open;
+
+    /*--------------------------------------------------------*/
+    /* Constructors
+    /*--------------------------------------------------------*/
+
+    PercolationTrial(int n) {
+        if (n < 1) throw new IllegalArgumentException("n is not positive");
+        size = n;
+        virtualTopId = n * n;
+        virtualBottomId = n * n + 1;
+        parents = new int[n * n + 2];
+        weights = new int[n * n + 2];
+        open = new boolean[n * n];
+        reset();
+    }
+
+    /*--------------------------------------------------------*/
+    /* API
+    /*--------------------------------------------------------*/
+
+    /**
+     * Returns the generator of the trial with the given index.
+     * A {@link SplittableRandom} advances its state by a fixed step on every draw,
+     * so seeds that differ by that step give the same stream shifted by one draw.
+     * The index is therefore mixed into the seed by the finalizer of SplitMix64,
+     * which makes the seeds of neighbouring trials unrelated.
+     *
+     * @param seed  the seed of all the trials.
+     * @param trial the index of the trial.
+     * @return a generator that depends on nothing but the seed and the index.
+     */
+
+    static SplittableRandom random(long seed, int trial) {
+        long z = seed ^ trial;
+        z = (z ^ (z >>> 30)) * MIX_MULTIPLIER1;
+        z = (z ^ (z >>> 27)) * MIX_MULTIPLIER2;
+        return new SplittableRandom(z ^ (z >>> 31));
+    }
+
+    /**
+     * Blocks all the sites and disconnects everything.
+     */
+
+    void reset() {
+        final int components = parents.length;
+        for (int i = 0; i < components; ++i) {
+            parents[i] = i;
+        }
+        Arrays.fill(weights, 1);
+        Arrays.fill(open, false);
+    }
+
+    /**
+     * Opens uniformly random blocked sites until the system percolates.
+     * The result depends on nothing but the state of the given generator.
+     *
+     * @param random a source of randomness.
+     * @return number of open sites at the moment the system percolates.
+     */
+
+    int run(SplittableRandom random) {
+        int openSites = 0;
+        while (find(virtualTopId) != find(virtualBottomId)) {
+            final int row = random.nextInt(size);
+            final int col = random.nextInt(size);
+            final int site = row * size + col;
+            if (open[site]) continue;
+            open(site, row, col);
+            ++openSites;
+        }
+        return openSites;
+    }
+
+    /*--------------------------------------------------------*/
+    /* Helper methods
+    /*--------------------------------------------------------*/
+
+    private void open(int site, int row, int col) {
+        open[site] = true;
+        if (row == 0) union(virtualTopId, site);
+        if (row == size - 1) union(virtualBottomId, site);
+        if (row > 0 && open[site - size]) union(site - size, site);
+        if (row < size - 1 && open[site + size]) union(site + size, site);
+        if (col > 0 && open[site - 1]) union(site - 1, site);
+        if (col < size - 1 && open[site + 1]) union(site + 1, site);
+    }
+
+    private int find(int element) {
+        while (element != parents[element]) {
+            // Path halving: make every other element point to its grandparent.
+            parents[element] = parents[parents[element]];
+            element = parents[element];
+        }
+        return element;
+    }
+
+    private void union(int element1, int element2) {
+        final int id1 = find(element1);
+        final int id2 = find(element2);
+        if (id1 == id2) return;
+        if (weights[id2] > weights[id1]) {
+            parents[id1] = id2;
+            weights[id2] += weights[id1];
+        } else {
+            parents[id2] = id1;
+            weights[id1] += weights[id2];
+        }
+    }
+}
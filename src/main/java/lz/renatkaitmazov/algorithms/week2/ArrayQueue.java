@@ -0,0 +1,184 @@
+package lz.renatkaitmazov.algorithms.week2;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A concrete implementation of the queue data type.
+ * Uses a circular buffer whose capacity is always a power of two,
+ * so wrapping around is a bitwise AND with a mask instead of a modulo.
+ * Unlike {@link LinkedQueue} it does not allocate anything per item:
+ * if the client knows the final size in advance, the whole queue
+ * costs a single array.
+ *
+ * @author Renat Kaitmazov
+ */
+
+public final class ArrayQueue<T> implements Queue<T> {
+
+    /*--------------------------------------------------------*/
+    /* Static
+    /*--------------------------------------------------------*/
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * The largest power of two an array can hold.
+     */
+
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /*--------------------------------------------------------*/
+    /* Fields
+    /*--------------------------------------------------------*/
+
+    /**
+     * A circular buffer whose length is a power of two.
+     */
+
+    private T[] items;
+
+    /**
+     * The length of the buffer minus one.
+     */
+
+    private int mask;
+
+    /**
+     * The index of the first item in the queue.
+     */
+
+    private int head;
+    private int size;
+
+    /*--------------------------------------------------------*/
+    /* Constructors
+    /*--------------------------------------------------------*/
+
+    public ArrayQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a queue that can hold at least the given number of items
+     * without resizing. The capacity is rounded up to a power of two.
+     *
+     * @param capacity the expected number of items.
+     */
+
+    public ArrayQueue(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative");
+        }
+        if (capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Capacity is too large: " + capacity);
+        }
+        allocate(capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1);
+    }
+
+    /*--------------------------------------------------------*/
+    /* Object class methods
+    /*--------------------------------------------------------*/
+
+    @Override
+    public final String toString() {
+        if (isEmpty()) {
+            return "[]";
+        }
+        final StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < size; ++i) {
+            builder.append(items[(head + i) & mask]).append(", ");
+        }
+        final int end = builder.length();
+        final int start = end - 2;
+        return builder.replace(start, end, "]")
+                .toString();
+    }
+
+    /*--------------------------------------------------------*/
+    /* Queue implementation
+    /*--------------------------------------------------------*/
+
+    @Override
+    public final void enqueue(T item) {
+        if (size == items.length) {
+            if (size == MAX_CAPACITY) {
+                throw new IllegalStateException("Queue is full");
+            }
+            resize(size << 1);
+        }
+        items[(head + size) & mask] = item;
+        ++size;
+    }
+
+    /**
+     * Removes the first item.
+     *
+     * @return the first item, or <code>null</code> if the queue is empty.
+     */
+
+    @Override
+    public final T dequeue() {
+        if (isEmpty()) {
+            return null;
+        }
+        final T item = items[head];
+        // Avoid loitering.
+        items[head] = null;
+        head = (head + 1) & mask;
+        --size;
+        return item;
+    }
+
+    @Override
+    public final int size() {
+        return size;
+    }
+
+    /*--------------------------------------------------------*/
+    /* Iterable implementation
+    /*--------------------------------------------------------*/
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return items[(head + index++) & mask];
+            }
+        };
+    }
+
+    /*--------------------------------------------------------*/
+    /* Helper methods
+    /*--------------------------------------------------------*/
+
+    @SuppressWarnings("unchecked")
+    private void allocate(int capacity) {
+        items = (T[]) new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Moves the items to a new buffer so that the first one ends up at index 0.
+     */
+
+    private void resize(int newCapacity) {
+        final T[] oldItems = items;
+        final int firstPart = Math.min(size, oldItems.length - head);
+        allocate(newCapacity);
+        System.arraycopy(oldItems, head, items, 0, firstPart);
+        System.arraycopy(oldItems, 0, items, firstPart, size - firstPart);
+        head = 0;
+    }
+}
@@ -0,0 +1,452 @@
+package lz.renatkaitmazov.algorithms.week2;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * A bounded thread-safe implementation of the queue data type
+ * that any number of threads can enqueue to and dequeue from at the same time.
+ * <p>
+ * Follows the design of Dmitry Vyukov's bounded MPMC queue. The items live in a
+ * circular buffer whose capacity is a power of two, and every slot has a sequence
+ * number next to it. A slot at position <code>p</code> is free for a producer when
+ * its sequence is <code>p</code> and holds an item for a consumer when its sequence
+ * is <code>p + 1</code>. A producer claims a position by a compare-and-set on the tail,
+ * writes the item and publishes it by setting the sequence to <code>p + 1</code>;
+ * a consumer claims a position on the head, takes the item and hands the slot over
+ * to the next lap by setting the sequence to <code>p + capacity</code>.
+ * Producers and consumers only contend with each other on a single slot, never on
+ * a lock. The head and the tail sit on different cache lines so that producers and
+ * consumers do not slow each other down by false sharing.
+ * <p>
+ * {@link #offerAll(Object[], int, int)} and {@link #drainTo(Queue, int)} claim a run of
+ * consecutive slots with one compare-and-set, which makes batches much cheaper than
+ * the same number of single operations.
+ *
+ * @author Renat Kaitmazov
+ */
+
+public final class ConcurrentArrayQueue<T> implements Queue<T> {
+
+    /*--------------------------------------------------------*/
+    /* Static
+    /*--------------------------------------------------------*/
+
+    /**
+     * The largest power of two an array can hold.
+     */
+
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private static final AtomicLongFieldUpdater<Counter> COUNTER =
+            AtomicLongFieldUpdater.newUpdater(Counter.class, "value");
+
+    /*--------------------------------------------------------*/
+    /* Fields
+    /*--------------------------------------------------------*/
+
+    private final Object[] items;
+    private final AtomicLongArray sequences;
+    private final int mask;
+
+    /**
+     * The next position to dequeue from.
+     */
+
+    private final PaddedCounter head = new PaddedCounter();
+
+    /**
+     * The next position to enqueue to.
+     */
+
+    private final PaddedCounter tail = new PaddedCounter();
+
+    /*--------------------------------------------------------*/
+    /* Constructors
+    /*--------------------------------------------------------*/
+
+    /**
+     * Creates a queue that can hold at least the given number of items.
+     * The capacity is rounded up to a power of two, but it is never less than two.
+     *
+     * @param capacity the maximum number of items.
+     */
+
+    public ConcurrentArrayQueue(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        if (capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Capacity is too large: " + capacity);
+        }
+        // With a single slot the "free" and the "full" sequences of two laps would coincide.
+        final int actualCapacity = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        items = new Object[actualCapacity];
+        sequences = new AtomicLongArray(actualCapacity);
+        for (int i = 0; i < actualCapacity; ++i) {
+            sequences.set(i, i);
+        }
+        mask = actualCapacity - 1;
+    }
+
+    /*--------------------------------------------------------*/
+    /* API
+    /*--------------------------------------------------------*/
+
+    /**
+     * Returns the maximum number of items the queue can hold.
+     *
+     * @return the capacity of the queue.
+     */
+
+    public final int capacity() {
+        return items.length;
+    }
+
+    /**
+     * Adds the item to the end of the queue if there is room for it.
+     *
+     * @param item to add.
+     * @return <code>true</code> if the item has been added,
+     * <code>false</code> if the queue is full.
+     */
+
+    public final boolean offer(T item) {
+        validateNotNull(item);
+        long position = tail.value;
+        while (true) {
+            final int index = (int) position & mask;
+            final long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (COUNTER.compareAndSet(tail, position, position + 1)) {
+                    items[index] = item;
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.value;
+            } else if (difference < 0) {
+                // The slot still holds an item from the previous lap.
+                return false;
+            } else {
+                // Another producer has claimed the position.
+                position = tail.value;
+            }
+        }
+    }
+
+    /**
+     * Adds as many of the given items as there is room for, in order.
+     * All the added items are claimed at once and occupy consecutive positions.
+     *
+     * @param source an array with items.
+     * @param offset the index of the first item to add.
+     * @param length the number of items to add.
+     * @return the number of items that have been added.
+     */
+
+    public final int offerAll(T[] source, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > source.length - length) {
+            throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + length);
+        }
+        for (int i = offset, end = offset + length; i < end; ++i) {
+            validateNotNull(source[i]);
+        }
+        if (length == 0) return 0;
+        while (true) {
+            final long position = tail.value;
+            final int free = countSlots(position, 0, length);
+            if (free == 0) {
+                if (sequences.get((int) position & mask) - position < 0) return 0;
+                // Another producer has claimed the position.
+                continue;
+            }
+            if (COUNTER.compareAndSet(tail, position, position + free)) {
+                for (int i = 0; i < free; ++i) {
+                    final int index = (int) (position + i) & mask;
+                    items[index] = source[offset + i];
+                    sequences.set(index, position + i + 1);
+                }
+                return free;
+            }
+        }
+    }
+
+    /**
+     * Removes up to the given number of items from the front of the queue
+     * and adds them to the target in the same order.
+     * A slot is freed only after the target has accepted its item. If the target throws,
+     * the items it has not accepted are put back at the front of the queue in the same order
+     * and the exception is rethrown. If another consumer has taken the items after them
+     * in the meantime, they cannot be put back in order, so they are handed to the caller
+     * in a {@link DrainException} instead. Either way no item is lost and no slot stays claimed.
+     *
+     * @param target   where to put the items.
+     * @param maxItems the maximum number of items to move.
+     * @return the number of items that have been moved.
+     * @throws DrainException if the target has thrown and the items it has not accepted
+     *                        could not be put back.
+     */
+
+    public final int drainTo(Queue<? super T> target, int maxItems) {
+        if (target == this) {
+            throw new IllegalArgumentException("Cannot drain a queue to itself");
+        }
+        if (maxItems < 0) {
+            throw new IllegalArgumentException("Number of items must not be negative");
+        }
+        if (maxItems == 0) return 0;
+        while (true) {
+            final long position = head.value;
+            final int full = countSlots(position, 1, maxItems);
+            if (full == 0) {
+                if (sequences.get((int) position & mask) - (position + 1) < 0) return 0;
+                // Another consumer has claimed the position.
+                continue;
+            }
+            if (COUNTER.compareAndSet(head, position, position + full)) {
+                for (int moved = 0; moved < full; ++moved) {
+                    try {
+                        target.enqueue(peek(position + moved));
+                    } catch (RuntimeException | Error e) {
+                        final Object[] undelivered = release(position + moved, position + full);
+                        if (undelivered.length == 0) throw e;
+                        throw new DrainException(undelivered, e);
+                    }
+                    take(position + moved);
+                }
+                return full;
+            }
+        }
+    }
+
+    /*--------------------------------------------------------*/
+    /* Queue implementation
+    /*--------------------------------------------------------*/
+
+    /**
+     * Adds the item to the end of the queue.
+     *
+     * @param item to add.
+     * @throws IllegalStateException if the queue is full.
+     */
+
+    @Override
+    public final void enqueue(T item) {
+        if (!offer(item)) {
+            throw new IllegalStateException("Queue is full");
+        }
+    }
+
+    /**
+     * Removes the first item.
+     *
+     * @return the first item, or <code>null</code> if the queue is empty.
+     */
+
+    @Override
+    public final T dequeue() {
+        long position = head.value;
+        while (true) {
+            final int index = (int) position & mask;
+            final long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (COUNTER.compareAndSet(head, position, position + 1)) {
+                    return take(position);
+                }
+                position = head.value;
+            } else if (difference < 0) {
+                // The slot has not been filled yet.
+                return null;
+            } else {
+                // Another consumer has claimed the position.
+                position = head.value;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of items in the queue.
+     * If other threads are modifying the queue at the same time, the value is
+     * only an estimate, but it is always between zero and the capacity.
+     *
+     * @return the number of items.
+     */
+
+    @Override
+    public final int size() {
+        while (true) {
+            final long before = head.value;
+            final long currentTail = tail.value;
+            final long after = head.value;
+            if (before == after) {
+                return (int) Math.max(0, Math.min(items.length, currentTail - after));
+            }
+        }
+    }
+
+    /*--------------------------------------------------------*/
+    /* Iterable implementation
+    /*--------------------------------------------------------*/
+
+    /**
+     * Returns a weakly consistent iterator that walks the items from the head to the tail.
+     * It never throws because of other threads: it skips the items taken and the slots
+     * not filled yet while it is walking, and may or may not see the items added after
+     * it has been created. Every item is read one step ahead, so an item may still be
+     * returned after another thread has taken it.
+     *
+     * @return an iterator over the items of the queue.
+     */
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private long position = head.value;
+            private T next = advance();
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final T item = next;
+                next = advance();
+                return item;
+            }
+
+            @SuppressWarnings("unchecked")
+            private T advance() {
+                while (true) {
+                    // Skip the positions the consumers have already passed.
+                    position = Math.max(position, head.value);
+                    if (position >= tail.value) return null;
+                    final int index = (int) position & mask;
+                    final long current = position++;
+                    if (sequences.get(index) != current + 1) continue;
+                    final Object item = items[index];
+                    // The item is still at the position only if the slot has not been taken meanwhile.
+                    if (item != null && sequences.get(index) == current + 1) return (T) item;
+                }
+            }
+        };
+    }
+
+    /*--------------------------------------------------------*/
+    /* Helper methods
+    /*--------------------------------------------------------*/
+
+    /**
+     * Counts consecutive slots starting from the given position whose sequences are
+     * equal to their positions plus the given shift. Free slots have the shift 0,
+     * filled slots have the shift 1.
+     */
+
+    private int countSlots(long position, int shift, int limit) {
+        final int maxSlots = Math.min(limit, items.length);
+        int count = 0;
+        while (count < maxSlots) {
+            final long current = position + count;
+            if (sequences.get((int) current & mask) != current + shift) break;
+            ++count;
+        }
+        return count;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T peek(long position) {
+        return (T) items[(int) position & mask];
+    }
+
+    /**
+     * Gives the claimed positions [from, to) back. If no other consumer has claimed
+     * positions after them, the head is moved back and their items stay in the queue,
+     * otherwise the items are taken out and the slots are freed for the next lap.
+     *
+     * @return the items taken out, in order, or an empty array if they stay in the queue.
+     */
+
+    private Object[] release(long from, long to) {
+        if (COUNTER.compareAndSet(head, to, from)) return new Object[0];
+        final Object[] items = new Object[(int) (to - from)];
+        for (long position = from; position < to; ++position) {
+            items[(int) (position - from)] = take(position);
+        }
+        return items;
+    }
+
+    /**
+     * Takes the item at the claimed position and frees the slot for the next lap.
+     */
+
+    @SuppressWarnings("unchecked")
+    private T take(long position) {
+        final int index = (int) position & mask;
+        final T item = (T) items[index];
+        // Avoid loitering.
+        items[index] = null;
+        sequences.set(index, position + items.length);
+        return item;
+    }
+
+    private static void validateNotNull(Object item) {
+        if (item == null) {
+            throw new IllegalArgumentException("null items are not allowed");
+        }
+    }
+
+    /*--------------------------------------------------------*/
+    /* Nested classes
+    /*--------------------------------------------------------*/
+
+    /**
+     * Thrown by {@link #drainTo(Queue, int)} when the target has failed and the items it has
+     * not accepted could not be put back into the queue. The failure of the target is the cause.
+     */
+
+    @SuppressWarnings("serial")
+    public static final class DrainException extends RuntimeException {
+        private final transient Object[] undelivered;
+
+        DrainException(Object[] undelivered, Throwable cause) {
+            super(undelivered.length + " items have not been delivered", cause);
+            this.undelivered = undelivered;
+        }
+
+        /**
+         * Returns the items the target has not accepted, in the order they had in the queue.
+         *
+         * @return a copy of the items.
+         */
+
+        public Object[] undelivered() {
+            return undelivered.clone();
+        }
+    }
+
+    /**
+     * A counter surrounded by padding on both sides so that it does not share a cache line
+     * with anything else. The JVM is free to reorder fields within a class but keeps the
+     * fields of a superclass before the fields of a subclass, hence the hierarchy.
+     */
+
+    @SuppressWarnings("unused")
+    private static class LeftPadding {
+        long p01, p02, p03, p04, p05, p06, p07, p08;
+    }
+
+    private static class Counter extends LeftPadding {
+        volatile long value;
+    }
+
+    @SuppressWarnings("unused")
+    private static final class PaddedCounter extends Counter {
+        long p11, p12, p13, p14, p15, p16, p17, p18;
+    }
+}
@@ -0,0 +1,307 @@
+package lz.renatkaitmazov.algorithms.week2;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * A concrete implementation of the list data type
+ * with O(logN) expected time positional access.
+ * <p>
+ * The items are kept in a skip list: the bottom level links all the items in order, and every
+ * higher level links a random half of the items of the level below, so a walk from the top level
+ * down skips over long runs of items. Every link also stores its width, the number of items it
+ * skips over, so the walk can find the item at a given index by adding up the widths instead of
+ * comparing keys. {@link #get(int)}, {@link #removeAt(int)} and {@link #insertAt(int, Object)}
+ * take O(logN) expected time, inserting or removing at either end included.
+ * {@link #indexOf(Object)} and {@link #remove(Object)} still have to look at the items
+ * one by one, since the items are not ordered by value.
+ *
+ * @author Renat Kaitmazov
+ */
+
+public final class IndexableSkipList<T> implements List<T> {
+
+    /*--------------------------------------------------------*/
+    /* Static
+    /*--------------------------------------------------------*/
+
+    /**
+     * Enough levels for any list that fits in an array.
+     */
+
+    private static final int MAX_LEVEL = 32;
+
+    /*--------------------------------------------------------*/
+    /* Fields
+    /*--------------------------------------------------------*/
+
+    /**
+     * A sentinel node that precedes the first item on every level.
+     */
+
+    private final Node<T> head = new Node<>(null, MAX_LEVEL);
+    private final SplittableRandom random;
+
+    /**
+     * The number of levels currently in use.
+     */
+
+    private int levels = 1;
+    private int size;
+
+    /**
+     * The last node on each level and its position, reused between calls to avoid allocation.
+     */
+
+    @SuppressWarnings("unchecked")
+    private final Node<T>[] update = (Node<T>[]) new Node[MAX_LEVEL];
+    private final int[] positions = new int[MAX_LEVEL];
+
+    /*--------------------------------------------------------*/
+    /* Constructors
+    /*--------------------------------------------------------*/
+
+    public IndexableSkipList() {
+        random = new SplittableRandom();
+    }
+
+    public IndexableSkipList(long seed) {
+        random = new SplittableRandom(seed);
+    }
+
+    /*--------------------------------------------------------*/
+    /* Object class methods
+    /*--------------------------------------------------------*/
+
+    @Override
+    public final String toString() {
+        if (isEmpty()) {
+            return "[]";
+        }
+        final StringBuilder builder = new StringBuilder("[");
+        for (final T item : this) {
+            builder.append(item).append(", ");
+        }
+        final int end = builder.length();
+        final int start = end - 2;
+        return builder.replace(start, end, "]")
+                .toString();
+    }
+
+    /*--------------------------------------------------------*/
+    /* API
+    /*--------------------------------------------------------*/
+
+    /**
+     * Inserts an item so that it ends up at the given index.
+     *
+     * @param index in the range [0, size], where the item will be.
+     * @param item  to be added.
+     */
+
+    public final void insertAt(int index, T item) {
+        if (index < 0 || index > size) {
+            throw new IllegalArgumentException("Wrong index.");
+        }
+        findPredecessors(index);
+        final int level = randomLevel();
+        if (level > levels) {
+            for (int l = levels; l < level; ++l) {
+                update[l] = head;
+                positions[l] = 0;
+            }
+            levels = level;
+        }
+        final Node<T> node = new Node<>(item, level);
+        // Positions count from 1, the head is at 0, so the new node is at index + 1.
+        for (int l = 0; l < level; ++l) {
+            final Node<T> previous = update[l];
+            final int skipped = index - positions[l];
+            node.next[l] = previous.next[l];
+            node.widths[l] = previous.widths[l] - skipped;
+            previous.next[l] = node;
+            previous.widths[l] = skipped + 1;
+        }
+        for (int l = level; l < levels; ++l) {
+            ++update[l].widths[l];
+        }
+        ++size;
+    }
+
+    /*--------------------------------------------------------*/
+    /* List implementation
+    /*--------------------------------------------------------*/
+
+    @Override
+    public final void insert(T item) {
+        insertAt(0, item);
+    }
+
+    @Override
+    public final void append(T item) {
+        insertAt(size, item);
+    }
+
+    @Override
+    public final T remove(T item) {
+        final int index = indexOf(item);
+        if (index == -1) return null;
+        removeAt(index);
+        return item;
+    }
+
+    @Override
+    public final T removeLast() {
+        if (isEmpty()) {
+            return null;
+        }
+        return removeAt(size - 1);
+    }
+
+    @Override
+    public final T removeFirst() {
+        if (isEmpty()) {
+            return null;
+        }
+        return removeAt(0);
+    }
+
+    @Override
+    public final T removeAt(int index) {
+        validateIndex(index);
+        findPredecessors(index);
+        final Node<T> node = update[0].next[0];
+        final int level = node.next.length;
+        for (int l = 0; l < level; ++l) {
+            final Node<T> previous = update[l];
+            previous.widths[l] += node.widths[l] - 1;
+            previous.next[l] = node.next[l];
+        }
+        for (int l = level; l < levels; ++l) {
+            --update[l].widths[l];
+        }
+        while (levels > 1 && head.next[levels - 1] == null) {
+            --levels;
+        }
+        --size;
+        return node.item;
+    }
+
+    @Override
+    public final int size() {
+        return size;
+    }
+
+    @Override
+    public final int indexOf(T item) {
+        Node<T> current = head.next[0];
+        int i = 0;
+        while (current != null) {
+            if (Objects.equals(current.item, item)) {
+                return i;
+            }
+            ++i;
+            current = current.next[0];
+        }
+        return -1;
+    }
+
+    @Override
+    public final T get(int index) {
+        validateIndex(index);
+        final int target = index + 1;
+        Node<T> current = head;
+        int position = 0;
+        for (int l = levels - 1; l > -1; --l) {
+            while (current.next[l] != null && position + current.widths[l] <= target) {
+                position += current.widths[l];
+                current = current.next[l];
+            }
+            if (position == target) break;
+        }
+        return current.item;
+    }
+
+    /*--------------------------------------------------------*/
+    /* Iterable implementation
+    /*--------------------------------------------------------*/
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private Node<T> current = head.next[0];
+
+            @Override
+            public boolean hasNext() {
+                return current != null;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final T item = current.item;
+                current = current.next[0];
+                return item;
+            }
+        };
+    }
+
+    /*--------------------------------------------------------*/
+    /* Helper methods
+    /*--------------------------------------------------------*/
+
+    /**
+     * Fills {@link #update} with the last node before the given index on every level
+     * and {@link #positions} with their positions.
+     */
+
+    private void findPredecessors(int index) {
+        Node<T> current = head;
+        int position = 0;
+        for (int l = levels - 1; l > -1; --l) {
+            while (current.next[l] != null && position + current.widths[l] <= index) {
+                position += current.widths[l];
+                current = current.next[l];
+            }
+            update[l] = current;
+            positions[l] = position;
+        }
+    }
+
+    /**
+     * Returns a level from 1 to {@link #MAX_LEVEL}, each next one half as likely.
+     */
+
+    private int randomLevel() {
+        return Long.numberOfTrailingZeros(random.nextLong() | (1L << (MAX_LEVEL - 1))) + 1;
+    }
+
+    private void validateIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Wrong index.");
+        }
+    }
+
+    /**
+     * An item with links to the next nodes on each of its levels.
+     * The width of a link is the difference between the positions of the nodes it connects.
+     * The width of a link to nothing is not used.
+     */
+
+    private static final class Node<T> {
+        private final T item;
+        private final Node<T>[] next;
+        private final int[] widths;
+
+        @SuppressWarnings("unchecked")
+        Node(T item, int level) {
+            this.item = item;
+            next = (Node<T>[]) new Node[level];
+            widths = new int[level];
+        }
+    }
+}
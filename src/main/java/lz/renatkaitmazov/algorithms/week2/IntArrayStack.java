@@ -0,0 +1,207 @@
+package lz.renatkaitmazov.algorithms.week2;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * A stack of primitive <code>int</code>s.
+ * Follows the same resizing policy as {@link ArrayStack}: the array doubles
+ * when it is full and halves when it is a quarter full, but the items are
+ * never boxed, neither on the way in nor on the way out.
+ *
+ * @author Renat Kaitmazov
+ */
+
+public final class IntArrayStack {
+
+    /*--------------------------------------------------------*/
+    /* Static
+    /*--------------------------------------------------------*/
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /*--------------------------------------------------------*/
+    /* Fields
+    /*--------------------------------------------------------*/
+
+    /**
+     * Keeps track of the number of elements in the stack.
+     * It is also used a pointer to the last element in the array.
+     */
+
+    private int size;
+
+    /**
+     * A resizeable array that holds elements.
+     */
+
+    private int[] items;
+
+    /*--------------------------------------------------------*/
+    /* Constructors
+    /*--------------------------------------------------------*/
+
+    public IntArrayStack() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntArrayStack(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        items = new int[capacity];
+    }
+
+    /*--------------------------------------------------------*/
+    /* Object class methods
+    /*--------------------------------------------------------*/
+
+    @Override
+    public final String toString() {
+        if (isEmpty()) {
+            return "[]";
+        }
+        final StringBuilder builder = new StringBuilder("[");
+        for (int i = size - 1; i > -1; --i) {
+            builder.append(items[i]).append(", ");
+        }
+        final int end = builder.length();
+        final int start = end - 2;
+        return builder.replace(start, end, "]")
+                .toString();
+    }
+
+    /*--------------------------------------------------------*/
+    /* API
+    /*--------------------------------------------------------*/
+
+    public final int size() {
+        return size;
+    }
+
+    public final boolean isEmpty() {
+        return size == 0;
+    }
+
+    public final void push(int item) {
+        final int capacity = items.length;
+        if (size == capacity) {
+            resize(capacity << 1);
+        }
+        items[size++] = item;
+    }
+
+    /**
+     * Removes the topmost element.
+     *
+     * @return the topmost element.
+     * @throws NoSuchElementException if the stack is empty.
+     */
+
+    public final int pop() {
+        ensureNotEmpty();
+        final int itemToPop = items[--size];
+        shrinkIfNeeded();
+        return itemToPop;
+    }
+
+    /**
+     * Returns the topmost element but does not remove it.
+     *
+     * @return the topmost element.
+     * @throws NoSuchElementException if the stack is empty.
+     */
+
+    public final int peek() {
+        ensureNotEmpty();
+        return items[size - 1];
+    }
+
+    /**
+     * Pushes all the given items, the last one ends up at the top.
+     * Resizes the array at most once.
+     *
+     * @param source items to push.
+     */
+
+    public final void pushAll(final int[] source) {
+        final int required = size + source.length;
+        if (required > items.length) {
+            int capacity = items.length;
+            while (capacity < required) {
+                capacity <<= 1;
+            }
+            resize(capacity);
+        }
+        System.arraycopy(source, 0, items, size, source.length);
+        size = required;
+    }
+
+    /**
+     * Pops as many items as fit into the given array, the topmost goes first.
+     *
+     * @param destination where to put the popped items.
+     * @return the number of popped items.
+     */
+
+    public final int popInto(final int[] destination) {
+        final int count = Math.min(size, destination.length);
+        for (int i = 0; i < count; ++i) {
+            destination[i] = items[size - 1 - i];
+        }
+        size -= count;
+        shrinkIfNeeded();
+        return count;
+    }
+
+    /**
+     * Returns an iterator from the topmost element to the bottommost one.
+     *
+     * @return an iterator that does not box the items.
+     */
+
+    public final PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            private int current = size;
+
+            @Override
+            public boolean hasNext() {
+                return current > 0;
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return items[--current];
+            }
+        };
+    }
+
+    /*--------------------------------------------------------*/
+    /* Helper methods
+    /*--------------------------------------------------------*/
+
+    private void ensureNotEmpty() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Stack is empty.");
+        }
+    }
+
+    private void shrinkIfNeeded() {
+        int capacity = items.length;
+        while (capacity > 1 && size <= (capacity >> 2)) {
+            capacity >>= 1;
+        }
+        if (capacity != items.length) {
+            resize(capacity);
+        }
+    }
+
+    private void resize(int newCapacity) {
+        final int[] newItems = new int[newCapacity];
+        System.arraycopy(items, 0, newItems, 0, size);
+        items = newItems;
+    }
+}
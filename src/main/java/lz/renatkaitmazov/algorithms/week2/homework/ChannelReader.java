@@ -0,0 +1,186 @@
+package lz.renatkaitmazov.algorithms.week2.homework;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads UTF-8 text from a channel line by line or token by token.
+ * <p>
+ * Unlike <code>StdIn</code> it does not go through a <code>Scanner</code> and
+ * regular expressions. The bytes are read into one buffer, the delimiters are found by
+ * scanning the bytes directly (line breaks and ASCII whitespace are single bytes in UTF-8,
+ * so they never occur inside a multi-byte character), and only the bytes of a line or
+ * a token are decoded into a string. The buffer grows only if a single line or token
+ * does not fit into it.
+ *
+ * @author Renat Kaitmazov
+ */
+
+public final class ChannelReader implements Closeable {
+
+    /*--------------------------------------------------------*/
+    /* Constants
+    /*--------------------------------------------------------*/
+
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    /*--------------------------------------------------------*/
+    /* Fields
+    /*--------------------------------------------------------*/
+
+    private final ReadableByteChannel channel;
+
+    /**
+     * Holds the bytes that have been read from the channel but not returned yet,
+     * between its position and its limit.
+     */
+
+    private ByteBuffer buffer;
+    private boolean endOfStream;
+
+    /*--------------------------------------------------------*/
+    /* Constructors
+    /*--------------------------------------------------------*/
+
+    public ChannelReader(InputStream input) {
+        this(Channels.newChannel(input));
+    }
+
+    public ChannelReader(ReadableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    ChannelReader(ReadableByteChannel channel, int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Buffer size must be positive");
+        }
+        this.channel = channel;
+        buffer = ByteBuffer.allocate(bufferSize);
+        buffer.flip();
+    }
+
+    /*--------------------------------------------------------*/
+    /* API
+    /*--------------------------------------------------------*/
+
+    /**
+     * Reads the next line without its line terminator ("\n" or "\r\n").
+     *
+     * @return the next line, or <code>null</code> if the end of the stream has been reached.
+     * @throws IOException if the channel cannot be read.
+     */
+
+    public String readLine() throws IOException {
+        int scanned = buffer.position();
+        while (true) {
+            final byte[] bytes = buffer.array();
+            final int limit = buffer.limit();
+            for (int i = scanned; i < limit; ++i) {
+                if (bytes[i] == '\n') {
+                    final int start = buffer.position();
+                    final int end = i > start && bytes[i - 1] == '\r' ? i - 1 : i;
+                    buffer.position(i + 1);
+                    return new String(bytes, start, end - start, StandardCharsets.UTF_8);
+                }
+            }
+            final int offset = limit - buffer.position();
+            if (!fill()) {
+                if (!buffer.hasRemaining()) return null;
+                // The last line has no line terminator.
+                final String line = new String(buffer.array(), buffer.position(), buffer.remaining(),
+                                               StandardCharsets.UTF_8);
+                buffer.position(buffer.limit());
+                return line;
+            }
+            // Do not scan the same bytes again.
+            scanned = buffer.position() + offset;
+        }
+    }
+
+    /**
+     * Reads the next sequence of characters delimited by whitespace,
+     * just like <code>StdIn.readString()</code>.
+     *
+     * @return the next token, or <code>null</code> if there are no more tokens.
+     * @throws IOException if the channel cannot be read.
+     */
+
+    public String readToken() throws IOException {
+        // Skip the leading whitespace.
+        while (true) {
+            final byte[] bytes = buffer.array();
+            final int limit = buffer.limit();
+            int i = buffer.position();
+            while (i < limit && isWhitespace(bytes[i])) ++i;
+            buffer.position(i);
+            if (i < limit) break;
+            if (!fill()) return null;
+        }
+        int scanned = buffer.position();
+        while (true) {
+            final byte[] bytes = buffer.array();
+            final int limit = buffer.limit();
+            for (int i = scanned; i < limit; ++i) {
+                if (isWhitespace(bytes[i])) {
+                    final int start = buffer.position();
+                    buffer.position(i + 1);
+                    return new String(bytes, start, i - start, StandardCharsets.UTF_8);
+                }
+            }
+            final int offset = limit - buffer.position();
+            if (!fill()) {
+                final String token = new String(buffer.array(), buffer.position(), buffer.remaining(),
+                                                StandardCharsets.UTF_8);
+                buffer.position(buffer.limit());
+                return token;
+            }
+            scanned = buffer.position() + offset;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /*--------------------------------------------------------*/
+    /* Helper
+    /*--------------------------------------------------------*/
+
+    /**
+     * Moves the unread bytes to the start of the buffer and reads more bytes after them,
+     * doubling the buffer if it is already full of unread bytes.
+     *
+     * @return <code>false</code> if the end of the stream has been reached.
+     */
+
+    private boolean fill() throws IOException {
+        if (endOfStream) return false;
+        buffer.compact();
+        if (!buffer.hasRemaining()) {
+            final ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() << 1);
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
+        int read;
+        do {
+            read = channel.read(buffer);
+        } while (read == 0);
+        buffer.flip();
+        if (read < 0) {
+            endOfStream = true;
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == '\f' || b == 0x0B;
+    }
+}
@@ -0,0 +1,242 @@
+package lz.renatkaitmazov.algorithms.week2.homework;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A double-ended queue with the same API as {@link Deque}, but instead of a link
+ * per item it keeps the items in fixed-size array blocks.
+ * <p>
+ * The blocks are referenced from a block map. All the items occupy a contiguous range
+ * of positions <code>[first, first + size)</code> of the virtual array formed by the
+ * blocks laid out one after another, so the item at index <code>i</code> is found
+ * with a shift and a mask, and {@link #get(int)} takes constant time.
+ * When one end of the range reaches the end of the map, the block references are moved
+ * to the center of the map, or the map is doubled if it is more than half full.
+ * Only the references are moved, never the items, so adding to either end takes
+ * amortized constant time.
+ * <p>
+ * A block is released as soon as it becomes empty. The last released block is kept aside
+ * and reused, so that a deque used as a sliding window does not allocate
+ * a block every time its ends cross a block boundary.
+ *
+ * @author Renat Kaitmazov
+ */
+
+public final class ChunkedDeque<Item> implements Iterable<Item> {
+
+    /*--------------------------------------------------------*/
+    /* Constants
+    /*--------------------------------------------------------*/
+
+    private static final int BLOCK_SHIFT = 6;
+    private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+    private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+    private static final int INITIAL_MAP_SIZE = 8;
+
+    /*--------------------------------------------------------*/
+    /* Fields
+    /*--------------------------------------------------------*/
+
+    private Object[][] blocks = new Object[INITIAL_MAP_SIZE][];
+
+    /**
+     * A released block ready to be reused.
+     */
+
+    private Object[] spare;
+
+    /**
+     * The position of the first item in the virtual array.
+     * Starts in the middle so that the deque can grow in both directions.
+     */
+
+    private int first = (INITIAL_MAP_SIZE * BLOCK_SIZE) >> 1;
+    private int size;
+
+    /*--------------------------------------------------------*/
+    /* Constructors
+    /*--------------------------------------------------------*/
+
+    public ChunkedDeque() {
+    }
+
+    /*--------------------------------------------------------*/
+    /* API
+    /*--------------------------------------------------------*/
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void addFirst(Item item) {
+        checkNotNull(item);
+        if (first == 0) {
+            makeRoom();
+        }
+        final int position = --first;
+        block(position)[position & BLOCK_MASK] = item;
+        ++size;
+    }
+
+    public void addLast(Item item) {
+        checkNotNull(item);
+        if (first + size == blocks.length << BLOCK_SHIFT) {
+            makeRoom();
+        }
+        final int position = first + size;
+        block(position)[position & BLOCK_MASK] = item;
+        ++size;
+    }
+
+    public Item removeFirst() {
+        checkNotEmpty();
+        final Item item = take(first);
+        ++first;
+        --size;
+        return item;
+    }
+
+    public Item removeLast() {
+        checkNotEmpty();
+        final Item item = take(first + size - 1);
+        --size;
+        return item;
+    }
+
+    /**
+     * Returns the item at the given index, counting from the front.
+     *
+     * @param index of the item.
+     * @return the item at the given index.
+     */
+
+    @SuppressWarnings("unchecked")
+    public Item get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Wrong index.");
+        }
+        final int position = first + index;
+        return (Item) blocks[position >>> BLOCK_SHIFT][position & BLOCK_MASK];
+    }
+
+    /*--------------------------------------------------------*/
+    /* Iterable implementation
+    /*--------------------------------------------------------*/
+
+    @Override
+    public Iterator<Item> iterator() {
+        return new Iterator<Item>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public Item next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return get(index++);
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        if (isEmpty()) {
+            return "[]";
+        }
+        final StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < size; ++i) {
+            builder.append(get(i)).append(", ");
+        }
+        final int end = builder.length();
+        final int start = end - 2;
+        return builder.replace(start, end, "]")
+                .toString();
+    }
+
+    /*--------------------------------------------------------*/
+    /* Helper
+    /*--------------------------------------------------------*/
+
+    private void checkNotNull(Item item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Null is not allowed.");
+        }
+    }
+
+    private void checkNotEmpty() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Deque is empty.");
+        }
+    }
+
+    /**
+     * Returns the block that holds the given position, allocating it if needed.
+     */
+
+    private Object[] block(int position) {
+        final int index = position >>> BLOCK_SHIFT;
+        Object[] block = blocks[index];
+        if (block == null) {
+            if (spare != null) {
+                block = spare;
+                spare = null;
+            } else {
+                block = new Object[BLOCK_SIZE];
+            }
+            blocks[index] = block;
+        }
+        return block;
+    }
+
+    /**
+     * Removes the item at the given position and releases its block
+     * if no other item is left in it.
+     */
+
+    @SuppressWarnings("unchecked")
+    private Item take(int position) {
+        final int index = position >>> BLOCK_SHIFT;
+        final Object[] block = blocks[index];
+        final Item item = (Item) block[position & BLOCK_MASK];
+        // Avoid loitering.
+        block[position & BLOCK_MASK] = null;
+        if (size == 1 || (position & BLOCK_MASK) == (position == first ? BLOCK_MASK : 0)) {
+            // The item was the last one in its block.
+            blocks[index] = null;
+            spare = block;
+        }
+        return item;
+    }
+
+    /**
+     * Centers the used blocks in the map, doubling the map if it is more than half full.
+     * Keeps at least one free block on each side.
+     */
+
+    private void makeRoom() {
+        final int firstBlock = first >>> BLOCK_SHIFT;
+        final int usedBlocks = size == 0 ? 0 : ((first + size - 1) >>> BLOCK_SHIFT) - firstBlock + 1;
+        final int mapSize = (usedBlocks + 2) << 1 > blocks.length ? blocks.length << 1 : blocks.length;
+        final Object[][] newBlocks = mapSize == blocks.length ? blocks : new Object[mapSize][];
+        final int newFirstBlock = (mapSize - usedBlocks) >> 1;
+        System.arraycopy(blocks, firstBlock, newBlocks, newFirstBlock, usedBlocks);
+        if (newBlocks == blocks) {
+            // Clear the references the blocks have moved away from.
+            for (int i = firstBlock; i < firstBlock + usedBlocks; ++i) {
+                if (i < newFirstBlock || i >= newFirstBlock + usedBlocks) blocks[i] = null;
+            }
+        }
+        blocks = newBlocks;
+        first = (newFirstBlock << BLOCK_SHIFT) + (first & BLOCK_MASK);
+    }
+}
@@ -0,0 +1,272 @@
+package lz.renatkaitmazov.algorithms.week2.homework;
+
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A thread-safe counterpart of {@link RandomizedQueue}: the item removed is chosen at random.
+ * <p>
+ * The items are split between a number of stripes, each one a resizeable array with its own lock.
+ * Every thread is assigned a home stripe and gets its own {@link SplittableRandom}, so threads
+ * that work with their home stripes neither contend for a lock nor for a shared random generator.
+ * Within a stripe the items are kept the same way {@link RandomizedQueue} keeps them: a new item
+ * is swapped with a random one, which keeps the array uniformly shuffled, and the last item is
+ * the one removed.
+ * <p>
+ * When the home stripe of a thread is empty, the thread steals the last half of the items of
+ * a randomly chosen non-empty stripe (the victim). Since the victim's array is shuffled, that is
+ * a random half of its items. The stolen items are moved to the home stripe, so the next removals
+ * do not need to steal again.
+ * <p>
+ * The removal is uniform within a stripe but only approximately uniform across the whole bag:
+ * a thread prefers the items of its home stripe.
+ *
+ * @author Renat Kaitmazov
+ */
+
+public final class ConcurrentRandomizedBag<Item> {
+
+    /*--------------------------------------------------------*/
+    /* Static
+    /*--------------------------------------------------------*/
+
+    private static final int DEFAULT_STRIPE_CAPACITY = 16;
+
+    /*--------------------------------------------------------*/
+    /* Fields
+    /*--------------------------------------------------------*/
+
+    private final Stripe<Item>[] stripes;
+    private final int mask;
+
+    /**
+     * Hands out home stripes to the threads in turn.
+     */
+
+    private final AtomicInteger nextStripe = new AtomicInteger();
+    private final ThreadLocal<ThreadState> threadStates;
+
+    /*--------------------------------------------------------*/
+    /* Nested classes
+    /*--------------------------------------------------------*/
+
+    private static final class ThreadState {
+        private final int home;
+        private final SplittableRandom random;
+
+        ThreadState(int home, SplittableRandom random) {
+            this.home = home;
+            this.random = random;
+        }
+    }
+
+    /**
+     * A part of the bag. All the fields except for the size are accessed only under the lock
+     * of the stripe. The size is also read without the lock to skip empty stripes cheaply.
+     */
+
+    private static final class Stripe<T> {
+        private T[] items;
+        private volatile int size;
+
+        @SuppressWarnings("unchecked")
+        Stripe() {
+            items = (T[]) new Object[DEFAULT_STRIPE_CAPACITY];
+        }
+
+        void add(T item, SplittableRandom random) {
+            final int currentSize = size;
+            if (currentSize == items.length) {
+                resize(currentSize << 1);
+            }
+            items[currentSize] = item;
+            swap(items, random.nextInt(currentSize + 1), currentSize);
+            size = currentSize + 1;
+        }
+
+        T removeLast() {
+            final int currentSize = size - 1;
+            final T item = items[currentSize];
+            items[currentSize] = null; // Avoid loitering
+            size = currentSize;
+            if (currentSize > DEFAULT_STRIPE_CAPACITY && currentSize <= (items.length >> 2)) {
+                resize(items.length >> 1);
+            }
+            return item;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void resize(int newCapacity) {
+            final T[] newItems = (T[]) new Object[newCapacity];
+            System.arraycopy(items, 0, newItems, 0, size);
+            items = newItems;
+        }
+    }
+
+    /*--------------------------------------------------------*/
+    /* Constructors
+    /*--------------------------------------------------------*/
+
+    /**
+     * Creates a bag with one stripe per available processor, rounded up to a power of two.
+     */
+
+    public ConcurrentRandomizedBag() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a bag with the given number of stripes, rounded up to a power of two.
+     *
+     * @param numberOfStripes the expected number of threads using the bag at the same time.
+     */
+
+    @SuppressWarnings("unchecked")
+    public ConcurrentRandomizedBag(int numberOfStripes) {
+        if (numberOfStripes < 1 || numberOfStripes > (1 << 16)) {
+            throw new IllegalArgumentException("Number of stripes must be in the range [1, 65536]");
+        }
+        final int count = numberOfStripes == 1 ? 1 : Integer.highestOneBit(numberOfStripes - 1) << 1;
+        stripes = (Stripe<Item>[]) new Stripe[count];
+        for (int i = 0; i < count; ++i) {
+            stripes[i] = new Stripe<>();
+        }
+        mask = count - 1;
+        threadStates = ThreadLocal.withInitial(
+                () -> new ThreadState(nextStripe.getAndIncrement() & mask,
+                                      new SplittableRandom(ThreadLocalRandom.current().nextLong())));
+    }
+
+    /*--------------------------------------------------------*/
+    /* API
+    /*--------------------------------------------------------*/
+
+    /**
+     * Returns the number of items in the bag. If other threads are modifying the bag
+     * at the same time, the value is only an estimate.
+     *
+     * @return the number of items.
+     */
+
+    public int size() {
+        int size = 0;
+        for (final Stripe<Item> stripe : stripes) {
+            size += stripe.size;
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        for (final Stripe<Item> stripe : stripes) {
+            if (stripe.size != 0) return false;
+        }
+        return true;
+    }
+
+    public void enqueue(Item item) {
+        ensureNotNull(item);
+        final ThreadState state = threadStates.get();
+        final Stripe<Item> stripe = stripes[state.home];
+        synchronized (stripe) {
+            stripe.add(item, state.random);
+        }
+    }
+
+    /**
+     * Removes and returns a random item.
+     *
+     * @return a random item.
+     * @throws NoSuchElementException if no stripe had items when it was looked at.
+     */
+
+    public Item dequeue() {
+        final ThreadState state = threadStates.get();
+        final Stripe<Item> home = stripes[state.home];
+        synchronized (home) {
+            if (home.size > 0) return home.removeLast();
+        }
+        final Item[] stolen = steal(state);
+        if (stolen == null) {
+            throw new NoSuchElementException("Bag is empty.");
+        }
+        // The first stolen item is returned, the rest go to the home stripe.
+        synchronized (home) {
+            for (int i = 1; i < stolen.length; ++i) {
+                home.add(stolen[i], state.random);
+            }
+        }
+        return stolen[0];
+    }
+
+    /**
+     * Returns a random item without removing it.
+     *
+     * @return a random item.
+     * @throws NoSuchElementException if no stripe had items when it was looked at.
+     */
+
+    public Item sample() {
+        final ThreadState state = threadStates.get();
+        final int start = state.home;
+        for (int i = 0; i <= mask; ++i) {
+            final Stripe<Item> stripe = stripes[(start + i) & mask];
+            if (stripe.size == 0) continue;
+            synchronized (stripe) {
+                final int size = stripe.size;
+                if (size > 0) return stripe.items[state.random.nextInt(size)];
+            }
+        }
+        throw new NoSuchElementException("Bag is empty.");
+    }
+
+    /*--------------------------------------------------------*/
+    /* Helper
+    /*--------------------------------------------------------*/
+
+    /**
+     * Takes the last half (rounded up) of the items of a non-empty stripe,
+     * starting the search from a random one.
+     * Never holds two locks at once, so stealing threads cannot deadlock.
+     *
+     * @return the stolen items, or <code>null</code> if every stripe is empty.
+     */
+
+    @SuppressWarnings("unchecked")
+    private Item[] steal(ThreadState state) {
+        final int start = state.random.nextInt(stripes.length);
+        for (int i = 0; i <= mask; ++i) {
+            final int index = (start + i) & mask;
+            if (index == state.home) continue;
+            final Stripe<Item> victim = stripes[index];
+            if (victim.size == 0) continue;
+            synchronized (victim) {
+                final int size = victim.size;
+                if (size == 0) continue;
+                final int count = (size + 1) >> 1;
+                final Item[] stolen = (Item[]) new Object[count];
+                for (int j = 0; j < count; ++j) {
+                    stolen[j] = victim.removeLast();
+                }
+                return stolen;
+            }
+        }
+        return null;
+    }
+
+    private void ensureNotNull(Item item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Null is not allowed.");
+        }
+    }
+
+    private static <T> void swap(T[] array, int i, int j) {
+        if (i == j) {
+            return;
+        }
+        final T temp = array[i];
+        array[i] = array[j];
+        array[j] = temp;
+    }
+}
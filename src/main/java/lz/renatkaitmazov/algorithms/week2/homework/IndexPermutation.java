@@ -0,0 +1,115 @@
+package lz.renatkaitmazov.algorithms.week2.homework;
+
+/**
+ * A pseudo-random permutation of the indices <code>[0, size)</code> that is computed
+ * on the fly instead of being stored.
+ * <p>
+ * The indices are encrypted by a balanced Feistel network over the smallest domain of
+ * <code>2^(2h)</code> values that covers the range. Every round of a Feistel network is
+ * invertible whatever its round function is, so the network is a bijection of the domain.
+ * An index that falls outside of the range is encrypted again until it falls inside
+ * (cycle walking). Since the domain is less than four times larger than the range, it takes
+ * fewer than four encryptions on average, and the result is a bijection of the range.
+ * <p>
+ * The permutation is a function of the seed, it takes O(1) memory
+ * and can be shared by any number of threads. It is not drawn from all the
+ * <code>size!</code> permutations, but over random seeds every index lands
+ * at every position about equally often.
+ *
+ * @author Renat Kaitmazov
+ */
+
+final class IndexPermutation {
+
+    /*--------------------------------------------------------*/
+    /* Constants
+    /*--------------------------------------------------------*/
+
+    /**
+     * Four rounds are enough for large ranges, but with only a couple of bits per half
+     * they leave a visible bias in where small indices land.
+     */
+
+    private static final int ROUNDS = 8;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /*--------------------------------------------------------*/
+    /* Fields
+    /*--------------------------------------------------------*/
+
+    private final int size;
+    private final int halfBits;
+    private final int halfMask;
+    private final long[] roundKeys = new long[ROUNDS];
+
+    /*--------------------------------------------------------*/
+    /* Constructors
+    /*--------------------------------------------------------*/
+
+    IndexPermutation(int size, long seed) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Size must not be negative");
+        }
+        this.size = size;
+        // Both halves need at least one bit, and 2 * halfBits >= log2(size).
+        final int bits = Math.max(2, 32 - Integer.numberOfLeadingZeros(Math.max(0, size - 1)));
+        halfBits = (bits + 1) >> 1;
+        halfMask = (1 << halfBits) - 1;
+        long state = seed;
+        for (int i = 0; i < ROUNDS; ++i) {
+            state += GOLDEN_GAMMA;
+            roundKeys[i] = mix(state);
+        }
+    }
+
+    /*--------------------------------------------------------*/
+    /* API
+    /*--------------------------------------------------------*/
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the index the given index is mapped to.
+     *
+     * @param index in the range [0, size).
+     * @return the permuted index in the range [0, size).
+     */
+
+    int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Wrong index.");
+        }
+        long value = index;
+        do {
+            value = encrypt(value);
+        } while (value >= size);
+        return (int) value;
+    }
+
+    /*--------------------------------------------------------*/
+    /* Helper
+    /*--------------------------------------------------------*/
+
+    private long encrypt(long value) {
+        long left = value >>> halfBits;
+        long right = value & halfMask;
+        for (final long key : roundKeys) {
+            final long temp = right;
+            right = left ^ (mix(right ^ key) & halfMask);
+            left = temp;
+        }
+        return (left << halfBits) | right;
+    }
+
+    /**
+     * The finalizer of SplitMix64, every bit of the result depends on every bit of the input.
+     */
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
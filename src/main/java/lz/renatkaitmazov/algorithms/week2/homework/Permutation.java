@@ -1,9 +1,14 @@
 package lz.renatkaitmazov.algorithms.week2.homework;
 
-import edu.princeton.cs.algs4.StdIn;
 import edu.princeton.cs.algs4.StdOut;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
 /**
+ * Prints k strings picked uniformly at random from the standard input.
+ * Keeps only k strings in memory however long the input is.
+ *
  * @author Renat Kaitmazov
  */
 
@@ -13,13 +18,19 @@ public final class Permutation {
             return;
         }
 
-        final RandomizedQueue<String> queue = new RandomizedQueue<>();
-        while (!StdIn.isEmpty()) {
-            queue.enqueue(StdIn.readString());
-        }
         final int k = Integer.parseInt(args[0]);
-        for (int i = 0; i < k; ++i) {
-            StdOut.println(queue.dequeue());
+        final ReservoirSampler<String> sampler = new ReservoirSampler<>(k);
+        final ChannelReader reader = new ChannelReader(System.in);
+        try {
+            String token;
+            while ((token = reader.readToken()) != null) {
+                sampler.add(token);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (final String item : sampler) {
+            StdOut.println(item);
         }
     }
 }
@@ -2,6 +2,7 @@ package lz.renatkaitmazov.algorithms.week2.homework;
 
 import edu.princeton.cs.algs4.StdRandom;
 
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
@@ -46,6 +47,12 @@ public final class RandomizedQueue<Item> implements Iterable<Item> {
     private Item[] items;
     private int size;
 
+    /**
+     * Incremented by every enqueue and dequeue, so that lazy iterators can detect them.
+     */
+
+    private int modifications;
+
     /*--------------------------------------------------------*/
     /* Nested classes
     /*--------------------------------------------------------*/
@@ -73,6 +80,38 @@ public final class RandomizedQueue<Item> implements Iterable<Item> {
         }
     }
 
+    private static final class LazyRandomizedQueueIterator<T> implements Iterator<T> {
+
+        private final RandomizedQueue<T> queue;
+        private final T[] items;
+        private final IndexPermutation permutation;
+        private final int expectedModifications;
+        private int current;
+
+        LazyRandomizedQueueIterator(RandomizedQueue<T> queue, IndexPermutation permutation) {
+            this.queue = queue;
+            this.items = queue.items;
+            this.permutation = permutation;
+            this.expectedModifications = queue.modifications;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return current < permutation.size();
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (queue.modifications != expectedModifications) {
+                throw new ConcurrentModificationException();
+            }
+            return items[permutation.get(current++)];
+        }
+    }
+
     /*--------------------------------------------------------*/
     /* Constructors
     /*--------------------------------------------------------*/
@@ -100,6 +139,7 @@ public final class RandomizedQueue<Item> implements Iterable<Item> {
             resize(newSize);
         }
         items[size++] = item;
+        ++modifications;
         final int randomIndex = StdRandom.uniform(size);
         swap(items, randomIndex, size - 1);
     }
@@ -107,6 +147,7 @@ public final class RandomizedQueue<Item> implements Iterable<Item> {
     public Item dequeue() {
         ensureNotEmpty();
         final Item itemToDequeue = items[--size];
+        ++modifications;
         items[size] = null; // Avoid loitering
         final int capacity = items.length;
         if ((capacity >> 2) >= size) {
@@ -128,6 +169,23 @@ public final class RandomizedQueue<Item> implements Iterable<Item> {
         return new RandomizedQueueIterator<>(copy);
     }
 
+    /**
+     * Returns an iterator over the items in random order that does not copy them.
+     * The order is produced lazily by a pseudo-random permutation of the indices,
+     * so the iterator takes O(1) extra memory and any number of such iterators can
+     * traverse the queue at the same time, even from different threads, as long as
+     * nobody modifies the queue.
+     *
+     * @return an iterator over the items in random order.
+     * @throws java.util.ConcurrentModificationException from <code>next()</code>
+     *                                                   if the queue has been modified.
+     */
+
+    public Iterator<Item> lazyIterator() {
+        final long seed = ((long) StdRandom.uniform(Integer.MAX_VALUE) << 31) ^ StdRandom.uniform(Integer.MAX_VALUE);
+        return new LazyRandomizedQueueIterator<>(this, new IndexPermutation(size, seed));
+    }
+
     private void ensureNotNull(Item item) {
         if (item == null) {
             throw new IllegalArgumentException("Null is not allowed.");
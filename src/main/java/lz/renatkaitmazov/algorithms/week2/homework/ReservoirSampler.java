@@ -0,0 +1,185 @@
+package lz.renatkaitmazov.algorithms.week2.homework;
+
+import lz.renatkaitmazov.algorithms.week2.ArrayQueue;
+import lz.renatkaitmazov.algorithms.week2.Queue;
+
+import java.util.Iterator;
+import java.util.SplittableRandom;
+
+/**
+ * Picks k items uniformly at random from a stream of unknown length
+ * while keeping only those k items in memory.
+ * <p>
+ * Uses Li's Algorithm L. Once the reservoir is full, the sampler does not flip a coin
+ * for every item: it draws how many of the following items to skip from the
+ * geometric distribution they would have been rejected with, so the number of
+ * random numbers it needs grows as O(k * (1 + log(N / k))) rather than O(N).
+ * Every subset of k items of the stream is equally likely to end up in the reservoir.
+ *
+ * @author Renat Kaitmazov
+ */
+
+public final class ReservoirSampler<Item> implements Iterable<Item> {
+
+    /*--------------------------------------------------------*/
+    /* Fields
+    /*--------------------------------------------------------*/
+
+    private final Item[] reservoir;
+    private final SplittableRandom random;
+
+    /**
+     * The number of items seen so far.
+     */
+
+    private long count;
+
+    /**
+     * The index in the stream of the next item to put into the reservoir.
+     */
+
+    private long nextIndex;
+
+    /**
+     * The largest of k uniform random keys in Algorithm L.
+     */
+
+    private double w;
+
+    /*--------------------------------------------------------*/
+    /* Constructors
+    /*--------------------------------------------------------*/
+
+    public ReservoirSampler(int k) {
+        this(k, new SplittableRandom());
+    }
+
+    public ReservoirSampler(int k, long seed) {
+        this(k, new SplittableRandom(seed));
+    }
+
+    @SuppressWarnings("unchecked")
+    private ReservoirSampler(int k, SplittableRandom random) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Sample size must not be negative");
+        }
+        reservoir = (Item[]) new Object[k];
+        this.random = random;
+    }
+
+    /*--------------------------------------------------------*/
+    /* API
+    /*--------------------------------------------------------*/
+
+    /**
+     * Offers the next item of the stream to the sampler.
+     *
+     * @param item the next item.
+     */
+
+    public void add(Item item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Null is not allowed.");
+        }
+        final int k = reservoir.length;
+        if (k == 0) {
+            ++count;
+            return;
+        }
+        if (count < k) {
+            reservoir[(int) count] = item;
+            if (++count == k) {
+                w = Math.exp(Math.log(nextUniform()) / k);
+                nextIndex = count - 1;
+                skip();
+            }
+            return;
+        }
+        if (count++ == nextIndex) {
+            reservoir[random.nextInt(k)] = item;
+            w *= Math.exp(Math.log(nextUniform()) / k);
+            skip();
+        }
+    }
+
+    /**
+     * Returns the number of items seen so far.
+     *
+     * @return the length of the stream so far.
+     */
+
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Returns the number of items in the sample, which is k unless
+     * the stream has had fewer items.
+     *
+     * @return the size of the sample.
+     */
+
+    public int size() {
+        return (int) Math.min(count, reservoir.length);
+    }
+
+    /**
+     * Returns a snapshot of the sampled items in random order.
+     *
+     * @return the sample.
+     */
+
+    @SuppressWarnings("unchecked")
+    public Iterable<Item> sample() {
+        final int size = size();
+        final Item[] copy = (Item[]) new Object[size];
+        System.arraycopy(reservoir, 0, copy, 0, size);
+        // The reservoir keeps the first items in stream order, so shuffle them.
+        for (int i = size - 1; i > 0; --i) {
+            final int j = random.nextInt(i + 1);
+            final Item temp = copy[i];
+            copy[i] = copy[j];
+            copy[j] = temp;
+        }
+        final Queue<Item> queue = new ArrayQueue<>(size);
+        for (final Item item : copy) {
+            queue.enqueue(item);
+        }
+        return queue;
+    }
+
+    /*--------------------------------------------------------*/
+    /* Iterable implementation
+    /*--------------------------------------------------------*/
+
+    /**
+     * Returns an iterator over a snapshot of the sample in random order.
+     */
+
+    @Override
+    public Iterator<Item> iterator() {
+        return sample().iterator();
+    }
+
+    /*--------------------------------------------------------*/
+    /* Helper
+    /*--------------------------------------------------------*/
+
+    /**
+     * Moves the next index past the items that would not be taken into the reservoir.
+     */
+
+    private void skip() {
+        final double gap = Math.floor(Math.log(nextUniform()) / Math.log1p(-w));
+        // Once w is tiny (or zero) the gap can exceed any stream, which is the same as never taking an item again.
+        nextIndex = !(gap < Long.MAX_VALUE - nextIndex) ? Long.MAX_VALUE : nextIndex + (long) gap + 1;
+    }
+
+    /**
+     * Returns a uniform random number in (0, 1], so that its logarithm is finite.
+     */
+
+    private double nextUniform() {
+        return 1.0 - random.nextDouble();
+    }
+}
@@ -0,0 +1,177 @@
+package lz.renatkaitmazov.algorithms.week2.homework;
+
+import lz.renatkaitmazov.algorithms.week2.ArrayQueue;
+import lz.renatkaitmazov.algorithms.week2.Queue;
+
+import java.util.SplittableRandom;
+
+/**
+ * Picks k items from a stream of weighted items without replacement, where the chance of
+ * an item to be picked is proportional to its weight, keeping only k items in memory.
+ * <p>
+ * Uses Efraimidis and Spirakis' A-Res algorithm. Every item gets the key
+ * <code>u^(1 / weight)</code> for a uniform random <code>u</code>, and the sample
+ * consists of the items with the k largest keys. The sampler works with the logarithms
+ * of the keys, <code>log(u) / weight</code>, which order the items the same way but do not
+ * underflow for large weights. The current k items are kept in a binary min-heap on their keys,
+ * so an item that does not beat the smallest key is rejected after a single comparison.
+ *
+ * @author Renat Kaitmazov
+ */
+
+public final class WeightedReservoirSampler<Item> {
+
+    /*--------------------------------------------------------*/
+    /* Fields
+    /*--------------------------------------------------------*/
+
+    /**
+     * A min-heap of the sampled items on their keys, the smallest key is at index 0.
+     */
+
+    private final Item[] items;
+    private final double[] keys;
+    private final SplittableRandom random;
+    private int size;
+    private long count;
+
+    /*--------------------------------------------------------*/
+    /* Constructors
+    /*--------------------------------------------------------*/
+
+    public WeightedReservoirSampler(int k) {
+        this(k, new SplittableRandom());
+    }
+
+    public WeightedReservoirSampler(int k, long seed) {
+        this(k, new SplittableRandom(seed));
+    }
+
+    @SuppressWarnings("unchecked")
+    private WeightedReservoirSampler(int k, SplittableRandom random) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Sample size must not be negative");
+        }
+        items = (Item[]) new Object[k];
+        keys = new double[k];
+        this.random = random;
+    }
+
+    /*--------------------------------------------------------*/
+    /* API
+    /*--------------------------------------------------------*/
+
+    /**
+     * Offers the next item of the stream to the sampler.
+     * Items with zero weight are counted but never sampled.
+     *
+     * @param item   the next item.
+     * @param weight the weight of the item, a finite non-negative number.
+     */
+
+    public void add(Item item, double weight) {
+        if (item == null) {
+            throw new IllegalArgumentException("Null is not allowed.");
+        }
+        if (!(weight >= 0.0) || Double.isInfinite(weight)) {
+            throw new IllegalArgumentException("Weight must be finite and non-negative: " + weight);
+        }
+        ++count;
+        if (weight == 0.0 || items.length == 0) {
+            return;
+        }
+        final double key = Math.log(1.0 - random.nextDouble()) / weight;
+        if (size < items.length) {
+            items[size] = item;
+            keys[size] = key;
+            goUp(size++);
+        } else if (key > keys[0]) {
+            items[0] = item;
+            keys[0] = key;
+            goDown(0);
+        }
+    }
+
+    /**
+     * Returns the number of items seen so far.
+     *
+     * @return the length of the stream so far.
+     */
+
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Returns the number of items in the sample, which is k unless the stream
+     * has had fewer items with positive weights.
+     *
+     * @return the size of the sample.
+     */
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns a snapshot of the sampled items from the largest key to the smallest one,
+     * which is the order weighted sampling without replacement would have picked them in.
+     *
+     * @return the sample.
+     */
+
+    @SuppressWarnings("unchecked")
+    public Iterable<Item> sample() {
+        final Item[] sorted = (Item[]) new Object[size];
+        final Item[] heapItems = items.clone();
+        final double[] heapKeys = keys.clone();
+        // Pop the minimum of a copy of the heap into the end of the array.
+        for (int heapSize = size; heapSize > 0; --heapSize) {
+            sorted[heapSize - 1] = heapItems[0];
+            heapItems[0] = heapItems[heapSize - 1];
+            heapKeys[0] = heapKeys[heapSize - 1];
+            goDown(heapItems, heapKeys, 0, heapSize - 1);
+        }
+        final Queue<Item> queue = new ArrayQueue<>(size);
+        for (final Item item : sorted) {
+            queue.enqueue(item);
+        }
+        return queue;
+    }
+
+    /*--------------------------------------------------------*/
+    /* Helper
+    /*--------------------------------------------------------*/
+
+    private void goUp(int index) {
+        while (index > 0) {
+            final int parent = (index - 1) >> 1;
+            if (keys[parent] <= keys[index]) break;
+            swap(items, keys, parent, index);
+            index = parent;
+        }
+    }
+
+    private void goDown(int index) {
+        goDown(items, keys, index, size);
+    }
+
+    private static <T> void goDown(T[] items, double[] keys, int index, int size) {
+        int child;
+        while ((child = (index << 1) + 1) < size) {
+            if (child + 1 < size && keys[child + 1] < keys[child]) ++child;
+            if (keys[index] <= keys[child]) break;
+            swap(items, keys, index, child);
+            index = child;
+        }
+    }
+
+    private static <T> void swap(T[] items, double[] keys, int i, int j) {
+        final T item = items[i];
+        items[i] = items[j];
+        items[j] = item;
+        final double key = keys[i];
+        keys[i] = keys[j];
+        keys[j] = key;
+    }
+}
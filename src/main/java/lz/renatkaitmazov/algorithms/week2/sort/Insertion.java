@@ -54,4 +54,67 @@ public final class Insertion {
             }
         }
     }
+
+    public static void sort(final int[] array) {
+        if (array == null) {
+            return;
+        }
+        sort(array, 0, array.length - 1);
+    }
+
+    public static void sort(final int[] array, int startIndex, int endIndex) {
+        for (int i = startIndex + 1; i <= endIndex; ++i) {
+            final int currentItem = array[i];
+            int j = i - 1;
+            while (j >= startIndex && isLessThan(currentItem, array[j])) {
+                array[j + 1] = array[j];
+                --j;
+            }
+            if (j != i - 1) {
+                array[j + 1] = currentItem;
+            }
+        }
+    }
+
+    public static void sort(final long[] array) {
+        if (array == null) {
+            return;
+        }
+        sort(array, 0, array.length - 1);
+    }
+
+    public static void sort(final long[] array, int startIndex, int endIndex) {
+        for (int i = startIndex + 1; i <= endIndex; ++i) {
+            final long currentItem = array[i];
+            int j = i - 1;
+            while (j >= startIndex && isLessThan(currentItem, array[j])) {
+                array[j + 1] = array[j];
+                --j;
+            }
+            if (j != i - 1) {
+                array[j + 1] = currentItem;
+            }
+        }
+    }
+
+    public static void sort(final double[] array) {
+        if (array == null) {
+            return;
+        }
+        sort(array, 0, array.length - 1);
+    }
+
+    public static void sort(final double[] array, int startIndex, int endIndex) {
+        for (int i = startIndex + 1; i <= endIndex; ++i) {
+            final double currentItem = array[i];
+            int j = i - 1;
+            while (j >= startIndex && isLessThan(currentItem, array[j])) {
+                array[j + 1] = array[j];
+                --j;
+            }
+            if (j != i - 1) {
+                array[j + 1] = currentItem;
+            }
+        }
+    }
 }
@@ -41,4 +41,73 @@ public final class Selection {
             }
         }
     }
+
+    public static void sort(final int[] array) {
+        if (array == null) {
+            return;
+        }
+
+        final int size = array.length;
+        for (int i = 0; i < size - 1; ++i) {
+            int indexOfSmallestItem = i;
+            int smallestItem = array[indexOfSmallestItem];
+            for (int j = i + 1; j < size; ++j) {
+                final int currentItem = array[j];
+                if (isLessThan(currentItem, smallestItem)) {
+                    smallestItem = currentItem;
+                    indexOfSmallestItem = j;
+                }
+            }
+
+            if (i != indexOfSmallestItem) {
+                swap(array, i, indexOfSmallestItem);
+            }
+        }
+    }
+
+    public static void sort(final long[] array) {
+        if (array == null) {
+            return;
+        }
+
+        final int size = array.length;
+        for (int i = 0; i < size - 1; ++i) {
+            int indexOfSmallestItem = i;
+            long smallestItem = array[indexOfSmallestItem];
+            for (int j = i + 1; j < size; ++j) {
+                final long currentItem = array[j];
+                if (isLessThan(currentItem, smallestItem)) {
+                    smallestItem = currentItem;
+                    indexOfSmallestItem = j;
+                }
+            }
+
+            if (i != indexOfSmallestItem) {
+                swap(array, i, indexOfSmallestItem);
+            }
+        }
+    }
+
+    public static void sort(final double[] array) {
+        if (array == null) {
+            return;
+        }
+
+        final int size = array.length;
+        for (int i = 0; i < size - 1; ++i) {
+            int indexOfSmallestItem = i;
+            double smallestItem = array[indexOfSmallestItem];
+            for (int j = i + 1; j < size; ++j) {
+                final double currentItem = array[j];
+                if (isLessThan(currentItem, smallestItem)) {
+                    smallestItem = currentItem;
+                    indexOfSmallestItem = j;
+                }
+            }
+
+            if (i != indexOfSmallestItem) {
+                swap(array, i, indexOfSmallestItem);
+            }
+        }
+    }
 }
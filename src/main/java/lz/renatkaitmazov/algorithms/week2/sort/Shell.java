@@ -53,4 +53,94 @@ public final class Shell {
             gap /= 3;
         }
     }
+
+    public static void sort(final int[] array) {
+        if (array == null) {
+            return;
+        }
+
+        final int size = array.length;
+        final int bound = size / 3;
+        int gap = 1;
+        while (gap < bound) {
+            gap = 3 * gap + 1;
+        }
+
+        while (gap > 0) {
+            for (int i = gap; i < size; ++i) {
+                final int currentItem = array[i];
+                int j = i - gap;
+                while (j > -1 && isLessThan(currentItem, array[j])) {
+                    array[j + gap] = array[j];
+                    j -= gap;
+                }
+
+                if (j != i - gap) {
+                    array[j + gap] = currentItem;
+                }
+            }
+
+            gap /= 3;
+        }
+    }
+
+    public static void sort(final long[] array) {
+        if (array == null) {
+            return;
+        }
+
+        final int size = array.length;
+        final int bound = size / 3;
+        int gap = 1;
+        while (gap < bound) {
+            gap = 3 * gap + 1;
+        }
+
+        while (gap > 0) {
+            for (int i = gap; i < size; ++i) {
+                final long currentItem = array[i];
+                int j = i - gap;
+                while (j > -1 && isLessThan(currentItem, array[j])) {
+                    array[j + gap] = array[j];
+                    j -= gap;
+                }
+
+                if (j != i - gap) {
+                    array[j + gap] = currentItem;
+                }
+            }
+
+            gap /= 3;
+        }
+    }
+
+    public static void sort(final double[] array) {
+        if (array == null) {
+            return;
+        }
+
+        final int size = array.length;
+        final int bound = size / 3;
+        int gap = 1;
+        while (gap < bound) {
+            gap = 3 * gap + 1;
+        }
+
+        while (gap > 0) {
+            for (int i = gap; i < size; ++i) {
+                final double currentItem = array[i];
+                int j = i - gap;
+                while (j > -1 && isLessThan(currentItem, array[j])) {
+                    array[j + gap] = array[j];
+                    j -= gap;
+                }
+
+                if (j != i - gap) {
+                    array[j + gap] = currentItem;
+                }
+            }
+
+            gap /= 3;
+        }
+    }
 }
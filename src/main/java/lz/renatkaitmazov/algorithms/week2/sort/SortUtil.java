@@ -62,4 +62,103 @@ public final class SortUtil {
             swap(array, i, randomIndex);
         }
     }
+
+    public static boolean isLessThan(int lhs, int rhs) {
+        return lhs < rhs;
+    }
+
+    public static boolean isLessThan(long lhs, long rhs) {
+        return lhs < rhs;
+    }
+
+    /**
+     * Orders doubles the same way {@link Double#compareTo(Double)} does:
+     * -0.0 is less than 0.0, and NaN is greater than everything else.
+     * So primitive and boxed arrays end up sorted identically.
+     */
+
+    public static boolean isLessThan(double lhs, double rhs) {
+        return Double.compare(lhs, rhs) < 0;
+    }
+
+    public static int[] getUnsortedIntArray(int size) {
+        final int[] numbers = new int[size];
+        for (int i = 0; i < size; ++i) {
+            numbers[i] = RANDOM.nextInt(size << 1);
+        }
+        return numbers;
+    }
+
+    public static long[] getUnsortedLongArray(int size) {
+        final long[] numbers = new long[size];
+        for (int i = 0; i < size; ++i) {
+            numbers[i] = RANDOM.nextLong();
+        }
+        return numbers;
+    }
+
+    /**
+     * Returns whole numbers in [-50, 50), so there are lots of duplicates, with NaN,
+     * -0.0, 0.0 and negative infinity in the first items if the array is large enough.
+     */
+
+    public static double[] getUnsortedDoubleArray(int size) {
+        final double[] numbers = new double[size];
+        for (int i = 0; i < size; ++i) {
+            numbers[i] = RANDOM.nextInt(100) - 50.0;
+        }
+        final double[] specialValues = {Double.NaN, -0.0, 0.0, Double.NEGATIVE_INFINITY};
+        for (int i = 0; i < Math.min(size, specialValues.length); ++i) {
+            numbers[i] = specialValues[i];
+        }
+        return numbers;
+    }
+
+    public static void swap(final int[] array, int i, int j) {
+        final int temp = array[i];
+        array[i] = array[j];
+        array[j] = temp;
+    }
+
+    public static boolean isSorted(final int[] array) {
+        final int upperBound = array.length - 1;
+        for (int i = 0; i < upperBound; ++i) {
+            if (isLessThan(array[i + 1], array[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static void swap(final long[] array, int i, int j) {
+        final long temp = array[i];
+        array[i] = array[j];
+        array[j] = temp;
+    }
+
+    public static boolean isSorted(final long[] array) {
+        final int upperBound = array.length - 1;
+        for (int i = 0; i < upperBound; ++i) {
+            if (isLessThan(array[i + 1], array[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static void swap(final double[] array, int i, int j) {
+        final double temp = array[i];
+        array[i] = array[j];
+        array[j] = temp;
+    }
+
+    public static boolean isSorted(final double[] array) {
+        final int upperBound = array.length - 1;
+        for (int i = 0; i < upperBound; ++i) {
+            if (isLessThan(array[i + 1], array[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
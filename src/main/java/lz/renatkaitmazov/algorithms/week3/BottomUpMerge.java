@@ -7,12 +7,35 @@ import static lz.renatkaitmazov.algorithms.week2.sort.SortUtil.isLessThan;
  * An alternative implementation of the merge sort.
  * Does not use recursion.
  * Stable.
+ * <p>
+ * {@link #sortAdaptive(Comparable[])} merges the runs that are already in the array instead
+ * of runs of fixed widths, the way TimSort does. Ascending and strictly descending runs
+ * are found in a single pass (descending ones are reversed), and runs shorter than a minimum
+ * length are extended with the binary insertion sort. The runs are kept on a stack whose
+ * lengths grow at least like the Fibonacci numbers from the top, so a run is merged only with
+ * a run of a similar length and the stack never gets deeper than O(logN). Before a merge,
+ * the items of the runs that are already in place are skipped with binary searches,
+ * and during a merge, once one run keeps winning, its items are copied in bulk
+ * (galloping). An array made of K runs takes O(N*logK) steps, a sorted one takes O(N).
  *
  * @author Renat Kaitmazov
  */
 
 public final class BottomUpMerge {
 
+    /**
+     * Arrays shorter than this are sorted with the binary insertion sort alone,
+     * and merges of fewer items are done by {@link Merge#merge}.
+     */
+
+    private static final int MIN_MERGE = 32;
+
+    /**
+     * The number of times in a row that one run has to win before the merge starts galloping.
+     */
+
+    private static final int MIN_GALLOP = 7;
+
     private BottomUpMerge() {
     }
 
@@ -36,4 +59,457 @@ public final class BottomUpMerge {
             }
         }
     }
+
+    public static <T extends Comparable<T>> void sortAdaptive(final T[] array) {
+        if (array == null) {
+            return;
+        }
+
+        final int size = array.length;
+        if (size < 2) {
+            return;
+        }
+        if (size < MIN_MERGE) {
+            final int runLength = countRunAndMakeAscending(array, 0, size);
+            binaryInsertionSort(array, 0, size, runLength);
+            return;
+        }
+
+        final RunMerger<T> merger = new RunMerger<>(array);
+        final int minRun = minRunLength(size);
+        int start = 0;
+        int remaining = size;
+        do {
+            int runLength = countRunAndMakeAscending(array, start, size);
+            if (runLength < minRun) {
+                // Extend a short run up to the minimum length.
+                final int forced = Math.min(remaining, minRun);
+                binaryInsertionSort(array, start, start + forced, start + runLength);
+                runLength = forced;
+            }
+            merger.pushRun(start, runLength);
+            merger.mergeCollapse();
+            start += runLength;
+            remaining -= runLength;
+        } while (remaining != 0);
+        merger.mergeForceCollapse();
+    }
+
+    public static void sort(final int[] array) {
+        if (array == null) {
+            return;
+        }
+
+        final int size = array.length;
+        final int[] auxiliary = new int[size];
+        for (int step = 1; step < size; step <<= 1) {
+            for (int start = 0; start < size - step; start += (step << 1)) {
+                final int potentialEnd = start + (step << 1) - 1;
+                final int actualEnd = Math.min(potentialEnd, size - 1);
+                int middle = start + step - 1;
+                if (!isLessThan(array[middle + 1], array[middle])) {
+                    continue;
+                }
+                merge(array, auxiliary, start, middle, actualEnd);
+            }
+        }
+    }
+
+    public static void sort(final long[] array) {
+        if (array == null) {
+            return;
+        }
+
+        final int size = array.length;
+        final long[] auxiliary = new long[size];
+        for (int step = 1; step < size; step <<= 1) {
+            for (int start = 0; start < size - step; start += (step << 1)) {
+                final int potentialEnd = start + (step << 1) - 1;
+                final int actualEnd = Math.min(potentialEnd, size - 1);
+                int middle = start + step - 1;
+                if (!isLessThan(array[middle + 1], array[middle])) {
+                    continue;
+                }
+                merge(array, auxiliary, start, middle, actualEnd);
+            }
+        }
+    }
+
+    public static void sort(final double[] array) {
+        if (array == null) {
+            return;
+        }
+
+        final int size = array.length;
+        final double[] auxiliary = new double[size];
+        for (int step = 1; step < size; step <<= 1) {
+            for (int start = 0; start < size - step; start += (step << 1)) {
+                final int potentialEnd = start + (step << 1) - 1;
+                final int actualEnd = Math.min(potentialEnd, size - 1);
+                int middle = start + step - 1;
+                if (!isLessThan(array[middle + 1], array[middle])) {
+                    continue;
+                }
+                merge(array, auxiliary, start, middle, actualEnd);
+            }
+        }
+    }
+
+    /*--------------------------------------------------------*/
+    /* Adaptive mode
+    /*--------------------------------------------------------*/
+
+    /**
+     * Finds the length of the run that begins at the start index, and reverses it
+     * if it is descending. A descending run has to be strictly descending,
+     * otherwise reversing it would break the stability.
+     */
+
+    private static <T extends Comparable<T>> int countRunAndMakeAscending(final T[] array, int start, int end) {
+        int runEnd = start + 1;
+        if (runEnd == end) {
+            return 1;
+        }
+        if (isLessThan(array[runEnd++], array[start])) {
+            while (runEnd < end && isLessThan(array[runEnd], array[runEnd - 1])) ++runEnd;
+            for (int i = start, j = runEnd - 1; i < j; ++i, --j) {
+                final T temp = array[i];
+                array[i] = array[j];
+                array[j] = temp;
+            }
+        } else {
+            while (runEnd < end && !isLessThan(array[runEnd], array[runEnd - 1])) ++runEnd;
+        }
+        return runEnd - start;
+    }
+
+    /**
+     * Sorts [start, end) given that [start, sortedEnd) is already sorted. The place of every item
+     * is found by binary search, so it takes O(N*logN) comparisons, but still O(N^2) moves.
+     */
+
+    private static <T extends Comparable<T>> void binaryInsertionSort(final T[] array,
+                                                                      int start,
+                                                                      int end,
+                                                                      int sortedEnd) {
+        for (int i = sortedEnd; i < end; ++i) {
+            final T currentItem = array[i];
+            int left = start;
+            int right = i;
+            // Go to the right of equal items to keep the sort stable.
+            while (left < right) {
+                final int middle = (left + right) >>> 1;
+                if (isLessThan(currentItem, array[middle])) right = middle;
+                else left = middle + 1;
+            }
+            System.arraycopy(array, left, array, left + 1, i - left);
+            array[left] = currentItem;
+        }
+    }
+
+    /**
+     * Returns the minimum length of a run, between MIN_MERGE / 2 and MIN_MERGE, chosen so that
+     * size / minRun is a power of two or slightly less than one, which keeps the merges balanced.
+     */
+
+    private static int minRunLength(int size) {
+        int lowBits = 0;
+        while (size >= MIN_MERGE) {
+            lowBits |= (size & 1);
+            size >>= 1;
+        }
+        return size + lowBits;
+    }
+
+    /**
+     * Locates the position to insert the key into the sorted range [base, base + length)
+     * before any items equal to it, galloping from the hint: the distance to the key is found
+     * by doubling the step and then searched in with binary search. Takes O(log d) comparisons
+     * where d is the distance from the hint to the position.
+     *
+     * @return the number of items in the range that are less than the key.
+     */
+
+    private static <T extends Comparable<T>> int gallopLeft(final T key,
+                                                            final T[] array,
+                                                            int base,
+                                                            int length,
+                                                            int hint) {
+        int lastOffset = 0;
+        int offset = 1;
+        if (isLessThan(array[base + hint], key)) {
+            // Gallop to the right until array[base + hint + lastOffset] < key <= array[base + hint + offset].
+            final int maxOffset = length - hint;
+            while (offset < maxOffset && isLessThan(array[base + hint + offset], key)) {
+                lastOffset = offset;
+                offset = (offset << 1) + 1;
+                if (offset <= 0) offset = maxOffset; // Overflow.
+            }
+            if (offset > maxOffset) offset = maxOffset;
+            lastOffset += hint;
+            offset += hint;
+        } else {
+            // Gallop to the left until array[base + hint - offset] < key <= array[base + hint - lastOffset].
+            final int maxOffset = hint + 1;
+            while (offset < maxOffset && !isLessThan(array[base + hint - offset], key)) {
+                lastOffset = offset;
+                offset = (offset << 1) + 1;
+                if (offset <= 0) offset = maxOffset;
+            }
+            if (offset > maxOffset) offset = maxOffset;
+            final int temp = lastOffset;
+            lastOffset = hint - offset;
+            offset = hint - temp;
+        }
+
+        // The position is in (lastOffset, offset].
+        ++lastOffset;
+        while (lastOffset < offset) {
+            final int middle = lastOffset + ((offset - lastOffset) >>> 1);
+            if (isLessThan(array[base + middle], key)) lastOffset = middle + 1;
+            else offset = middle;
+        }
+        return offset;
+    }
+
+    /**
+     * Like {@link #gallopLeft}, but locates the position after any items equal to the key.
+     *
+     * @return the number of items in the range that are not greater than the key.
+     */
+
+    private static <T extends Comparable<T>> int gallopRight(final T key,
+                                                             final T[] array,
+                                                             int base,
+                                                             int length,
+                                                             int hint) {
+        int lastOffset = 0;
+        int offset = 1;
+        if (isLessThan(key, array[base + hint])) {
+            // Gallop to the left until array[base + hint - offset] <= key < array[base + hint - lastOffset].
+            final int maxOffset = hint + 1;
+            while (offset < maxOffset && isLessThan(key, array[base + hint - offset])) {
+                lastOffset = offset;
+                offset = (offset << 1) + 1;
+                if (offset <= 0) offset = maxOffset;
+            }
+            if (offset > maxOffset) offset = maxOffset;
+            final int temp = lastOffset;
+            lastOffset = hint - offset;
+            offset = hint - temp;
+        } else {
+            // Gallop to the right until array[base + hint + lastOffset] <= key < array[base + hint + offset].
+            final int maxOffset = length - hint;
+            while (offset < maxOffset && !isLessThan(key, array[base + hint + offset])) {
+                lastOffset = offset;
+                offset = (offset << 1) + 1;
+                if (offset <= 0) offset = maxOffset;
+            }
+            if (offset > maxOffset) offset = maxOffset;
+            lastOffset += hint;
+            offset += hint;
+        }
+
+        ++lastOffset;
+        while (lastOffset < offset) {
+            final int middle = lastOffset + ((offset - lastOffset) >>> 1);
+            if (isLessThan(key, array[base + middle])) offset = middle;
+            else lastOffset = middle + 1;
+        }
+        return offset;
+    }
+
+    /**
+     * The stack of pending runs of an adaptive sort and the state shared by its merges.
+     */
+
+    private static final class RunMerger<T extends Comparable<T>> {
+
+        /**
+         * Enough for any array: the run lengths grow at least like the Fibonacci numbers
+         * from the top of the stack, and they add up to at most Integer.MAX_VALUE.
+         */
+
+        private static final int MAX_STACK_SIZE = 49;
+
+        private final T[] array;
+        private final T[] auxiliary;
+        private final int[] runBase = new int[MAX_STACK_SIZE];
+        private final int[] runLength = new int[MAX_STACK_SIZE];
+        private int stackSize;
+
+        /**
+         * The galloping threshold, lowered while galloping pays off and raised while it does not.
+         */
+
+        private int minGallop = MIN_GALLOP;
+
+        @SuppressWarnings("unchecked")
+        RunMerger(T[] array) {
+            this.array = array;
+            auxiliary = (T[]) new Comparable[array.length];
+        }
+
+        void pushRun(int base, int length) {
+            runBase[stackSize] = base;
+            runLength[stackSize] = length;
+            ++stackSize;
+        }
+
+        /**
+         * Merges the runs on the top of the stack until, for the lengths A, B, C, D
+         * of the four topmost runs (D on the top), A > B + C, B > C + D and C > D.
+         */
+
+        void mergeCollapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if ((n > 0 && runLength[n - 1] <= runLength[n] + runLength[n + 1])
+                        || (n > 1 && runLength[n - 2] <= runLength[n] + runLength[n - 1])) {
+                    // Merge the middle run with the shorter of its neighbours.
+                    if (runLength[n - 1] < runLength[n + 1]) --n;
+                } else if (runLength[n] > runLength[n + 1]) {
+                    break;
+                }
+                mergeAt(n);
+            }
+        }
+
+        /**
+         * Merges all the runs on the stack into one.
+         */
+
+        void mergeForceCollapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLength[n - 1] < runLength[n + 1]) --n;
+                mergeAt(n);
+            }
+        }
+
+        /**
+         * Merges the runs at stack indices i and i + 1.
+         */
+
+        private void mergeAt(int i) {
+            int base1 = runBase[i];
+            int length1 = runLength[i];
+            final int base2 = runBase[i + 1];
+            int length2 = runLength[i + 1];
+
+            runLength[i] = length1 + length2;
+            if (i == stackSize - 3) {
+                runBase[i + 1] = runBase[i + 2];
+                runLength[i + 1] = runLength[i + 2];
+            }
+            --stackSize;
+
+            // The items of the first run not greater than the first item of the second run are in place.
+            final int skipped = gallopRight(array[base2], array, base1, length1, 0);
+            base1 += skipped;
+            length1 -= skipped;
+            if (length1 == 0) {
+                return;
+            }
+            // So are the items of the second run not less than the last item of the first run.
+            length2 = gallopLeft(array[base1 + length1 - 1], array, base2, length2, length2 - 1);
+            if (length2 == 0) {
+                return;
+            }
+
+            if (length1 + length2 < MIN_MERGE) {
+                merge(array, auxiliary, base1, base2 - 1, base2 + length2 - 1);
+            } else {
+                mergeGalloping(base1, length1, base2, length2);
+            }
+        }
+
+        /**
+         * Merges two adjacent runs, given that the first item of the second run is less than
+         * the first item of the first run and the last item of the first run is greater than
+         * the last item of the second run. The first run is copied aside and merged
+         * with the second one from left to right.
+         */
+
+        private void mergeGalloping(int base1, int length1, int base2, int length2) {
+            System.arraycopy(array, base1, auxiliary, base1, length1);
+            int cursor1 = base1;
+            int cursor2 = base2;
+            int destination = base1;
+
+            array[destination++] = array[cursor2++];
+            if (--length2 == 0) {
+                System.arraycopy(auxiliary, cursor1, array, destination, length1);
+                return;
+            }
+            if (length1 == 1) {
+                System.arraycopy(array, cursor2, array, destination, length2);
+                array[destination + length2] = auxiliary[cursor1];
+                return;
+            }
+
+            int minGallop = this.minGallop;
+            outer:
+            while (true) {
+                // The number of times in a row that each run has won.
+                int count1 = 0;
+                int count2 = 0;
+
+                // Merge one item at a time until one run starts winning consistently.
+                do {
+                    if (isLessThan(array[cursor2], auxiliary[cursor1])) {
+                        array[destination++] = array[cursor2++];
+                        ++count2;
+                        count1 = 0;
+                        if (--length2 == 0) break outer;
+                    } else {
+                        array[destination++] = auxiliary[cursor1++];
+                        ++count1;
+                        count2 = 0;
+                        if (--length1 == 1) break outer;
+                    }
+                } while ((count1 | count2) < minGallop);
+
+                // Gallop until neither run wins by a long streak.
+                do {
+                    count1 = gallopRight(array[cursor2], auxiliary, cursor1, length1, 0);
+                    if (count1 != 0) {
+                        System.arraycopy(auxiliary, cursor1, array, destination, count1);
+                        destination += count1;
+                        cursor1 += count1;
+                        length1 -= count1;
+                        if (length1 <= 1) break outer;
+                    }
+                    array[destination++] = array[cursor2++];
+                    if (--length2 == 0) break outer;
+
+                    count2 = gallopLeft(auxiliary[cursor1], array, cursor2, length2, 0);
+                    if (count2 != 0) {
+                        System.arraycopy(array, cursor2, array, destination, count2);
+                        destination += count2;
+                        cursor2 += count2;
+                        length2 -= count2;
+                        if (length2 == 0) break outer;
+                    }
+                    array[destination++] = auxiliary[cursor1++];
+                    if (--length1 == 1) break outer;
+                    --minGallop;
+                } while (count1 >= MIN_GALLOP || count2 >= MIN_GALLOP);
+                if (minGallop < 0) minGallop = 0;
+                // Make it harder to start galloping again.
+                minGallop += 2;
+            }
+            this.minGallop = Math.max(minGallop, 1);
+
+            if (length1 == 1) {
+                // The last item of the first run goes after the rest of the second run.
+                System.arraycopy(array, cursor2, array, destination, length2);
+                array[destination + length2] = auxiliary[cursor1];
+            } else if (length1 == 0) {
+                throw new IllegalArgumentException("compareTo is not a total order.");
+            } else {
+                System.arraycopy(auxiliary, cursor1, array, destination, length1);
+            }
+        }
+    }
 }
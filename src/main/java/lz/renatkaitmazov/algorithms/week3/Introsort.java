@@ -0,0 +1,201 @@
+package lz.renatkaitmazov.algorithms.week3;
+
+import lz.renatkaitmazov.algorithms.week2.sort.Insertion;
+import lz.renatkaitmazov.algorithms.week4.HeapSort;
+
+import static lz.renatkaitmazov.algorithms.week2.sort.SortUtil.swap;
+import static lz.renatkaitmazov.algorithms.week2.sort.SortUtil.isLessThan;
+import static lz.renatkaitmazov.algorithms.week3.Quick.median;
+import static lz.renatkaitmazov.algorithms.week3.Quick.ninther;
+import static lz.renatkaitmazov.algorithms.week3.Quick.partitionAroundStart;
+
+/**
+ * An implementation of the introspective sort algorithm.
+ * It is the quick sort algorithm that keeps track of the depth of its recursion.
+ * Once the depth exceeds 2*logN, the pivots have been bad too many times in a row,
+ * so the subarray is sorted using the heap sort instead. Therefore, it takes O(N*logN) steps
+ * to sort an array in the worst case scenario and is as fast as the quick sort on average.
+ * <p>
+ * Comes with two ways of partitioning:
+ * <ul>
+ * <li>{@link #sort(Comparable[])} partitions around a single pivot like {@link Quick} does,
+ * but takes the pivot of a large subarray as Tukey's ninther (the median of the medians
+ * of three samples of three items), which is closer to the true median than
+ * the median of three items.</li>
+ * <li>{@link #sortDualPivot(Comparable[])} partitions around two pivots as proposed
+ * by Yaroslavskiy, into items less than the first pivot, items between the pivots and
+ * items greater than the second pivot. The pivots are the second and the fourth of
+ * five sorted sample items. This way takes fewer comparisons on average, and
+ * the subarray between the pivots is skipped when the pivots are equal, which
+ * handles lots of duplicate keys well.</li>
+ * </ul>
+ * Not stable.
+ *
+ * @author Renat Kaitmazov
+ */
+
+public final class Introsort {
+
+    /*--------------------------------------------------------*/
+    /* Constants
+    /*--------------------------------------------------------*/
+
+    /**
+     * The amount of elements in a subarray that should be sorted using
+     * the insertion sort.
+     */
+
+    private static final int THRESHOLD = 7;
+
+    /**
+     * The amount of elements in a subarray starting from which
+     * the pivot is chosen as the ninther rather than the median of three.
+     */
+
+    private static final int NINTHER_THRESHOLD = 40;
+
+    /*--------------------------------------------------------*/
+    /* Constructors
+    /*--------------------------------------------------------*/
+
+    private Introsort() {
+    }
+
+    /*--------------------------------------------------------*/
+    /* API
+    /*--------------------------------------------------------*/
+
+    public static <T extends Comparable<T>> void sort(final T[] array) {
+        if (array == null) {
+            return;
+        }
+        sort(array, 0, array.length - 1, depthLimit(array.length));
+    }
+
+    public static <T extends Comparable<T>> void sortDualPivot(final T[] array) {
+        if (array == null) {
+            return;
+        }
+        sortDualPivot(array, 0, array.length - 1, depthLimit(array.length));
+    }
+
+    /*--------------------------------------------------------*/
+    /* Single pivot
+    /*--------------------------------------------------------*/
+
+    private static <T extends Comparable<T>> void sort(final T[] array, int start, int end, int depth) {
+        final int size = end - start + 1;
+        if (size <= THRESHOLD) {
+            Insertion.sort(array, start, end);
+            return;
+        }
+        if (depth == 0) {
+            // The pivots keep being bad, give up on partitioning.
+            HeapSort.sort(array, start, end);
+            return;
+        }
+
+        final int middle = start + ((end - start) >> 1);
+        if (size < NINTHER_THRESHOLD) {
+            median(array, start, middle, end);
+        } else {
+            ninther(array, start, middle, end);
+        }
+        swap(array, start, middle);
+        final int partition = partitionAroundStart(array, start, end);
+        sort(array, start, partition - 1, depth - 1);
+        sort(array, partition + 1, end, depth - 1);
+    }
+
+    /*--------------------------------------------------------*/
+    /* Dual pivot
+    /*--------------------------------------------------------*/
+
+    private static <T extends Comparable<T>> void sortDualPivot(final T[] array, int start, int end, int depth) {
+        final int size = end - start + 1;
+        if (size <= THRESHOLD) {
+            Insertion.sort(array, start, end);
+            return;
+        }
+        if (depth == 0) {
+            HeapSort.sort(array, start, end);
+            return;
+        }
+
+        // Five evenly spaced sample items, sorted in place.
+        // About a seventh of the size, at least 1 since the size is at least 8.
+        final int step = (size >> 3) + (size >> 6);
+        final int e3 = start + ((end - start) >> 1);
+        final int e2 = e3 - step;
+        final int e1 = e2 - step;
+        final int e4 = e3 + step;
+        final int e5 = e4 + step;
+        sortSamples(array, e1, e2, e3, e4, e5);
+
+        // The pivots go to the ends of the subarray, so that first <= second.
+        swap(array, start, e2);
+        swap(array, end, e4);
+        final T first = array[start];
+        final T second = array[end];
+
+        int less = start + 1; // Items smaller than the first pivot are behind this index.
+        int greater = end - 1; // Items greater than the second pivot are after this index.
+        /*  less                                greater */
+        /* [< first | first <= && <= second | ? | > second] */
+
+        for (int k = less; k <= greater; ++k) {
+            final T current = array[k];
+            if (isLessThan(current, first)) {
+                swap(array, k, less++);
+            } else if (isLessThan(second, current)) {
+                // Skip the items at the end that are already in the right part.
+                while (k < greater && isLessThan(second, array[greater])) --greater;
+                swap(array, k, greater--);
+                if (isLessThan(array[k], first)) swap(array, k, less++);
+            }
+        }
+
+        // Put the pivots into the right places.
+        swap(array, start, --less);
+        swap(array, end, ++greater);
+
+        sortDualPivot(array, start, less - 1, depth - 1);
+        // If the pivots are equal, all the items between them are equal to them as well.
+        if (isLessThan(first, second)) {
+            sortDualPivot(array, less + 1, greater - 1, depth - 1);
+        }
+        sortDualPivot(array, greater + 1, end, depth - 1);
+    }
+
+    /**
+     * Sorts the items at five indices with a sorting network of nine comparisons.
+     */
+
+    private static <T extends Comparable<T>> void sortSamples(final T[] array, int e1, int e2, int e3, int e4, int e5) {
+        compareAndSwap(array, e1, e2);
+        compareAndSwap(array, e4, e5);
+        compareAndSwap(array, e3, e5);
+        compareAndSwap(array, e3, e4);
+        compareAndSwap(array, e1, e4);
+        compareAndSwap(array, e1, e3);
+        compareAndSwap(array, e2, e5);
+        compareAndSwap(array, e2, e4);
+        compareAndSwap(array, e2, e3);
+    }
+
+    private static <T extends Comparable<T>> void compareAndSwap(final T[] array, int i, int j) {
+        if (isLessThan(array[j], array[i])) swap(array, i, j);
+    }
+
+    /*--------------------------------------------------------*/
+    /* Helper
+    /*--------------------------------------------------------*/
+
+    /**
+     * @return 2 * floor(log2(size)), the recursion depth after which the heap sort takes over.
+     */
+
+    private static int depthLimit(int size) {
+        return size == 0 ? 0 : (31 - Integer.numberOfLeadingZeros(size)) << 1;
+    }
+}
@@ -36,10 +36,10 @@ public final class Merge {
         sort(array, auxiliary, 0, size - 1);
     }
 
-    private static <T extends Comparable<T>> void sort(final T[] array,
-                                                       final T[] auxiliary,
-                                                       int startIndex,
-                                                       int endIndex) {
+    static <T extends Comparable<T>> void sort(final T[] array,
+                                               final T[] auxiliary,
+                                               int startIndex,
+                                               int endIndex) {
         if ((endIndex - startIndex + 1) <= THRESHOLD) {
             // It is more efficient to sort small subarrays using the insertion sort.
             // Reduces the amount of recursive calls.
@@ -85,4 +85,106 @@ public final class Merge {
             else array[k] = auxiliary[i++];
         }
     }
+
+    public static void sort(final int[] array) {
+        if (array == null) {
+            return;
+        }
+        final int size = array.length;
+        final int[] auxiliary = new int[size];
+        sort(array, auxiliary, 0, size - 1);
+    }
+
+    private static void sort(final int[] array, final int[] auxiliary, int startIndex, int endIndex) {
+        if ((endIndex - startIndex + 1) <= THRESHOLD) {
+            Insertion.sort(array, startIndex, endIndex);
+            return;
+        }
+        final int middleIndex = startIndex + ((endIndex - startIndex) >> 1);
+        sort(array, auxiliary, startIndex, middleIndex);
+        sort(array, auxiliary, middleIndex + 1, endIndex);
+        if (!isLessThan(array[middleIndex + 1], array[middleIndex])) {
+            return;
+        }
+        merge(array, auxiliary, startIndex, middleIndex, endIndex);
+    }
+
+    static void merge(final int[] array, final int[] auxiliary, int startIndex, int middleIndex, int endIndex) {
+        final int size = (endIndex - startIndex) + 1;
+        System.arraycopy(array, startIndex, auxiliary, startIndex, size);
+        for (int k = startIndex, i = startIndex, j = middleIndex + 1; k <= endIndex; ++k) {
+            if      (i > middleIndex) array[k] = auxiliary[j++];
+            else if (j > endIndex) array[k] = auxiliary[i++];
+            else if (isLessThan(auxiliary[j], auxiliary[i])) array[k] = auxiliary[j++];
+            else array[k] = auxiliary[i++];
+        }
+    }
+
+    public static void sort(final long[] array) {
+        if (array == null) {
+            return;
+        }
+        final int size = array.length;
+        final long[] auxiliary = new long[size];
+        sort(array, auxiliary, 0, size - 1);
+    }
+
+    private static void sort(final long[] array, final long[] auxiliary, int startIndex, int endIndex) {
+        if ((endIndex - startIndex + 1) <= THRESHOLD) {
+            Insertion.sort(array, startIndex, endIndex);
+            return;
+        }
+        final int middleIndex = startIndex + ((endIndex - startIndex) >> 1);
+        sort(array, auxiliary, startIndex, middleIndex);
+        sort(array, auxiliary, middleIndex + 1, endIndex);
+        if (!isLessThan(array[middleIndex + 1], array[middleIndex])) {
+            return;
+        }
+        merge(array, auxiliary, startIndex, middleIndex, endIndex);
+    }
+
+    static void merge(final long[] array, final long[] auxiliary, int startIndex, int middleIndex, int endIndex) {
+        final int size = (endIndex - startIndex) + 1;
+        System.arraycopy(array, startIndex, auxiliary, startIndex, size);
+        for (int k = startIndex, i = startIndex, j = middleIndex + 1; k <= endIndex; ++k) {
+            if      (i > middleIndex) array[k] = auxiliary[j++];
+            else if (j > endIndex) array[k] = auxiliary[i++];
+            else if (isLessThan(auxiliary[j], auxiliary[i])) array[k] = auxiliary[j++];
+            else array[k] = auxiliary[i++];
+        }
+    }
+
+    public static void sort(final double[] array) {
+        if (array == null) {
+            return;
+        }
+        final int size = array.length;
+        final double[] auxiliary = new double[size];
+        sort(array, auxiliary, 0, size - 1);
+    }
+
+    private static void sort(final double[] array, final double[] auxiliary, int startIndex, int endIndex) {
+        if ((endIndex - startIndex + 1) <= THRESHOLD) {
+            Insertion.sort(array, startIndex, endIndex);
+            return;
+        }
+        final int middleIndex = startIndex + ((endIndex - startIndex) >> 1);
+        sort(array, auxiliary, startIndex, middleIndex);
+        sort(array, auxiliary, middleIndex + 1, endIndex);
+        if (!isLessThan(array[middleIndex + 1], array[middleIndex])) {
+            return;
+        }
+        merge(array, auxiliary, startIndex, middleIndex, endIndex);
+    }
+
+    static void merge(final double[] array, final double[] auxiliary, int startIndex, int middleIndex, int endIndex) {
+        final int size = (endIndex - startIndex) + 1;
+        System.arraycopy(array, startIndex, auxiliary, startIndex, size);
+        for (int k = startIndex, i = startIndex, j = middleIndex + 1; k <= endIndex; ++k) {
+            if      (i > middleIndex) array[k] = auxiliary[j++];
+            else if (j > endIndex) array[k] = auxiliary[i++];
+            else if (isLessThan(auxiliary[j], auxiliary[i])) array[k] = auxiliary[j++];
+            else array[k] = auxiliary[i++];
+        }
+    }
 }
@@ -0,0 +1,235 @@
+package lz.renatkaitmazov.algorithms.week3;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import static lz.renatkaitmazov.algorithms.week2.sort.SortUtil.isLessThan;
+import static lz.renatkaitmazov.algorithms.week3.Merge.merge;
+
+/**
+ * A parallel version of the merge sort algorithm built on the fork/join framework.
+ * The two halves of an array are sorted in parallel, subarrays small enough are sorted
+ * by {@link Merge} itself (with its insertion sort cutoff and the check for halves that are
+ * already in order).
+ * <p>
+ * Merging two large halves is also done in parallel, otherwise the last merge alone
+ * would take O(N) steps on a single thread. The middle item of the longer run is looked up
+ * in the other run by binary search, which splits both runs into two pairs of runs that can
+ * be merged independently into their own parts of the array.
+ * Takes O(N*logN) steps, and O(log^3 N) of them on the longest chain of dependent tasks.
+ * Stable.
+ * Uses an auxiliary array of size N to sort the array.
+ *
+ * @author Renat Kaitmazov
+ */
+
+public final class ParallelMerge {
+
+    /*--------------------------------------------------------*/
+    /* Constants
+    /*--------------------------------------------------------*/
+
+    /**
+     * Subarrays of at most this size are sorted sequentially,
+     * splitting them further costs more than it gains.
+     */
+
+    private static final int SORT_THRESHOLD = 1 << 13;
+
+    /**
+     * Pairs of runs of at most this total size are merged sequentially.
+     * Larger than {@link #SORT_THRESHOLD}, so the halves of the smallest
+     * subarrays that are split are merged by {@link Merge} itself.
+     */
+
+    private static final int MERGE_THRESHOLD = 1 << 16;
+
+    /*--------------------------------------------------------*/
+    /* Constructors
+    /*--------------------------------------------------------*/
+
+    private ParallelMerge() {
+    }
+
+    /*--------------------------------------------------------*/
+    /* API
+    /*--------------------------------------------------------*/
+
+    public static <T extends Comparable<T>> void sort(final T[] array) {
+        sort(array, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Sorts the array using the threads of the given pool.
+     *
+     * @param array to be sorted.
+     * @param pool  to run the tasks in.
+     */
+
+    public static <T extends Comparable<T>> void sort(final T[] array, final ForkJoinPool pool) {
+        if (array == null) {
+            return;
+        }
+        final int size = array.length;
+        @SuppressWarnings("unchecked")
+        final T[] auxiliary = (T[]) new Comparable[size];
+        if (size <= SORT_THRESHOLD) {
+            Merge.sort(array, auxiliary, 0, size - 1);
+            return;
+        }
+        pool.invoke(new SortTask<>(array, auxiliary, 0, size - 1));
+    }
+
+    /*--------------------------------------------------------*/
+    /* Tasks
+    /*--------------------------------------------------------*/
+
+    /**
+     * Sorts the subarray [startIndex, endIndex].
+     */
+
+    @SuppressWarnings("serial")
+    private static final class SortTask<T extends Comparable<T>> extends RecursiveAction {
+        private final T[] array;
+        private final T[] auxiliary;
+        private final int startIndex;
+        private final int endIndex;
+
+        SortTask(T[] array, T[] auxiliary, int startIndex, int endIndex) {
+            this.array = array;
+            this.auxiliary = auxiliary;
+            this.startIndex = startIndex;
+            this.endIndex = endIndex;
+        }
+
+        @Override
+        protected void compute() {
+            final int size = endIndex - startIndex + 1;
+            if (size <= SORT_THRESHOLD) {
+                Merge.sort(array, auxiliary, startIndex, endIndex);
+                return;
+            }
+            final int middleIndex = startIndex + ((endIndex - startIndex) >> 1);
+            invokeAll(new SortTask<>(array, auxiliary, startIndex, middleIndex),
+                      new SortTask<>(array, auxiliary, middleIndex + 1, endIndex));
+
+            // The halves are already in order.
+            if (!isLessThan(array[middleIndex + 1], array[middleIndex])) {
+                return;
+            }
+            if (size <= MERGE_THRESHOLD) {
+                merge(array, auxiliary, startIndex, middleIndex, endIndex);
+                return;
+            }
+            System.arraycopy(array, startIndex, auxiliary, startIndex, size);
+            new MergeTask<>(auxiliary, array,
+                            startIndex, middleIndex + 1,
+                            middleIndex + 1, endIndex + 1,
+                            startIndex).compute();
+        }
+    }
+
+    /**
+     * Merges the runs [leftStart, leftEnd) and [rightStart, rightEnd) of the source array
+     * into the destination array starting from destinationIndex.
+     * Items of the left run go first when equal, which keeps the sort stable.
+     */
+
+    @SuppressWarnings("serial")
+    private static final class MergeTask<T extends Comparable<T>> extends RecursiveAction {
+        private final T[] source;
+        private final T[] destination;
+        private final int leftStart;
+        private final int leftEnd;
+        private final int rightStart;
+        private final int rightEnd;
+        private final int destinationIndex;
+
+        MergeTask(T[] source, T[] destination,
+                  int leftStart, int leftEnd,
+                  int rightStart, int rightEnd,
+                  int destinationIndex) {
+            this.source = source;
+            this.destination = destination;
+            this.leftStart = leftStart;
+            this.leftEnd = leftEnd;
+            this.rightStart = rightStart;
+            this.rightEnd = rightEnd;
+            this.destinationIndex = destinationIndex;
+        }
+
+        @Override
+        protected void compute() {
+            final int leftSize = leftEnd - leftStart;
+            final int rightSize = rightEnd - rightStart;
+            if (leftSize + rightSize <= MERGE_THRESHOLD) {
+                mergeRuns();
+                return;
+            }
+            // Split the longer run in the middle, and the other one where its middle item would go.
+            final int leftSplit;
+            final int rightSplit;
+            if (leftSize >= rightSize) {
+                leftSplit = leftStart + (leftSize >> 1);
+                // Equal items of the right run go after the middle item of the left one.
+                rightSplit = lowerBound(source, rightStart, rightEnd, source[leftSplit]);
+            } else {
+                rightSplit = rightStart + (rightSize >> 1);
+                // Equal items of the left run go before the middle item of the right one.
+                leftSplit = upperBound(source, leftStart, leftEnd, source[rightSplit]);
+            }
+            final int splitDestinationIndex = destinationIndex + (leftSplit - leftStart) + (rightSplit - rightStart);
+            invokeAll(new MergeTask<>(source, destination,
+                                      leftStart, leftSplit,
+                                      rightStart, rightSplit,
+                                      destinationIndex),
+                      new MergeTask<>(source, destination,
+                                      leftSplit, leftEnd,
+                                      rightSplit, rightEnd,
+                                      splitDestinationIndex));
+        }
+
+        private void mergeRuns() {
+            int i = leftStart;
+            int j = rightStart;
+            int k = destinationIndex;
+            while (i < leftEnd && j < rightEnd) {
+                if (isLessThan(source[j], source[i])) destination[k++] = source[j++];
+                else destination[k++] = source[i++];
+            }
+            // One of the runs is exhausted, copy the rest of the other one.
+            System.arraycopy(source, i, destination, k, leftEnd - i);
+            System.arraycopy(source, j, destination, k + (leftEnd - i), rightEnd - j);
+        }
+    }
+
+    /*--------------------------------------------------------*/
+    /* Helper
+    /*--------------------------------------------------------*/
+
+    /**
+     * @return the index of the first item in [start, end) that is not less than the key.
+     */
+
+    private static <T extends Comparable<T>> int lowerBound(T[] array, int start, int end, T key) {
+        while (start < end) {
+            final int middle = start + ((end - start) >> 1);
+            if (isLessThan(array[middle], key)) start = middle + 1;
+            else end = middle;
+        }
+        return start;
+    }
+
+    /**
+     * @return the index of the first item in [start, end) that is greater than the key.
+     */
+
+    private static <T extends Comparable<T>> int upperBound(T[] array, int start, int end, T key) {
+        while (start < end) {
+            final int middle = start + ((end - start) >> 1);
+            if (isLessThan(key, array[middle])) end = middle;
+            else start = middle + 1;
+        }
+        return start;
+    }
+}
@@ -0,0 +1,450 @@
+package lz.renatkaitmazov.algorithms.week3;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static lz.renatkaitmazov.algorithms.week2.sort.SortUtil.swap;
+import static lz.renatkaitmazov.algorithms.week2.sort.SortUtil.isLessThan;
+
+/**
+ * A parallel version of the 3-way quick sort algorithm built on the fork/join framework.
+ * A subarray is partitioned into items less than, equal to and greater than a pivot,
+ * and the parts of the less and greater items are sorted in parallel. Subarrays small enough
+ * are sorted by {@link Quick3Way} itself. Like its sequential version, it is fastest
+ * when there are lots of duplicate keys: every partition takes all the copies
+ * of the pivot out of the further work.
+ * <p>
+ * Partitioning the whole array on a single thread would take O(N) steps before any other
+ * thread gets work, so large subarrays are partitioned in parallel as well. The subarray is
+ * split into blocks that are partitioned independently, the sizes of their parts give
+ * every part of every block its place in the result, and the parts are then copied
+ * to their places through an auxiliary array, all blocks at the same time.
+ * Not stable.
+ *
+ * @author Renat Kaitmazov
+ */
+
+public final class ParallelQuick3Way {
+
+    /*--------------------------------------------------------*/
+    /* Constants
+    /*--------------------------------------------------------*/
+
+    /**
+     * Subarrays of at most this size are sorted sequentially.
+     */
+
+    private static final int SORT_THRESHOLD = 1 << 13;
+
+    /**
+     * Subarrays of at least this size are partitioned in parallel.
+     */
+
+    private static final int PARTITION_THRESHOLD = 1 << 17;
+
+    /**
+     * The minimum number of items in a block of a parallel partition.
+     */
+
+    private static final int MIN_BLOCK_SIZE = 1 << 14;
+
+    /*--------------------------------------------------------*/
+    /* Constructors
+    /*--------------------------------------------------------*/
+
+    private ParallelQuick3Way() {
+    }
+
+    /*--------------------------------------------------------*/
+    /* API
+    /*--------------------------------------------------------*/
+
+    public static <T extends Comparable<T>> void sort(final T[] array) {
+        sort(array, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Sorts the array using the threads of the given pool.
+     *
+     * @param array to be sorted.
+     * @param pool  to run the tasks in.
+     */
+
+    public static <T extends Comparable<T>> void sort(final T[] array, final ForkJoinPool pool) {
+        if (array == null) {
+            return;
+        }
+        final int size = array.length;
+        if (size <= SORT_THRESHOLD) {
+            Quick3Way.sort(array, 0, size - 1);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        final T[] auxiliary = size >= PARTITION_THRESHOLD ? (T[]) new Comparable[size] : null;
+        pool.invoke(new SortTask<>(array, auxiliary, 0, size - 1, pool.getParallelism()));
+    }
+
+    public static void sort(final int[] array) {
+        sort(array, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Sorts the array using the threads of the given pool.
+     *
+     * @param array to be sorted.
+     * @param pool  to run the tasks in.
+     */
+
+    public static void sort(final int[] array, final ForkJoinPool pool) {
+        if (array == null) {
+            return;
+        }
+        final int size = array.length;
+        if (size <= SORT_THRESHOLD) {
+            Quick3Way.sort(array, 0, size - 1);
+            return;
+        }
+        final int[] auxiliary = size >= PARTITION_THRESHOLD ? new int[size] : null;
+        pool.invoke(new IntSortTask(array, auxiliary, 0, size - 1, pool.getParallelism()));
+    }
+
+    /*--------------------------------------------------------*/
+    /* Generic arrays
+    /*--------------------------------------------------------*/
+
+    /**
+     * Sorts the subarray [start, end].
+     */
+
+    @SuppressWarnings("serial")
+    private static final class SortTask<T extends Comparable<T>> extends RecursiveAction {
+        private final T[] array;
+        private final T[] auxiliary;
+        private final int start;
+        private final int end;
+        private final int parallelism;
+
+        SortTask(T[] array, T[] auxiliary, int start, int end, int parallelism) {
+            this.array = array;
+            this.auxiliary = auxiliary;
+            this.start = start;
+            this.end = end;
+            this.parallelism = parallelism;
+        }
+
+        @Override
+        protected void compute() {
+            final int size = end - start + 1;
+            if (size <= SORT_THRESHOLD) {
+                Quick3Way.sort(array, start, end);
+                return;
+            }
+
+            final T pivot = pivot(array, start, end);
+
+            // [less, greater] is the part of the items equal to the pivot.
+            final int[] equal = size >= PARTITION_THRESHOLD
+                    ? parallelPartition(array, auxiliary, start, end, pivot, parallelism)
+                    : partition(array, start, end, pivot);
+            invokeAll(new SortTask<>(array, auxiliary, start, equal[0] - 1, parallelism),
+                      new SortTask<>(array, auxiliary, equal[1] + 1, end, parallelism));
+        }
+    }
+
+    /**
+     * Returns Tukey's ninther of nine items, one taken at a random offset from each of nine
+     * equal segments of [start, end]. Samples at a fixed stride would hit equal keys of a periodic
+     * input on every level and give an extreme pivot each time.
+     */
+
+    private static <T extends Comparable<T>> T pivot(final T[] array, int start, int end) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final int step = (end - start + 1) / 9;
+        return median(median(array[sample(random, start, step, 0)],
+                             array[sample(random, start, step, 1)],
+                             array[sample(random, start, step, 2)]),
+                      median(array[sample(random, start, step, 3)],
+                             array[sample(random, start, step, 4)],
+                             array[sample(random, start, step, 5)]),
+                      median(array[sample(random, start, step, 6)],
+                             array[sample(random, start, step, 7)],
+                             array[sample(random, start, step, 8)]));
+    }
+
+    private static <T extends Comparable<T>> T median(T first, T second, T third) {
+        if (isLessThan(second, first)) {
+            final T temp = first;
+            first = second;
+            second = temp;
+        }
+        if (isLessThan(third, second)) return isLessThan(third, first) ? first : third;
+        return second;
+    }
+
+    /**
+     * Partitions [start, end] into items less than, equal to and greater than the pivot.
+     *
+     * @return the first and the last index of the items equal to the pivot.
+     */
+
+    private static <T extends Comparable<T>> int[] partition(final T[] array, int start, int end, final T pivot) {
+        int less = start;
+        int equal = start;
+        int greater = end;
+        while (equal <= greater) {
+            final T current = array[equal];
+            if      (isLessThan(current, pivot)) swap(array, equal++, less++);
+            else if (isLessThan(pivot, current)) swap(array, equal, greater--);
+            else ++equal;
+        }
+        return new int[]{less, greater};
+    }
+
+    private static <T extends Comparable<T>> int[] parallelPartition(final T[] array,
+                                                                     final T[] auxiliary,
+                                                                     int start,
+                                                                     int end,
+                                                                     final T pivot,
+                                                                     int parallelism) {
+        final int size = end - start + 1;
+        final int blocks = Math.max(1, Math.min(parallelism, size / MIN_BLOCK_SIZE));
+        final int[] bounds = blockBounds(start, size, blocks);
+        final int[][] parts = new int[blocks][];
+
+        // Partition every block on its own.
+        final List<ForkJoinTask<?>> tasks = new ArrayList<>(blocks);
+        for (int b = 0; b < blocks; ++b) {
+            final int block = b;
+            tasks.add(ForkJoinTask.adapt(
+                    () -> parts[block] = partition(array, bounds[block], bounds[block + 1] - 1, pivot)));
+        }
+        ForkJoinTask.invokeAll(tasks);
+
+        // Copy the parts of every block to their places in the auxiliary array.
+        final int[][] destinations = destinations(bounds, parts, start);
+        tasks.clear();
+        for (int b = 0; b < blocks; ++b) {
+            final int block = b;
+            tasks.add(ForkJoinTask.adapt(() -> {
+                final int blockStart = bounds[block];
+                final int less = parts[block][0];
+                final int greater = parts[block][1];
+                final int blockEnd = bounds[block + 1];
+                final int[] destination = destinations[block];
+                System.arraycopy(array, blockStart, auxiliary, destination[0], less - blockStart);
+                System.arraycopy(array, less, auxiliary, destination[1], greater + 1 - less);
+                System.arraycopy(array, greater + 1, auxiliary, destination[2], blockEnd - (greater + 1));
+            }));
+        }
+        ForkJoinTask.invokeAll(tasks);
+
+        // Copy the partitioned items back.
+        tasks.clear();
+        for (int b = 0; b < blocks; ++b) {
+            final int block = b;
+            tasks.add(ForkJoinTask.adapt(() -> System.arraycopy(auxiliary, bounds[block], array, bounds[block],
+                                                                bounds[block + 1] - bounds[block])));
+        }
+        ForkJoinTask.invokeAll(tasks);
+
+        return equalRange(destinations, parts);
+    }
+
+    /*--------------------------------------------------------*/
+    /* Primitive arrays
+    /*--------------------------------------------------------*/
+
+    /**
+     * Sorts the subarray [start, end].
+     */
+
+    @SuppressWarnings("serial")
+    private static final class IntSortTask extends RecursiveAction {
+        private final int[] array;
+        private final int[] auxiliary;
+        private final int start;
+        private final int end;
+        private final int parallelism;
+
+        IntSortTask(int[] array, int[] auxiliary, int start, int end, int parallelism) {
+            this.array = array;
+            this.auxiliary = auxiliary;
+            this.start = start;
+            this.end = end;
+            this.parallelism = parallelism;
+        }
+
+        @Override
+        protected void compute() {
+            final int size = end - start + 1;
+            if (size <= SORT_THRESHOLD) {
+                Quick3Way.sort(array, start, end);
+                return;
+            }
+
+            final int pivot = pivot(array, start, end);
+
+            final int[] equal = size >= PARTITION_THRESHOLD
+                    ? parallelPartition(array, auxiliary, start, end, pivot, parallelism)
+                    : partition(array, start, end, pivot);
+            invokeAll(new IntSortTask(array, auxiliary, start, equal[0] - 1, parallelism),
+                      new IntSortTask(array, auxiliary, equal[1] + 1, end, parallelism));
+        }
+    }
+
+    private static int pivot(final int[] array, int start, int end) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final int step = (end - start + 1) / 9;
+        return median(median(array[sample(random, start, step, 0)],
+                             array[sample(random, start, step, 1)],
+                             array[sample(random, start, step, 2)]),
+                      median(array[sample(random, start, step, 3)],
+                             array[sample(random, start, step, 4)],
+                             array[sample(random, start, step, 5)]),
+                      median(array[sample(random, start, step, 6)],
+                             array[sample(random, start, step, 7)],
+                             array[sample(random, start, step, 8)]));
+    }
+
+    private static int median(int first, int second, int third) {
+        if (second < first) {
+            final int temp = first;
+            first = second;
+            second = temp;
+        }
+        if (third < second) return third < first ? first : third;
+        return second;
+    }
+
+    private static int[] partition(final int[] array, int start, int end, final int pivot) {
+        int less = start;
+        int equal = start;
+        int greater = end;
+        while (equal <= greater) {
+            final int current = array[equal];
+            if      (current < pivot) swap(array, equal++, less++);
+            else if (pivot < current) swap(array, equal, greater--);
+            else ++equal;
+        }
+        return new int[]{less, greater};
+    }
+
+    private static int[] parallelPartition(final int[] array,
+                                           final int[] auxiliary,
+                                           int start,
+                                           int end,
+                                           final int pivot,
+                                           int parallelism) {
+        final int size = end - start + 1;
+        final int blocks = Math.max(1, Math.min(parallelism, size / MIN_BLOCK_SIZE));
+        final int[] bounds = blockBounds(start, size, blocks);
+        final int[][] parts = new int[blocks][];
+
+        final List<ForkJoinTask<?>> tasks = new ArrayList<>(blocks);
+        for (int b = 0; b < blocks; ++b) {
+            final int block = b;
+            tasks.add(ForkJoinTask.adapt(
+                    () -> parts[block] = partition(array, bounds[block], bounds[block + 1] - 1, pivot)));
+        }
+        ForkJoinTask.invokeAll(tasks);
+
+        final int[][] destinations = destinations(bounds, parts, start);
+        tasks.clear();
+        for (int b = 0; b < blocks; ++b) {
+            final int block = b;
+            tasks.add(ForkJoinTask.adapt(() -> {
+                final int blockStart = bounds[block];
+                final int less = parts[block][0];
+                final int greater = parts[block][1];
+                final int blockEnd = bounds[block + 1];
+                final int[] destination = destinations[block];
+                System.arraycopy(array, blockStart, auxiliary, destination[0], less - blockStart);
+                // The items equal to the pivot need not be copied.
+                Arrays.fill(auxiliary, destination[1], destination[1] + greater + 1 - less, pivot);
+                System.arraycopy(array, greater + 1, auxiliary, destination[2], blockEnd - (greater + 1));
+            }));
+        }
+        ForkJoinTask.invokeAll(tasks);
+
+        tasks.clear();
+        for (int b = 0; b < blocks; ++b) {
+            final int block = b;
+            tasks.add(ForkJoinTask.adapt(() -> System.arraycopy(auxiliary, bounds[block], array, bounds[block],
+                                                                bounds[block + 1] - bounds[block])));
+        }
+        ForkJoinTask.invokeAll(tasks);
+
+        return equalRange(destinations, parts);
+    }
+
+    /*--------------------------------------------------------*/
+    /* Helper
+    /*--------------------------------------------------------*/
+
+    /**
+     * @return a random index of the given segment of the subarray that starts at the given index.
+     */
+
+    private static int sample(ThreadLocalRandom random, int start, int step, int segment) {
+        return start + segment * step + random.nextInt(step);
+    }
+
+    /**
+     * Splits the subarray of the given size into blocks of nearly equal sizes.
+     *
+     * @return the start indices of the blocks followed by the index after the last block.
+     */
+
+    private static int[] blockBounds(int start, int size, int blocks) {
+        final int[] bounds = new int[blocks + 1];
+        for (int b = 0; b <= blocks; ++b) {
+            bounds[b] = start + (int) ((long) size * b / blocks);
+        }
+        return bounds;
+    }
+
+    /**
+     * Computes where the less, equal and greater parts of every block go: all the less parts
+     * come first in the order of the blocks, then all the equal parts, then all the greater parts.
+     *
+     * @return the destination indices of the three parts of every block.
+     */
+
+    private static int[][] destinations(int[] bounds, int[][] parts, int start) {
+        final int blocks = parts.length;
+        final int[][] destinations = new int[blocks][3];
+        int position = start;
+        for (int b = 0; b < blocks; ++b) {
+            destinations[b][0] = position;
+            position += parts[b][0] - bounds[b];
+        }
+        for (int b = 0; b < blocks; ++b) {
+            destinations[b][1] = position;
+            position += parts[b][1] + 1 - parts[b][0];
+        }
+        for (int b = 0; b < blocks; ++b) {
+            destinations[b][2] = position;
+            position += bounds[b + 1] - (parts[b][1] + 1);
+        }
+        return destinations;
+    }
+
+    /**
+     * @return the first and the last index of the items equal to the pivot after the parallel partition.
+     */
+
+    private static int[] equalRange(int[][] destinations, int[][] parts) {
+        final int blocks = parts.length;
+        int equalCount = 0;
+        for (int b = 0; b < blocks; ++b) {
+            equalCount += parts[b][1] + 1 - parts[b][0];
+        }
+        final int less = destinations[0][1];
+        return new int[]{less, less + equalCount - 1};
+    }
+}
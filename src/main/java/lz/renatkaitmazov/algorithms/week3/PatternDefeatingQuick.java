@@ -0,0 +1,1029 @@
+package lz.renatkaitmazov.algorithms.week3;
+
+import lz.renatkaitmazov.algorithms.week2.sort.Insertion;
+import lz.renatkaitmazov.algorithms.week4.HeapSort;
+
+import static lz.renatkaitmazov.algorithms.week2.sort.SortUtil.swap;
+import static lz.renatkaitmazov.algorithms.week2.sort.SortUtil.isLessThan;
+
+/**
+ * An implementation of Peters' pattern-defeating quick sort algorithm for primitive arrays.
+ * <p>
+ * It is the introspective sort algorithm with a few additions:
+ * <ul>
+ * <li>The partitioning is done in blocks. The offsets of the items that are on the wrong
+ * side of the pivot are recorded for a whole block first, by adding the result of each comparison
+ * to a counter instead of branching on it, and only then the recorded items are swapped.
+ * This way the outcome of a comparison never decides which instruction runs next, so random data
+ * does not cause branch mispredictions.</li>
+ * <li>If a partition did not have to move any items, the subarray may well be sorted already.
+ * Both parts are then checked with an insertion sort that gives up after a few moves, so
+ * sorted and almost sorted runs take O(N) steps.</li>
+ * <li>If the pivot was bad, a few items of both parts are swapped around, which breaks up
+ * the patterns that made it bad. Only after logN bad pivots the heap sort takes over.</li>
+ * <li>If the pivot is equal to the item preceding the subarray, which is the pivot
+ * of an earlier partition, the subarray has lots of duplicates of it. All of them are put on
+ * the left and skipped at once, so few distinct keys take O(N*K) steps for K keys.</li>
+ * </ul>
+ * Takes O(N*logN) steps in the worst case scenario.
+ * Doubles are ordered like {@link Double#compareTo(Double)} orders them.
+ * Not stable.
+ *
+ * @author Renat Kaitmazov
+ */
+
+public final class PatternDefeatingQuick {
+
+    /*--------------------------------------------------------*/
+    /* Constants
+    /*--------------------------------------------------------*/
+
+    /**
+     * The amount of elements in a subarray that should be sorted using
+     * the insertion sort. Larger than elsewhere since the block partitioning
+     * has a higher fixed cost.
+     */
+
+    private static final int THRESHOLD = 24;
+
+    /**
+     * The amount of elements in a subarray starting from which
+     * the pivot is chosen as Tukey's ninther rather than the median of three.
+     */
+
+    private static final int NINTHER_THRESHOLD = 128;
+
+    /**
+     * The number of items that an insertion sort checking for a sorted run
+     * may move before giving up.
+     */
+
+    private static final int PARTIAL_INSERTION_LIMIT = 8;
+
+    /**
+     * The number of items in a block, the offsets of a block fit into a couple of cache lines.
+     */
+
+    private static final int BLOCK_SIZE = 64;
+
+    /*--------------------------------------------------------*/
+    /* Constructors
+    /*--------------------------------------------------------*/
+
+    private PatternDefeatingQuick() {
+    }
+
+    /*--------------------------------------------------------*/
+    /* Int arrays
+    /*--------------------------------------------------------*/
+
+    public static void sort(final int[] array) {
+        if (array == null) {
+            return;
+        }
+        final int size = array.length;
+        sort(array, 0, size, log2(size), true, new int[BLOCK_SIZE << 1]);
+    }
+
+    /**
+     * Sorts the subarray [start, end). The leftmost subarray has no items before it;
+     * every other subarray is preceded by an item that is not greater than any of its items.
+     */
+
+    private static void sort(final int[] array, int start, int end, int badPivotsAllowed, boolean leftmost,
+                             final int[] offsets) {
+        while (true) {
+            final int size = end - start;
+            if (size <= THRESHOLD) {
+                Insertion.sort(array, start, end - 1);
+                return;
+            }
+
+            choosePivot(array, start, end);
+
+            // The pivot is equal to the preceding item, so there is no item less than the pivot.
+            // Put all the items equal to it on the left and only sort the items greater than it.
+            if (!leftmost && !isLessThan(array[start - 1], array[start])) {
+                start = partitionLeft(array, start, end) + 1;
+                continue;
+            }
+
+            final int result = partitionRight(array, start, end, offsets);
+            final boolean alreadyPartitioned = result < 0;
+            final int pivot = alreadyPartitioned ? ~result : result;
+            final int leftSize = pivot - start;
+            final int rightSize = end - (pivot + 1);
+
+            if (leftSize < (size >> 3) || rightSize < (size >> 3)) {
+                // The pivot was bad.
+                if (--badPivotsAllowed == 0) {
+                    HeapSort.sort(array, start, end - 1);
+                    return;
+                }
+                breakPatterns(array, start, pivot, end);
+            } else if (alreadyPartitioned
+                    && partialInsertionSort(array, start, pivot)
+                    && partialInsertionSort(array, pivot + 1, end)) {
+                // Both parts turned out to be sorted.
+                return;
+            }
+
+            // Sort the left part, then go on with the right part.
+            sort(array, start, pivot, badPivotsAllowed, leftmost, offsets);
+            start = pivot + 1;
+            leftmost = false;
+        }
+    }
+
+    /**
+     * Puts the pivot of the subarray [start, end) at the start.
+     * Guarantees that there is an item not less than the pivot after the start.
+     */
+
+    private static void choosePivot(final int[] array, int start, int end) {
+        final int size = end - start;
+        final int half = size >> 1;
+        if (size > NINTHER_THRESHOLD) {
+            sort3(array, start, start + half, end - 1);
+            sort3(array, start + 1, start + half - 1, end - 2);
+            sort3(array, start + 2, start + half + 1, end - 3);
+            sort3(array, start + half - 1, start + half, start + half + 1);
+            swap(array, start, start + half);
+        } else {
+            sort3(array, start + half, start, end - 1);
+        }
+    }
+
+    private static void sort3(final int[] array, int i, int j, int k) {
+        if (isLessThan(array[j], array[i])) swap(array, i, j);
+        if (isLessThan(array[k], array[j])) swap(array, j, k);
+        if (isLessThan(array[j], array[i])) swap(array, i, j);
+    }
+
+    /**
+     * Partitions the subarray [start, end) around its first item into items less than it and
+     * items not less than it, comparing and swapping in blocks.
+     *
+     * @return the index the pivot ends up at, or its bitwise complement
+     * if no items had to be moved.
+     */
+
+    private static int partitionRight(final int[] array, int start, int end, final int[] offsets) {
+        final int pivot = array[start];
+        int first = start;
+        int last = end;
+
+        // Find the first item not less than the pivot, one is guaranteed to exist.
+        while (isLessThan(array[++first], pivot));
+        // Find the last item less than the pivot. If there were none on the left,
+        // there may be none on the right either, so bound the search.
+        if (first - 1 == start) while (first < last && !isLessThan(array[--last], pivot));
+        else while (!isLessThan(array[--last], pivot));
+
+        final boolean alreadyPartitioned = first >= last;
+        if (!alreadyPartitioned) {
+            swap(array, first, last);
+            ++first;
+
+            // Offsets of the items in the left block that belong on the right,
+            // and of the items in the right block (counted back from the last index) that belong on the left.
+            final int leftOffsets = 0;
+            final int rightOffsets = BLOCK_SIZE;
+            int leftCount = 0;
+            int rightCount = 0;
+            int leftStart = 0;
+            int rightStart = 0;
+
+            while (last - first > (BLOCK_SIZE << 1)) {
+                if (leftCount == 0) {
+                    leftStart = 0;
+                    for (int i = 0; i < BLOCK_SIZE; ++i) {
+                        offsets[leftOffsets + leftCount] = i;
+                        leftCount += isLessThan(array[first + i], pivot) ? 0 : 1;
+                    }
+                }
+                if (rightCount == 0) {
+                    rightStart = 0;
+                    for (int i = 0; i < BLOCK_SIZE; ++i) {
+                        offsets[rightOffsets + rightCount] = i + 1;
+                        rightCount += isLessThan(array[last - (i + 1)], pivot) ? 1 : 0;
+                    }
+                }
+                final int count = Math.min(leftCount, rightCount);
+                swapOffsets(array, first, last, offsets, leftOffsets + leftStart, rightOffsets + rightStart,
+                            count, leftCount == rightCount);
+                leftCount -= count;
+                rightCount -= count;
+                leftStart += count;
+                rightStart += count;
+                if (leftCount == 0) first += BLOCK_SIZE;
+                if (rightCount == 0) last -= BLOCK_SIZE;
+            }
+
+            // Fewer than two blocks of unknown items are left, split them between the sides
+            // that have no pending offsets.
+            final int unknown = (last - first) - ((leftCount != 0 || rightCount != 0) ? BLOCK_SIZE : 0);
+            final int leftSize;
+            final int rightSize;
+            if (rightCount != 0) {
+                leftSize = unknown;
+                rightSize = BLOCK_SIZE;
+            } else if (leftCount != 0) {
+                leftSize = BLOCK_SIZE;
+                rightSize = unknown;
+            } else {
+                leftSize = unknown >> 1;
+                rightSize = unknown - leftSize;
+            }
+            if (unknown != 0 && leftCount == 0) {
+                leftStart = 0;
+                for (int i = 0; i < leftSize; ++i) {
+                    offsets[leftOffsets + leftCount] = i;
+                    leftCount += isLessThan(array[first + i], pivot) ? 0 : 1;
+                }
+            }
+            if (unknown != 0 && rightCount == 0) {
+                rightStart = 0;
+                for (int i = 0; i < rightSize; ++i) {
+                    offsets[rightOffsets + rightCount] = i + 1;
+                    rightCount += isLessThan(array[last - (i + 1)], pivot) ? 1 : 0;
+                }
+            }
+            final int count = Math.min(leftCount, rightCount);
+            swapOffsets(array, first, last, offsets, leftOffsets + leftStart, rightOffsets + rightStart,
+                        count, leftCount == rightCount);
+            leftCount -= count;
+            rightCount -= count;
+            leftStart += count;
+            rightStart += count;
+            if (leftCount == 0) first += leftSize;
+            if (rightCount == 0) last -= rightSize;
+
+            // One of the sides may still have misplaced items, move them to the boundary.
+            if (leftCount != 0) {
+                while (leftCount-- > 0) swap(array, first + offsets[leftOffsets + leftStart + leftCount], --last);
+                first = last;
+            }
+            if (rightCount != 0) {
+                while (rightCount-- > 0) swap(array, last - offsets[rightOffsets + rightStart + rightCount], first++);
+                last = first;
+            }
+        }
+
+        // Put the pivot into the right place.
+        final int pivotIndex = first - 1;
+        array[start] = array[pivotIndex];
+        array[pivotIndex] = pivot;
+        return alreadyPartitioned ? ~pivotIndex : pivotIndex;
+    }
+
+    /**
+     * Exchanges the recorded items of the left block with the recorded items of the right block.
+     * If the counts differ, the items are moved along a cycle instead, which takes
+     * fewer writes than swapping them in pairs.
+     */
+
+    private static void swapOffsets(final int[] array, int first, int last, final int[] offsets,
+                                    int leftIndex, int rightIndex, int count, boolean useSwaps) {
+        if (useSwaps) {
+            for (int i = 0; i < count; ++i) {
+                swap(array, first + offsets[leftIndex + i], last - offsets[rightIndex + i]);
+            }
+        } else if (count > 0) {
+            int left = first + offsets[leftIndex];
+            int right = last - offsets[rightIndex];
+            final int temp = array[left];
+            array[left] = array[right];
+            for (int i = 1; i < count; ++i) {
+                left = first + offsets[leftIndex + i];
+                array[right] = array[left];
+                right = last - offsets[rightIndex + i];
+                array[left] = array[right];
+            }
+            array[right] = temp;
+        }
+    }
+
+    /**
+     * Partitions the subarray [start, end) around its first item into items not greater than it
+     * and items greater than it. Used when the subarray has lots of items equal to the pivot.
+     *
+     * @return the index the pivot ends up at.
+     */
+
+    private static int partitionLeft(final int[] array, int start, int end) {
+        final int pivot = array[start];
+        int first = start;
+        int last = end;
+
+        while (isLessThan(pivot, array[--last]));
+        if (last + 1 == end) while (first < last && !isLessThan(pivot, array[++first]));
+        else while (!isLessThan(pivot, array[++first]));
+
+        while (first < last) {
+            swap(array, first, last);
+            while (isLessThan(pivot, array[--last]));
+            while (!isLessThan(pivot, array[++first]));
+        }
+
+        array[start] = array[last];
+        array[last] = pivot;
+        return last;
+    }
+
+    /**
+     * Sorts the subarray [start, end) with the insertion sort unless it has to move
+     * too many items.
+     *
+     * @return <code>true</code> if the subarray got sorted.
+     */
+
+    private static boolean partialInsertionSort(final int[] array, int start, int end) {
+        int moved = 0;
+        for (int i = start + 1; i < end; ++i) {
+            final int currentItem = array[i];
+            if (!isLessThan(currentItem, array[i - 1])) continue;
+            int j = i - 1;
+            while (j >= start && isLessThan(currentItem, array[j])) {
+                array[j + 1] = array[j];
+                --j;
+            }
+            array[j + 1] = currentItem;
+            moved += i - (j + 1);
+            if (moved > PARTIAL_INSERTION_LIMIT) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Swaps a few items of both parts around the pivot with items a quarter of the way in,
+     * so that the next pivots are chosen among different items.
+     */
+
+    private static void breakPatterns(final int[] array, int start, int pivot, int end) {
+        final int leftSize = pivot - start;
+        final int rightSize = end - (pivot + 1);
+        if (leftSize > THRESHOLD) {
+            final int quarter = leftSize >> 2;
+            swap(array, start, start + quarter);
+            swap(array, pivot - 1, pivot - quarter);
+            if (leftSize > NINTHER_THRESHOLD) {
+                swap(array, start + 1, start + quarter + 1);
+                swap(array, start + 2, start + quarter + 2);
+                swap(array, pivot - 2, pivot - quarter - 1);
+                swap(array, pivot - 3, pivot - quarter - 2);
+            }
+        }
+        if (rightSize > THRESHOLD) {
+            final int quarter = rightSize >> 2;
+            swap(array, pivot + 1, pivot + 1 + quarter);
+            swap(array, end - 1, end - quarter);
+            if (rightSize > NINTHER_THRESHOLD) {
+                swap(array, pivot + 2, pivot + 2 + quarter);
+                swap(array, pivot + 3, pivot + 3 + quarter);
+                swap(array, end - 2, end - quarter - 1);
+                swap(array, end - 3, end - quarter - 2);
+            }
+        }
+    }
+
+    /*--------------------------------------------------------*/
+    /* Long arrays
+    /*--------------------------------------------------------*/
+
+    public static void sort(final long[] array) {
+        if (array == null) {
+            return;
+        }
+        final int size = array.length;
+        sort(array, 0, size, log2(size), true, new int[BLOCK_SIZE << 1]);
+    }
+
+    /**
+     * Sorts the subarray [start, end). The leftmost subarray has no items before it;
+     * every other subarray is preceded by an item that is not greater than any of its items.
+     */
+
+    private static void sort(final long[] array, int start, int end, int badPivotsAllowed, boolean leftmost,
+                             final int[] offsets) {
+        while (true) {
+            final int size = end - start;
+            if (size <= THRESHOLD) {
+                Insertion.sort(array, start, end - 1);
+                return;
+            }
+
+            choosePivot(array, start, end);
+
+            // The pivot is equal to the preceding item, so there is no item less than the pivot.
+            // Put all the items equal to it on the left and only sort the items greater than it.
+            if (!leftmost && !isLessThan(array[start - 1], array[start])) {
+                start = partitionLeft(array, start, end) + 1;
+                continue;
+            }
+
+            final int result = partitionRight(array, start, end, offsets);
+            final boolean alreadyPartitioned = result < 0;
+            final int pivot = alreadyPartitioned ? ~result : result;
+            final int leftSize = pivot - start;
+            final int rightSize = end - (pivot + 1);
+
+            if (leftSize < (size >> 3) || rightSize < (size >> 3)) {
+                // The pivot was bad.
+                if (--badPivotsAllowed == 0) {
+                    HeapSort.sort(array, start, end - 1);
+                    return;
+                }
+                breakPatterns(array, start, pivot, end);
+            } else if (alreadyPartitioned
+                    && partialInsertionSort(array, start, pivot)
+                    && partialInsertionSort(array, pivot + 1, end)) {
+                // Both parts turned out to be sorted.
+                return;
+            }
+
+            // Sort the left part, then go on with the right part.
+            sort(array, start, pivot, badPivotsAllowed, leftmost, offsets);
+            start = pivot + 1;
+            leftmost = false;
+        }
+    }
+
+    /**
+     * Puts the pivot of the subarray [start, end) at the start.
+     * Guarantees that there is an item not less than the pivot after the start.
+     */
+
+    private static void choosePivot(final long[] array, int start, int end) {
+        final int size = end - start;
+        final int half = size >> 1;
+        if (size > NINTHER_THRESHOLD) {
+            sort3(array, start, start + half, end - 1);
+            sort3(array, start + 1, start + half - 1, end - 2);
+            sort3(array, start + 2, start + half + 1, end - 3);
+            sort3(array, start + half - 1, start + half, start + half + 1);
+            swap(array, start, start + half);
+        } else {
+            sort3(array, start + half, start, end - 1);
+        }
+    }
+
+    private static void sort3(final long[] array, int i, int j, int k) {
+        if (isLessThan(array[j], array[i])) swap(array, i, j);
+        if (isLessThan(array[k], array[j])) swap(array, j, k);
+        if (isLessThan(array[j], array[i])) swap(array, i, j);
+    }
+
+    /**
+     * Partitions the subarray [start, end) around its first item into items less than it and
+     * items not less than it, comparing and swapping in blocks.
+     *
+     * @return the index the pivot ends up at, or its bitwise complement
+     * if no items had to be moved.
+     */
+
+    private static int partitionRight(final long[] array, int start, int end, final int[] offsets) {
+        final long pivot = array[start];
+        int first = start;
+        int last = end;
+
+        // Find the first item not less than the pivot, one is guaranteed to exist.
+        while (isLessThan(array[++first], pivot));
+        // Find the last item less than the pivot. If there were none on the left,
+        // there may be none on the right either, so bound the search.
+        if (first - 1 == start) while (first < last && !isLessThan(array[--last], pivot));
+        else while (!isLessThan(array[--last], pivot));
+
+        final boolean alreadyPartitioned = first >= last;
+        if (!alreadyPartitioned) {
+            swap(array, first, last);
+            ++first;
+
+            // Offsets of the items in the left block that belong on the right,
+            // and of the items in the right block (counted back from the last index) that belong on the left.
+            final int leftOffsets = 0;
+            final int rightOffsets = BLOCK_SIZE;
+            int leftCount = 0;
+            int rightCount = 0;
+            int leftStart = 0;
+            int rightStart = 0;
+
+            while (last - first > (BLOCK_SIZE << 1)) {
+                if (leftCount == 0) {
+                    leftStart = 0;
+                    for (int i = 0; i < BLOCK_SIZE; ++i) {
+                        offsets[leftOffsets + leftCount] = i;
+                        leftCount += isLessThan(array[first + i], pivot) ? 0 : 1;
+                    }
+                }
+                if (rightCount == 0) {
+                    rightStart = 0;
+                    for (int i = 0; i < BLOCK_SIZE; ++i) {
+                        offsets[rightOffsets + rightCount] = i + 1;
+                        rightCount += isLessThan(array[last - (i + 1)], pivot) ? 1 : 0;
+                    }
+                }
+                final int count = Math.min(leftCount, rightCount);
+                swapOffsets(array, first, last, offsets, leftOffsets + leftStart, rightOffsets + rightStart,
+                            count, leftCount == rightCount);
+                leftCount -= count;
+                rightCount -= count;
+                leftStart += count;
+                rightStart += count;
+                if (leftCount == 0) first += BLOCK_SIZE;
+                if (rightCount == 0) last -= BLOCK_SIZE;
+            }
+
+            // Fewer than two blocks of unknown items are left, split them between the sides
+            // that have no pending offsets.
+            final int unknown = (last - first) - ((leftCount != 0 || rightCount != 0) ? BLOCK_SIZE : 0);
+            final int leftSize;
+            final int rightSize;
+            if (rightCount != 0) {
+                leftSize = unknown;
+                rightSize = BLOCK_SIZE;
+            } else if (leftCount != 0) {
+                leftSize = BLOCK_SIZE;
+                rightSize = unknown;
+            } else {
+                leftSize = unknown >> 1;
+                rightSize = unknown - leftSize;
+            }
+            if (unknown != 0 && leftCount == 0) {
+                leftStart = 0;
+                for (int i = 0; i < leftSize; ++i) {
+                    offsets[leftOffsets + leftCount] = i;
+                    leftCount += isLessThan(array[first + i], pivot) ? 0 : 1;
+                }
+            }
+            if (unknown != 0 && rightCount == 0) {
+                rightStart = 0;
+                for (int i = 0; i < rightSize; ++i) {
+                    offsets[rightOffsets + rightCount] = i + 1;
+                    rightCount += isLessThan(array[last - (i + 1)], pivot) ? 1 : 0;
+                }
+            }
+            final int count = Math.min(leftCount, rightCount);
+            swapOffsets(array, first, last, offsets, leftOffsets + leftStart, rightOffsets + rightStart,
+                        count, leftCount == rightCount);
+            leftCount -= count;
+            rightCount -= count;
+            leftStart += count;
+            rightStart += count;
+            if (leftCount == 0) first += leftSize;
+            if (rightCount == 0) last -= rightSize;
+
+            // One of the sides may still have misplaced items, move them to the boundary.
+            if (leftCount != 0) {
+                while (leftCount-- > 0) swap(array, first + offsets[leftOffsets + leftStart + leftCount], --last);
+                first = last;
+            }
+            if (rightCount != 0) {
+                while (rightCount-- > 0) swap(array, last - offsets[rightOffsets + rightStart + rightCount], first++);
+                last = first;
+            }
+        }
+
+        // Put the pivot into the right place.
+        final int pivotIndex = first - 1;
+        array[start] = array[pivotIndex];
+        array[pivotIndex] = pivot;
+        return alreadyPartitioned ? ~pivotIndex : pivotIndex;
+    }
+
+    /**
+     * Exchanges the recorded items of the left block with the recorded items of the right block.
+     * If the counts differ, the items are moved along a cycle instead, which takes
+     * fewer writes than swapping them in pairs.
+     */
+
+    private static void swapOffsets(final long[] array, int first, int last, final int[] offsets,
+                                    int leftIndex, int rightIndex, int count, boolean useSwaps) {
+        if (useSwaps) {
+            for (int i = 0; i < count; ++i) {
+                swap(array, first + offsets[leftIndex + i], last - offsets[rightIndex + i]);
+            }
+        } else if (count > 0) {
+            int left = first + offsets[leftIndex];
+            int right = last - offsets[rightIndex];
+            final long temp = array[left];
+            array[left] = array[right];
+            for (int i = 1; i < count; ++i) {
+                left = first + offsets[leftIndex + i];
+                array[right] = array[left];
+                right = last - offsets[rightIndex + i];
+                array[left] = array[right];
+            }
+            array[right] = temp;
+        }
+    }
+
+    /**
+     * Partitions the subarray [start, end) around its first item into items not greater than it
+     * and items greater than it. Used when the subarray has lots of items equal to the pivot.
+     *
+     * @return the index the pivot ends up at.
+     */
+
+    private static int partitionLeft(final long[] array, int start, int end) {
+        final long pivot = array[start];
+        int first = start;
+        int last = end;
+
+        while (isLessThan(pivot, array[--last]));
+        if (last + 1 == end) while (first < last && !isLessThan(pivot, array[++first]));
+        else while (!isLessThan(pivot, array[++first]));
+
+        while (first < last) {
+            swap(array, first, last);
+            while (isLessThan(pivot, array[--last]));
+            while (!isLessThan(pivot, array[++first]));
+        }
+
+        array[start] = array[last];
+        array[last] = pivot;
+        return last;
+    }
+
+    /**
+     * Sorts the subarray [start, end) with the insertion sort unless it has to move
+     * too many items.
+     *
+     * @return <code>true</code> if the subarray got sorted.
+     */
+
+    private static boolean partialInsertionSort(final long[] array, int start, int end) {
+        int moved = 0;
+        for (int i = start + 1; i < end; ++i) {
+            final long currentItem = array[i];
+            if (!isLessThan(currentItem, array[i - 1])) continue;
+            int j = i - 1;
+            while (j >= start && isLessThan(currentItem, array[j])) {
+                array[j + 1] = array[j];
+                --j;
+            }
+            array[j + 1] = currentItem;
+            moved += i - (j + 1);
+            if (moved > PARTIAL_INSERTION_LIMIT) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Swaps a few items of both parts around the pivot with items a quarter of the way in,
+     * so that the next pivots are chosen among different items.
+     */
+
+    private static void breakPatterns(final long[] array, int start, int pivot, int end) {
+        final int leftSize = pivot - start;
+        final int rightSize = end - (pivot + 1);
+        if (leftSize > THRESHOLD) {
+            final int quarter = leftSize >> 2;
+            swap(array, start, start + quarter);
+            swap(array, pivot - 1, pivot - quarter);
+            if (leftSize > NINTHER_THRESHOLD) {
+                swap(array, start + 1, start + quarter + 1);
+                swap(array, start + 2, start + quarter + 2);
+                swap(array, pivot - 2, pivot - quarter - 1);
+                swap(array, pivot - 3, pivot - quarter - 2);
+            }
+        }
+        if (rightSize > THRESHOLD) {
+            final int quarter = rightSize >> 2;
+            swap(array, pivot + 1, pivot + 1 + quarter);
+            swap(array, end - 1, end - quarter);
+            if (rightSize > NINTHER_THRESHOLD) {
+                swap(array, pivot + 2, pivot + 2 + quarter);
+                swap(array, pivot + 3, pivot + 3 + quarter);
+                swap(array, end - 2, end - quarter - 1);
+                swap(array, end - 3, end - quarter - 2);
+            }
+        }
+    }
+
+    /*--------------------------------------------------------*/
+    /* Double arrays
+    /*--------------------------------------------------------*/
+
+    public static void sort(final double[] array) {
+        if (array == null) {
+            return;
+        }
+        final int size = array.length;
+        sort(array, 0, size, log2(size), true, new int[BLOCK_SIZE << 1]);
+    }
+
+    /**
+     * Sorts the subarray [start, end). The leftmost subarray has no items before it;
+     * every other subarray is preceded by an item that is not greater than any of its items.
+     */
+
+    private static void sort(final double[] array, int start, int end, int badPivotsAllowed, boolean leftmost,
+                             final int[] offsets) {
+        while (true) {
+            final int size = end - start;
+            if (size <= THRESHOLD) {
+                Insertion.sort(array, start, end - 1);
+                return;
+            }
+
+            choosePivot(array, start, end);
+
+            // The pivot is equal to the preceding item, so there is no item less than the pivot.
+            // Put all the items equal to it on the left and only sort the items greater than it.
+            if (!leftmost && !isLessThan(array[start - 1], array[start])) {
+                start = partitionLeft(array, start, end) + 1;
+                continue;
+            }
+
+            final int result = partitionRight(array, start, end, offsets);
+            final boolean alreadyPartitioned = result < 0;
+            final int pivot = alreadyPartitioned ? ~result : result;
+            final int leftSize = pivot - start;
+            final int rightSize = end - (pivot + 1);
+
+            if (leftSize < (size >> 3) || rightSize < (size >> 3)) {
+                // The pivot was bad.
+                if (--badPivotsAllowed == 0) {
+                    HeapSort.sort(array, start, end - 1);
+                    return;
+                }
+                breakPatterns(array, start, pivot, end);
+            } else if (alreadyPartitioned
+                    && partialInsertionSort(array, start, pivot)
+                    && partialInsertionSort(array, pivot + 1, end)) {
+                // Both parts turned out to be sorted.
+                return;
+            }
+
+            // Sort the left part, then go on with the right part.
+            sort(array, start, pivot, badPivotsAllowed, leftmost, offsets);
+            start = pivot + 1;
+            leftmost = false;
+        }
+    }
+
+    /**
+     * Puts the pivot of the subarray [start, end) at the start.
+     * Guarantees that there is an item not less than the pivot after the start.
+     */
+
+    private static void choosePivot(final double[] array, int start, int end) {
+        final int size = end - start;
+        final int half = size >> 1;
+        if (size > NINTHER_THRESHOLD) {
+            sort3(array, start, start + half, end - 1);
+            sort3(array, start + 1, start + half - 1, end - 2);
+            sort3(array, start + 2, start + half + 1, end - 3);
+            sort3(array, start + half - 1, start + half, start + half + 1);
+            swap(array, start, start + half);
+        } else {
+            sort3(array, start + half, start, end - 1);
+        }
+    }
+
+    private static void sort3(final double[] array, int i, int j, int k) {
+        if (isLessThan(array[j], array[i])) swap(array, i, j);
+        if (isLessThan(array[k], array[j])) swap(array, j, k);
+        if (isLessThan(array[j], array[i])) swap(array, i, j);
+    }
+
+    /**
+     * Partitions the subarray [start, end) around its first item into items less than it and
+     * items not less than it, comparing and swapping in blocks.
+     *
+     * @return the index the pivot ends up at, or its bitwise complement
+     * if no items had to be moved.
+     */
+
+    private static int partitionRight(final double[] array, int start, int end, final int[] offsets) {
+        final double pivot = array[start];
+        int first = start;
+        int last = end;
+
+        // Find the first item not less than the pivot, one is guaranteed to exist.
+        while (isLessThan(array[++first], pivot));
+        // Find the last item less than the pivot. If there were none on the left,
+        // there may be none on the right either, so bound the search.
+        if (first - 1 == start) while (first < last && !isLessThan(array[--last], pivot));
+        else while (!isLessThan(array[--last], pivot));
+
+        final boolean alreadyPartitioned = first >= last;
+        if (!alreadyPartitioned) {
+            swap(array, first, last);
+            ++first;
+
+            // Offsets of the items in the left block that belong on the right,
+            // and of the items in the right block (counted back from the last index) that belong on the left.
+            final int leftOffsets = 0;
+            final int rightOffsets = BLOCK_SIZE;
+            int leftCount = 0;
+            int rightCount = 0;
+            int leftStart = 0;
+            int rightStart = 0;
+
+            while (last - first > (BLOCK_SIZE << 1)) {
+                if (leftCount == 0) {
+                    leftStart = 0;
+                    for (int i = 0; i < BLOCK_SIZE; ++i) {
+                        offsets[leftOffsets + leftCount] = i;
+                        leftCount += isLessThan(array[first + i], pivot) ? 0 : 1;
+                    }
+                }
+                if (rightCount == 0) {
+                    rightStart = 0;
+                    for (int i = 0; i < BLOCK_SIZE; ++i) {
+                        offsets[rightOffsets + rightCount] = i + 1;
+                        rightCount += isLessThan(array[last - (i + 1)], pivot) ? 1 : 0;
+                    }
+                }
+                final int count = Math.min(leftCount, rightCount);
+                swapOffsets(array, first, last, offsets, leftOffsets + leftStart, rightOffsets + rightStart,
+                            count, leftCount == rightCount);
+                leftCount -= count;
+                rightCount -= count;
+                leftStart += count;
+                rightStart += count;
+                if (leftCount == 0) first += BLOCK_SIZE;
+                if (rightCount == 0) last -= BLOCK_SIZE;
+            }
+
+            // Fewer than two blocks of unknown items are left, split them between the sides
+            // that have no pending offsets.
+            final int unknown = (last - first) - ((leftCount != 0 || rightCount != 0) ? BLOCK_SIZE : 0);
+            final int leftSize;
+            final int rightSize;
+            if (rightCount != 0) {
+                leftSize = unknown;
+                rightSize = BLOCK_SIZE;
+            } else if (leftCount != 0) {
+                leftSize = BLOCK_SIZE;
+                rightSize = unknown;
+            } else {
+                leftSize = unknown >> 1;
+                rightSize = unknown - leftSize;
+            }
+            if (unknown != 0 && leftCount == 0) {
+                leftStart = 0;
+                for (int i = 0; i < leftSize; ++i) {
+                    offsets[leftOffsets + leftCount] = i;
+                    leftCount += isLessThan(array[first + i], pivot) ? 0 : 1;
+                }
+            }
+            if (unknown != 0 && rightCount == 0) {
+                rightStart = 0;
+                for (int i = 0; i < rightSize; ++i) {
+                    offsets[rightOffsets + rightCount] = i + 1;
+                    rightCount += isLessThan(array[last - (i + 1)], pivot) ? 1 : 0;
+                }
+            }
+            final int count = Math.min(leftCount, rightCount);
+            swapOffsets(array, first, last, offsets, leftOffsets + leftStart, rightOffsets + rightStart,
+                        count, leftCount == rightCount);
+            leftCount -= count;
+            rightCount -= count;
+            leftStart += count;
+            rightStart += count;
+            if (leftCount == 0) first += leftSize;
+            if (rightCount == 0) last -= rightSize;
+
+            // One of the sides may still have misplaced items, move them to the boundary.
+            if (leftCount != 0) {
+                while (leftCount-- > 0) swap(array, first + offsets[leftOffsets + leftStart + leftCount], --last);
+                first = last;
+            }
+            if (rightCount != 0) {
+                while (rightCount-- > 0) swap(array, last - offsets[rightOffsets + rightStart + rightCount], first++);
+                last = first;
+            }
+        }
+
+        // Put the pivot into the right place.
+        final int pivotIndex = first - 1;
+        array[start] = array[pivotIndex];
+        array[pivotIndex] = pivot;
+        return alreadyPartitioned ? ~pivotIndex : pivotIndex;
+    }
+
+    /**
+     * Exchanges the recorded items of the left block with the recorded items of the right block.
+     * If the counts differ, the items are moved along a cycle instead, which takes
+     * fewer writes than swapping them in pairs.
+     */
+
+    private static void swapOffsets(final double[] array, int first, int last, final int[] offsets,
+                                    int leftIndex, int rightIndex, int count, boolean useSwaps) {
+        if (useSwaps) {
+            for (int i = 0; i < count; ++i) {
+                swap(array, first + offsets[leftIndex + i], last - offsets[rightIndex + i]);
+            }
+        } else if (count > 0) {
+            int left = first + offsets[leftIndex];
+            int right = last - offsets[rightIndex];
+            final double temp = array[left];
+            array[left] = array[right];
+            for (int i = 1; i < count; ++i) {
+                left = first + offsets[leftIndex + i];
+                array[right] = array[left];
+                right = last - offsets[rightIndex + i];
+                array[left] = array[right];
+            }
+            array[right] = temp;
+        }
+    }
+
+    /**
+     * Partitions the subarray [start, end) around its first item into items not greater than it
+     * and items greater than it. Used when the subarray has lots of items equal to the pivot.
+     *
+     * @return the index the pivot ends up at.
+     */
+
+    private static int partitionLeft(final double[] array, int start, int end) {
+        final double pivot = array[start];
+        int first = start;
+        int last = end;
+
+        while (isLessThan(pivot, array[--last]));
+        if (last + 1 == end) while (first < last && !isLessThan(pivot, array[++first]));
+        else while (!isLessThan(pivot, array[++first]));
+
+        while (first < last) {
+            swap(array, first, last);
+            while (isLessThan(pivot, array[--last]));
+            while (!isLessThan(pivot, array[++first]));
+        }
+
+        array[start] = array[last];
+        array[last] = pivot;
+        return last;
+    }
+
+    /**
+     * Sorts the subarray [start, end) with the insertion sort unless it has to move
+     * too many items.
+     *
+     * @return <code>true</code> if the subarray got sorted.
+     */
+
+    private static boolean partialInsertionSort(final double[] array, int start, int end) {
+        int moved = 0;
+        for (int i = start + 1; i < end; ++i) {
+            final double currentItem = array[i];
+            if (!isLessThan(currentItem, array[i - 1])) continue;
+            int j = i - 1;
+            while (j >= start && isLessThan(currentItem, array[j])) {
+                array[j + 1] = array[j];
+                --j;
+            }
+            array[j + 1] = currentItem;
+            moved += i - (j + 1);
+            if (moved > PARTIAL_INSERTION_LIMIT) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Swaps a few items of both parts around the pivot with items a quarter of the way in,
+     * so that the next pivots are chosen among different items.
+     */
+
+    private static void breakPatterns(final double[] array, int start, int pivot, int end) {
+        final int leftSize = pivot - start;
+        final int rightSize = end - (pivot + 1);
+        if (leftSize > THRESHOLD) {
+            final int quarter = leftSize >> 2;
+            swap(array, start, start + quarter);
+            swap(array, pivot - 1, pivot - quarter);
+            if (leftSize > NINTHER_THRESHOLD) {
+                swap(array, start + 1, start + quarter + 1);
+                swap(array, start + 2, start + quarter + 2);
+                swap(array, pivot - 2, pivot - quarter - 1);
+                swap(array, pivot - 3, pivot - quarter - 2);
+            }
+        }
+        if (rightSize > THRESHOLD) {
+            final int quarter = rightSize >> 2;
+            swap(array, pivot + 1, pivot + 1 + quarter);
+            swap(array, end - 1, end - quarter);
+            if (rightSize > NINTHER_THRESHOLD) {
+                swap(array, pivot + 2, pivot + 2 + quarter);
+                swap(array, pivot + 3, pivot + 3 + quarter);
+                swap(array, end - 2, end - quarter - 1);
+                swap(array, end - 3, end - quarter - 2);
+            }
+        }
+    }
+
+    /*--------------------------------------------------------*/
+    /* Helper
+    /*--------------------------------------------------------*/
+
+    /**
+     * @return floor(log2(size)), the number of bad pivots after which the heap sort takes over.
+     */
+
+    private static int log2(int size) {
+        return size == 0 ? 0 : 31 - Integer.numberOfLeadingZeros(size);
+    }
+}
@@ -53,6 +53,16 @@ public final class Quick {
         final int middle = start + ((end - start) >> 1);
         median(array, start, middle, end);
         swap(array, start, middle);
+        return partitionAroundStart(array, start, end);
+    }
+
+    /**
+     * Partitions the subarray [start, end] around its first item.
+     *
+     * @return the index the first item ends up at.
+     */
+
+    static <T extends Comparable<T>> int partitionAroundStart(final T[] array, int start, int end) {
         final T pivot = array[start];
         int i = start + 1;
         int j = end;
@@ -81,4 +91,178 @@ public final class Quick {
         if (!isLessThan(array[middle], array[end])) swap(array, middle, end);
     }
 
+    /**
+     * Puts Tukey's ninther of the subarray [start, end] at the middle index.
+     */
+
+    static <T extends Comparable<T>> void ninther(final T[] array, int start, int middle, int end) {
+        final int step = (end - start + 1) >> 3;
+        // Each call puts the median of its three items at the middle one of them.
+        median(array, start, start + step, start + (step << 1));
+        median(array, middle - step, middle, middle + step);
+        median(array, end - (step << 1), end - step, end);
+        median(array, start + step, middle, end - step);
+    }
+
+    public static void sort(final int[] array) {
+        if (array == null) {
+            return;
+        }
+        sort(array, 0, array.length - 1);
+    }
+
+    private static void sort(final int[] array, int startIndex, int endIndex) {
+        if ((endIndex - startIndex + 1) <= THRESHOLD) {
+            Insertion.sort(array, startIndex, endIndex);
+            return;
+        }
+        final int partition = partition(array, startIndex, endIndex);
+        sort(array, startIndex, partition - 1);
+        sort(array, partition + 1, endIndex);
+    }
+
+    static int partition(final int[] array, int start, int end) {
+        final int middle = start + ((end - start) >> 1);
+        median(array, start, middle, end);
+        swap(array, start, middle);
+        final int pivot = array[start];
+        int i = start;
+        int j = end + 1;
+
+        // Both scans stop on keys equal to the pivot, so equal keys are split evenly.
+        while (true) {
+            while (isLessThan(array[++i], pivot)) if (i == end) break;
+            while (isLessThan(pivot, array[--j])) ;
+            if (i >= j) break;
+            swap(array, i, j);
+        }
+        swap(array, start, j);
+        return j;
+    }
+
+    static void median(final int[] array, int start, int middle, int end) {
+        if (!isLessThan(array[start], array[middle])) swap(array, start, middle);
+        if (!isLessThan(array[start], array[end])) swap(array, start, end);
+        if (!isLessThan(array[middle], array[end])) swap(array, middle, end);
+    }
+
+    /**
+     * Puts Tukey's ninther of the subarray [start, end] at the middle index.
+     */
+
+    static void ninther(final int[] array, int start, int middle, int end) {
+        final int step = (end - start + 1) >> 3;
+        median(array, start, start + step, start + (step << 1));
+        median(array, middle - step, middle, middle + step);
+        median(array, end - (step << 1), end - step, end);
+        median(array, start + step, middle, end - step);
+    }
+
+    public static void sort(final long[] array) {
+        if (array == null) {
+            return;
+        }
+        sort(array, 0, array.length - 1);
+    }
+
+    private static void sort(final long[] array, int startIndex, int endIndex) {
+        if ((endIndex - startIndex + 1) <= THRESHOLD) {
+            Insertion.sort(array, startIndex, endIndex);
+            return;
+        }
+        final int partition = partition(array, startIndex, endIndex);
+        sort(array, startIndex, partition - 1);
+        sort(array, partition + 1, endIndex);
+    }
+
+    static int partition(final long[] array, int start, int end) {
+        final int middle = start + ((end - start) >> 1);
+        median(array, start, middle, end);
+        swap(array, start, middle);
+        final long pivot = array[start];
+        int i = start;
+        int j = end + 1;
+
+        // Both scans stop on keys equal to the pivot, so equal keys are split evenly.
+        while (true) {
+            while (isLessThan(array[++i], pivot)) if (i == end) break;
+            while (isLessThan(pivot, array[--j])) ;
+            if (i >= j) break;
+            swap(array, i, j);
+        }
+        swap(array, start, j);
+        return j;
+    }
+
+    static void median(final long[] array, int start, int middle, int end) {
+        if (!isLessThan(array[start], array[middle])) swap(array, start, middle);
+        if (!isLessThan(array[start], array[end])) swap(array, start, end);
+        if (!isLessThan(array[middle], array[end])) swap(array, middle, end);
+    }
+
+    /**
+     * Puts Tukey's ninther of the subarray [start, end] at the middle index.
+     */
+
+    static void ninther(final long[] array, int start, int middle, int end) {
+        final int step = (end - start + 1) >> 3;
+        median(array, start, start + step, start + (step << 1));
+        median(array, middle - step, middle, middle + step);
+        median(array, end - (step << 1), end - step, end);
+        median(array, start + step, middle, end - step);
+    }
+
+    public static void sort(final double[] array) {
+        if (array == null) {
+            return;
+        }
+        sort(array, 0, array.length - 1);
+    }
+
+    private static void sort(final double[] array, int startIndex, int endIndex) {
+        if ((endIndex - startIndex + 1) <= THRESHOLD) {
+            Insertion.sort(array, startIndex, endIndex);
+            return;
+        }
+        final int partition = partition(array, startIndex, endIndex);
+        sort(array, startIndex, partition - 1);
+        sort(array, partition + 1, endIndex);
+    }
+
+    static int partition(final double[] array, int start, int end) {
+        final int middle = start + ((end - start) >> 1);
+        median(array, start, middle, end);
+        swap(array, start, middle);
+        final double pivot = array[start];
+        int i = start;
+        int j = end + 1;
+
+        // Both scans stop on keys equal to the pivot, so equal keys are split evenly.
+        while (true) {
+            while (isLessThan(array[++i], pivot)) if (i == end) break;
+            while (isLessThan(pivot, array[--j])) ;
+            if (i >= j) break;
+            swap(array, i, j);
+        }
+        swap(array, start, j);
+        return j;
+    }
+
+    static void median(final double[] array, int start, int middle, int end) {
+        if (!isLessThan(array[start], array[middle])) swap(array, start, middle);
+        if (!isLessThan(array[start], array[end])) swap(array, start, end);
+        if (!isLessThan(array[middle], array[end])) swap(array, middle, end);
+    }
+
+    /**
+     * Puts Tukey's ninther of the subarray [start, end] at the middle index.
+     */
+
+    static void ninther(final double[] array, int start, int middle, int end) {
+        final int step = (end - start + 1) >> 3;
+        median(array, start, start + step, start + (step << 1));
+        median(array, middle - step, middle, middle + step);
+        median(array, end - (step << 1), end - step, end);
+        median(array, start + step, middle, end - step);
+    }
 }
@@ -3,7 +3,9 @@ package lz.renatkaitmazov.algorithms.week3;
 import lz.renatkaitmazov.algorithms.week2.sort.Insertion;
 
 import static lz.renatkaitmazov.algorithms.week2.sort.SortUtil.swap;
+import static lz.renatkaitmazov.algorithms.week2.sort.SortUtil.isLessThan;
 import static lz.renatkaitmazov.algorithms.week3.Quick.median;
+import static lz.renatkaitmazov.algorithms.week3.Quick.ninther;
 
 /**
  * An implementation of the quick sort algorithm that is specifically designed
@@ -26,6 +28,16 @@ public final class Quick3Way {
 
     private static final int THRESHOLD = 7;
 
+    /**
+     * The amount of elements in a subarray starting from which
+     * the pivot is chosen as the ninther rather than the median of three.
+     * The median of three alone is not enough here: the partitioning reverses
+     * the items greater than the pivot, and on sorted input the medians of the
+     * reversed parts keep being near their ends.
+     */
+
+    private static final int NINTHER_THRESHOLD = 40;
+
 
     private Quick3Way() {
     }
@@ -34,14 +46,20 @@ public final class Quick3Way {
         sort(array, 0, array.length - 1);
     }
 
-    private static <T extends Comparable<T>> void sort(final T[] array, int start, int end) {
+    static <T extends Comparable<T>> void sort(final T[] array, int start, int end) {
         if ((end - start + 1) <= THRESHOLD) {
             Insertion.sort(array, start, end);
             return;
         }
 
         final int middle = start + ((end - start) >> 1);
-        median(array, start, middle, end);
+        if ((end - start + 1) < NINTHER_THRESHOLD) {
+            median(array, start, middle, end);
+        } else {
+            ninther(array, start, middle, end);
+        }
+        // Partition around the item chosen in the middle.
+        swap(array, start, middle);
 
         int less = start; // Items smaller than the pivot are after behind index.
         int equal = start + 1; // Items equal to the pivot are behind this index but after the less index
@@ -63,4 +81,118 @@ public final class Quick3Way {
         // Sort items greater than the pivot.
         sort(array, greater + 1, end);
     }
+
+    public static void sort(final int[] array) {
+        if (array == null) {
+            return;
+        }
+        sort(array, 0, array.length - 1);
+    }
+
+    static void sort(final int[] array, int start, int end) {
+        if ((end - start + 1) <= THRESHOLD) {
+            Insertion.sort(array, start, end);
+            return;
+        }
+
+        final int middle = start + ((end - start) >> 1);
+        if ((end - start + 1) < NINTHER_THRESHOLD) {
+            median(array, start, middle, end);
+        } else {
+            ninther(array, start, middle, end);
+        }
+        // Partition around the item chosen in the middle.
+        swap(array, start, middle);
+
+        int less = start;
+        int equal = start + 1;
+        int greater = end;
+
+        final int pivot = array[start];
+        while (equal <= greater) {
+            final int current = array[equal];
+            if      (isLessThan(current, pivot)) swap(array, equal++, less++);
+            else if (isLessThan(pivot, current)) swap(array, equal, greater--);
+            else ++equal;
+        }
+
+        sort(array, start, less - 1);
+        sort(array, greater + 1, end);
+    }
+
+    public static void sort(final long[] array) {
+        if (array == null) {
+            return;
+        }
+        sort(array, 0, array.length - 1);
+    }
+
+    private static void sort(final long[] array, int start, int end) {
+        if ((end - start + 1) <= THRESHOLD) {
+            Insertion.sort(array, start, end);
+            return;
+        }
+
+        final int middle = start + ((end - start) >> 1);
+        if ((end - start + 1) < NINTHER_THRESHOLD) {
+            median(array, start, middle, end);
+        } else {
+            ninther(array, start, middle, end);
+        }
+        // Partition around the item chosen in the middle.
+        swap(array, start, middle);
+
+        int less = start;
+        int equal = start + 1;
+        int greater = end;
+
+        final long pivot = array[start];
+        while (equal <= greater) {
+            final long current = array[equal];
+            if      (isLessThan(current, pivot)) swap(array, equal++, less++);
+            else if (isLessThan(pivot, current)) swap(array, equal, greater--);
+            else ++equal;
+        }
+
+        sort(array, start, less - 1);
+        sort(array, greater + 1, end);
+    }
+
+    public static void sort(final double[] array) {
+        if (array == null) {
+            return;
+        }
+        sort(array, 0, array.length - 1);
+    }
+
+    private static void sort(final double[] array, int start, int end) {
+        if ((end - start + 1) <= THRESHOLD) {
+            Insertion.sort(array, start, end);
+            return;
+        }
+
+        final int middle = start + ((end - start) >> 1);
+        if ((end - start + 1) < NINTHER_THRESHOLD) {
+            median(array, start, middle, end);
+        } else {
+            ninther(array, start, middle, end);
+        }
+        // Partition around the item chosen in the middle.
+        swap(array, start, middle);
+
+        int less = start;
+        int equal = start + 1;
+        int greater = end;
+
+        final double pivot = array[start];
+        while (equal <= greater) {
+            final double current = array[equal];
+            if      (isLessThan(current, pivot)) swap(array, equal++, less++);
+            else if (isLessThan(pivot, current)) swap(array, equal, greater--);
+            else ++equal;
+        }
+
+        sort(array, start, less - 1);
+        sort(array, greater + 1, end);
+    }
 }
@@ -109,7 +109,7 @@ public abstract class AbstractPriorityQueue<T extends Comparable<T>> implements
         // Avoid loitering
         items[size] = null;
         final int capacity = items.length;
-        if ((capacity >> 2) >= size) {
+        if (capacity > 1 && (capacity >> 2) >= size) {
             // The number of items is at least four times smaller than the size of the array.
             // Halve the size of the array
             resize(capacity >> 1);
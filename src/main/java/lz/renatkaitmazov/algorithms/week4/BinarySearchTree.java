@@ -1,6 +1,6 @@
 package lz.renatkaitmazov.algorithms.week4;
 
-import lz.renatkaitmazov.algorithms.week2.LinkedQueue;
+import lz.renatkaitmazov.algorithms.week2.ArrayQueue;
 import lz.renatkaitmazov.algorithms.week2.Queue;
 
 import java.util.Comparator;
@@ -187,7 +187,7 @@ public final class BinarySearchTree<T extends Comparable<T>> implements SearchTr
 
     @Override
     public Iterable<T> items() {
-        final Queue<T> queue = new LinkedQueue<>();
+        final Queue<T> queue = new ArrayQueue<>(size());
         inOrderTraversal(root, queue);
         return queue;
     }
@@ -197,7 +197,7 @@ public final class BinarySearchTree<T extends Comparable<T>> implements SearchTr
         validateNotNull(left);
         validateNotNull(right);
         validateRange(left, right);
-        final Queue<T> queue = new LinkedQueue<>();
+        final Queue<T> queue = new ArrayQueue<>(size(left, right));
         inOrderTraversalInRange(root, left, right, queue);
         return queue;
     }
@@ -0,0 +1,92 @@
+package lz.renatkaitmazov.algorithms.week4;
+
+import java.util.Arrays;
+
+/**
+ * A record of an {@link ExternalSort}: an array of bytes that is ordered by comparing
+ * the bytes as unsigned numbers from the first one, a shorter record goes first
+ * if it is a prefix of a longer one. This is the order of the records that start with
+ * big-endian unsigned keys.
+ *
+ * @author Renat Kaitmazov
+ */
+
+public final class ByteRecord implements Comparable<ByteRecord> {
+
+    /*--------------------------------------------------------*/
+    /* Fields
+    /*--------------------------------------------------------*/
+
+    private final byte[] bytes;
+
+    /*--------------------------------------------------------*/
+    /* Constructors
+    /*--------------------------------------------------------*/
+
+    /**
+     * Wraps the given bytes without copying them.
+     *
+     * @param bytes of the record.
+     */
+
+    public ByteRecord(byte[] bytes) {
+        if (bytes == null) {
+            throw new IllegalArgumentException("Null is not allowed.");
+        }
+        this.bytes = bytes;
+    }
+
+    /*--------------------------------------------------------*/
+    /* Object class methods
+    /*--------------------------------------------------------*/
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (!(other instanceof ByteRecord)) return false;
+        return Arrays.equals(bytes, ((ByteRecord) other).bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bytes);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(bytes);
+    }
+
+    /*--------------------------------------------------------*/
+    /* API
+    /*--------------------------------------------------------*/
+
+    /**
+     * Returns the bytes of the record, not a copy of them.
+     *
+     * @return the bytes.
+     */
+
+    public byte[] bytes() {
+        return bytes;
+    }
+
+    public int length() {
+        return bytes.length;
+    }
+
+    /*--------------------------------------------------------*/
+    /* Comparable implementation
+    /*--------------------------------------------------------*/
+
+    @Override
+    public int compareTo(ByteRecord other) {
+        final byte[] otherBytes = other.bytes;
+        final int length = Math.min(bytes.length, otherBytes.length);
+        for (int i = 0; i < length; ++i) {
+            final int result = (bytes[i] & 0xFF) - (otherBytes[i] & 0xFF);
+            if (result != 0) return result;
+        }
+        return bytes.length - otherBytes.length;
+    }
+}
@@ -0,0 +1,488 @@
+package lz.renatkaitmazov.algorithms.week4;
+
+import lz.renatkaitmazov.algorithms.week3.Merge;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Sorts files of records that do not fit into memory.
+ * <p>
+ * The sort takes two phases:
+ * <ol>
+ * <li>The input is read through a file channel into chunks of records of at most
+ * the chunk size. Every chunk is sorted by {@link Merge} and spilled to a temporary file,
+ * a sorted run. Several chunks are sorted and spilled at the same time by a pool of threads,
+ * while the next chunk is being read.</li>
+ * <li>The runs are merged: the current record of every run is kept in a {@link MinQueue},
+ * so the smallest record of K runs is found in O(logK) steps. Every run is read through
+ * its own buffer that is refilled from the file channel, so a merge holds K buffers
+ * no matter how long the runs are. If there are more runs than the fan-in, groups of consecutive
+ * runs are merged in parallel into longer runs first, until a single merge can produce the output.</li>
+ * </ol>
+ * The sort is stable: equal records from an earlier run are taken first,
+ * and the runs are always merged in the order they were produced.
+ * <p>
+ * At most <code>(parallelism + 1) * chunkSize</code> bytes of records are in memory at once,
+ * each record taking about {@link #RECORD_OVERHEAD} bytes on top of its own bytes.
+ *
+ * @author Renat Kaitmazov
+ */
+
+public final class ExternalSort {
+
+    /*--------------------------------------------------------*/
+    /* Constants
+    /*--------------------------------------------------------*/
+
+    /**
+     * The approximate number of bytes a record takes in memory besides its own bytes:
+     * the headers of the record and of its byte array and the references to them.
+     */
+
+    static final int RECORD_OVERHEAD = 48;
+
+    private static final long DEFAULT_CHUNK_SIZE = 64L << 20;
+    private static final int DEFAULT_FAN_IN = 64;
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+    /*--------------------------------------------------------*/
+    /* Fields
+    /*--------------------------------------------------------*/
+
+    private final RecordFormat format;
+    private final Path temporaryDirectory;
+    private final long chunkSize;
+    private final int fanIn;
+    private final int bufferSize;
+    private final int parallelism;
+
+    /*--------------------------------------------------------*/
+    /* Constructors
+    /*--------------------------------------------------------*/
+
+    /**
+     * Creates a sort with 64MB chunks, a fan-in of 64, 1MB buffers, one thread per
+     * available processor and temporary files in the default temporary directory.
+     *
+     * @param format of the records.
+     */
+
+    public ExternalSort(RecordFormat format) {
+        this(format, null, DEFAULT_CHUNK_SIZE, DEFAULT_FAN_IN, DEFAULT_BUFFER_SIZE,
+             Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param format             of the records.
+     * @param temporaryDirectory where the runs are kept, <code>null</code> for the default one.
+     * @param chunkSize          the number of bytes of records sorted in memory at once.
+     * @param fanIn              the maximum number of runs merged at once, at least 2.
+     * @param bufferSize         the size of the buffer of every reader and writer.
+     * @param parallelism        the number of threads that sort chunks and merge runs.
+     */
+
+    public ExternalSort(RecordFormat format,
+                        Path temporaryDirectory,
+                        long chunkSize,
+                        int fanIn,
+                        int bufferSize,
+                        int parallelism) {
+        if (format == null) {
+            throw new IllegalArgumentException("Null is not allowed.");
+        }
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        if (fanIn < 2) {
+            throw new IllegalArgumentException("Fan-in must be at least 2");
+        }
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Buffer size must be positive");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        this.format = format;
+        this.temporaryDirectory = temporaryDirectory;
+        this.chunkSize = chunkSize;
+        this.fanIn = fanIn;
+        this.bufferSize = bufferSize;
+        this.parallelism = parallelism;
+    }
+
+    /*--------------------------------------------------------*/
+    /* API
+    /*--------------------------------------------------------*/
+
+    /**
+     * Sorts the records of the input file into the output file.
+     * The temporary files are deleted whether the sort succeeds or not.
+     *
+     * @param input  the file to sort.
+     * @param output the file to write the sorted records to, replaced if it exists.
+     * @throws IOException if a file cannot be read or written, the input holds a malformed record
+     *                     or ends in the middle of a record.
+     */
+
+    public void sort(Path input, Path output) throws IOException {
+        final ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        final List<Path> runs = new ArrayList<>();
+        try {
+            runs.addAll(spillSortedRuns(input, executor));
+            while (runs.size() > fanIn) {
+                final List<Path> merged = mergePass(runs, executor);
+                runs.clear();
+                runs.addAll(merged);
+            }
+            merge(runs, output);
+        } finally {
+            executor.shutdownNow();
+            for (final Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+        }
+    }
+
+    /*--------------------------------------------------------*/
+    /* Run generation
+    /*--------------------------------------------------------*/
+
+    /**
+     * Reads the input chunk by chunk, sorting and spilling the chunks in the executor.
+     * No more than <code>parallelism</code> chunks are waiting to be spilled at a time.
+     *
+     * @return the runs in the order of the chunks.
+     */
+
+    private List<Path> spillSortedRuns(Path input, ExecutorService executor) throws IOException {
+        final List<Path> runs = new ArrayList<>();
+        final Deque<Future<Path>> pending = new ArrayDeque<>();
+        boolean completed = false;
+        try (RecordReader reader = new RecordReader(format, input, bufferSize)) {
+            List<ByteRecord> chunk = new ArrayList<>();
+            long chunkBytes = 0;
+            ByteRecord record;
+            while ((record = reader.next()) != null) {
+                chunk.add(record);
+                chunkBytes += record.length() + RECORD_OVERHEAD;
+                if (chunkBytes >= chunkSize) {
+                    if (pending.size() == parallelism) {
+                        runs.add(await(pending.removeFirst()));
+                    }
+                    pending.addLast(submitChunk(chunk, executor));
+                    chunk = new ArrayList<>();
+                    chunkBytes = 0;
+                }
+            }
+            if (!chunk.isEmpty()) {
+                pending.addLast(submitChunk(chunk, executor));
+            }
+            while (!pending.isEmpty()) {
+                runs.add(await(pending.removeFirst()));
+            }
+            completed = true;
+            return runs;
+        } finally {
+            if (!completed) {
+                // Wait for the chunks in progress and drop all the runs.
+                for (final Future<Path> future : pending) {
+                    try {
+                        runs.add(await(future));
+                    } catch (IOException | RuntimeException ignored) {
+                    }
+                }
+                for (final Path run : runs) {
+                    Files.deleteIfExists(run);
+                }
+            }
+        }
+    }
+
+    private Future<Path> submitChunk(List<ByteRecord> chunk, ExecutorService executor) {
+        return executor.submit(() -> {
+            final ByteRecord[] records = chunk.toArray(new ByteRecord[0]);
+            chunk.clear();
+            Merge.sort(records);
+            final Path run = createRun();
+            try (RecordWriter writer = new RecordWriter(format, run, bufferSize)) {
+                for (final ByteRecord record : records) {
+                    writer.write(record);
+                }
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(run);
+                throw e;
+            }
+            return run;
+        });
+    }
+
+    /*--------------------------------------------------------*/
+    /* Merging
+    /*--------------------------------------------------------*/
+
+    /**
+     * Merges every group of <code>fanIn</code> consecutive runs into a single run in parallel,
+     * deleting the merged runs.
+     *
+     * @return the new runs in the same order.
+     */
+
+    private List<Path> mergePass(List<Path> runs, ExecutorService executor) throws IOException {
+        final List<Future<Path>> futures = new ArrayList<>();
+        for (int start = 0; start < runs.size(); start += fanIn) {
+            final List<Path> group = new ArrayList<>(runs.subList(start, Math.min(start + fanIn, runs.size())));
+            futures.add(executor.submit(() -> {
+                final Path merged = createRun();
+                try {
+                    merge(group, merged);
+                } catch (IOException | RuntimeException e) {
+                    Files.deleteIfExists(merged);
+                    throw e;
+                }
+                for (final Path run : group) {
+                    Files.deleteIfExists(run);
+                }
+                return merged;
+            }));
+        }
+        // Wait for every merge even if one fails, so no new run is created after the runs are deleted.
+        final List<Path> merged = new ArrayList<>();
+        Exception failure = null;
+        for (final Future<Path> future : futures) {
+            try {
+                merged.add(await(future));
+            } catch (IOException | RuntimeException e) {
+                if (failure == null) failure = e;
+            }
+        }
+        if (failure != null) {
+            for (final Path run : merged) {
+                Files.deleteIfExists(run);
+            }
+            if (failure instanceof IOException) throw (IOException) failure;
+            throw (RuntimeException) failure;
+        }
+        return merged;
+    }
+
+    /**
+     * Merges the sorted runs into the output with a priority queue of the current records of the runs.
+     */
+
+    private void merge(List<Path> runs, Path output) throws IOException {
+        final RecordReader[] readers = new RecordReader[runs.size()];
+        try (RecordWriter writer = new RecordWriter(format, output, bufferSize)) {
+            final MinQueue<Head> queue = new MinQueue<>(Math.max(1, runs.size()));
+            for (int i = 0; i < readers.length; ++i) {
+                readers[i] = new RecordReader(format, runs.get(i), bufferSize);
+                final ByteRecord record = readers[i].next();
+                if (record != null) queue.insert(new Head(record, i));
+            }
+            while (!queue.isEmpty()) {
+                final Head head = queue.remove();
+                writer.write(head.record);
+                final ByteRecord next = readers[head.run].next();
+                if (next != null) {
+                    // Reuse the head, it is the only one of its run.
+                    head.record = next;
+                    queue.insert(head);
+                }
+            }
+        } finally {
+            for (final RecordReader reader : readers) {
+                if (reader != null) reader.close();
+            }
+        }
+    }
+
+    /**
+     * The current record of a run. Equal records are ordered by their runs, which keeps the merge stable.
+     */
+
+    private static final class Head implements Comparable<Head> {
+        private ByteRecord record;
+        private final int run;
+
+        Head(ByteRecord record, int run) {
+            this.record = record;
+            this.run = run;
+        }
+
+        @Override
+        public int compareTo(Head other) {
+            final int result = record.compareTo(other.record);
+            return result != 0 ? result : Integer.compare(run, other.run);
+        }
+    }
+
+    /*--------------------------------------------------------*/
+    /* Helper
+    /*--------------------------------------------------------*/
+
+    private Path createRun() throws IOException {
+        return temporaryDirectory == null
+                ? Files.createTempFile("run", ".tmp")
+                : Files.createTempFile(temporaryDirectory, "run", ".tmp");
+    }
+
+    private static Path await(Future<Path> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IOException(cause);
+        }
+    }
+
+    /*--------------------------------------------------------*/
+    /* Readers and writers
+    /*--------------------------------------------------------*/
+
+    /**
+     * Reads records from a file channel through a heap buffer that grows
+     * only if a single record does not fit into it. The size of every record is checked
+     * against the rest of the file before the buffer grows, so a corrupt size cannot make it
+     * larger than the file.
+     */
+
+    private static final class RecordReader implements Closeable {
+        private final RecordFormat format;
+        private final FileChannel channel;
+        private final long fileSize;
+        private ByteBuffer buffer;
+        // The offset in the file of the first byte of the buffer.
+        private long bufferOffset;
+        private boolean endOfStream;
+
+        RecordReader(RecordFormat format, Path file, int bufferSize) throws IOException {
+            this.format = format;
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            fileSize = channel.size();
+            buffer = ByteBuffer.allocate(bufferSize);
+            buffer.flip();
+        }
+
+        /**
+         * @return the next record, or <code>null</code> at the end of the file.
+         */
+
+        ByteRecord next() throws IOException {
+            while (true) {
+                final long offset = bufferOffset + buffer.position();
+                if (endOfStream && !buffer.hasRemaining()) return null;
+                final long size;
+                try {
+                    size = format.sizeOfNext(buffer);
+                } catch (IOException e) {
+                    throw new IOException("Malformed record at byte " + offset, e);
+                }
+                if (buffer.remaining() >= size) return format.read(buffer);
+                if (offset == fileSize && !buffer.hasRemaining()) return null;
+                if (size > fileSize - offset || endOfStream) {
+                    throw new IOException("The file ends in the middle of the record at byte " + offset);
+                }
+                if (size > Integer.MAX_VALUE) {
+                    throw new IOException("The record at byte " + offset + " is too large");
+                }
+                fill((int) size);
+            }
+        }
+
+        /**
+         * Reads more bytes, growing the buffer if it cannot hold the given number of bytes.
+         */
+
+        private void fill(int size) throws IOException {
+            bufferOffset += buffer.position();
+            buffer.compact();
+            if (buffer.capacity() < size) {
+                // A single record is larger than the buffer.
+                final ByteBuffer larger = ByteBuffer.allocate(size);
+                buffer.flip();
+                larger.put(buffer);
+                buffer = larger;
+            }
+            final int read = channel.read(buffer);
+            buffer.flip();
+            if (read < 0) endOfStream = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Writes records to a file channel through a heap buffer.
+     */
+
+    private static final class RecordWriter implements Closeable {
+        private final RecordFormat format;
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+
+        RecordWriter(RecordFormat format, Path file, int bufferSize) throws IOException {
+            this.format = format;
+            channel = FileChannel.open(file, StandardOpenOption.WRITE,
+                                       StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            buffer = ByteBuffer.allocate(bufferSize);
+        }
+
+        void write(ByteRecord record) throws IOException {
+            final int recordSize = format.size(record);
+            if (buffer.remaining() < recordSize) {
+                flush();
+            }
+            if (buffer.remaining() < recordSize) {
+                // A single record is larger than the buffer.
+                final ByteBuffer large = ByteBuffer.allocate(recordSize);
+                format.write(record, large);
+                large.flip();
+                writeFully(large);
+                return;
+            }
+            format.write(record, buffer);
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            writeFully(buffer);
+            buffer.clear();
+        }
+
+        private void writeFully(ByteBuffer source) throws IOException {
+            while (source.hasRemaining()) {
+                channel.write(source);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package lz.renatkaitmazov.algorithms.week4;
 
 import static lz.renatkaitmazov.algorithms.week2.sort.SortUtil.swap;
+import static lz.renatkaitmazov.algorithms.week2.sort.SortUtil.isLessThan;
 
 /**
  * An implementation of the heap sort algorithm.
@@ -29,33 +30,46 @@ public final class HeapSort {
         if (array == null) {
             return;
         }
-        final int size = array.length;
+        sort(array, 0, array.length - 1);
+    }
+
+    /**
+     * Sorts the subarray [startIndex, endIndex], the rest of the array is not touched.
+     */
+
+    public static <T extends Comparable<T>> void sort(final T[] array, int startIndex, int endIndex) {
+        final int size = endIndex - startIndex + 1;
         for (int parentIndex = (size >> 1) - 1; parentIndex > -1; --parentIndex) {
             // First of all, we need to build a maximum priority queue.
             // We start from the last parent and go up to the first parent.
-            goDown(array, parentIndex, size);
+            goDown(array, startIndex, parentIndex, size);
         }
 
-        // At this time the first item in the array is the largest one.
-        // This invariant should hold until the array is sorted.
+        // At this time the first item in the subarray is the largest one.
+        // This invariant should hold until the subarray is sorted.
         for (int i = size - 1; i > 0; --i) {
-            // Exchange the largest item in the array with the last item.
-            swap(array, 0, i);
+            // Exchange the largest item in the subarray with the last item.
+            swap(array, startIndex, startIndex + i);
             // It is most likely that the order of the queue we built is violated
             // so we need to make sure that we preserve the invariant that the first item is the largest one
             // in [0..i).
-            goDown(array, 0, i);
+            goDown(array, startIndex, 0, i);
         }
     }
 
-    private static <T extends Comparable<T>> void goDown(T[] array, int parentIndex, int size) {
+    /**
+     * Sinks the parent in the heap that occupies [offset, offset + size) of the array.
+     * The indices of the parent and its children are relative to the offset.
+     */
+
+    private static <T extends Comparable<T>> void goDown(T[] array, int offset, int parentIndex, int size) {
         for (int childIndex = (parentIndex << 1) + 1; childIndex < size; childIndex = (parentIndex << 1) + 1) {
             // If the right child is greater than the left one, move the pointer by one to reflect it.
-            if (childIndex + 1 < size && isGreater(array[childIndex + 1], array[childIndex])) ++childIndex;
+            if (childIndex + 1 < size && isGreater(array[offset + childIndex + 1], array[offset + childIndex])) ++childIndex;
             // If the child is not greater than the parent, stop.
-            if (!isGreater(array[childIndex], array[parentIndex])) return;
+            if (!isGreater(array[offset + childIndex], array[offset + parentIndex])) return;
             // Otherwise exchange them.
-            swap(array, parentIndex, childIndex);
+            swap(array, offset + parentIndex, offset + childIndex);
             // Go to examine the next parent.
             parentIndex = childIndex;
         }
@@ -64,4 +78,89 @@ public final class HeapSort {
     private static <T extends Comparable<T>> boolean isGreater(T lhs, T rhs) {
         return lhs.compareTo(rhs) > 0;
     }
+
+    /*--------------------------------------------------------*/
+    /* Primitive arrays
+    /*--------------------------------------------------------*/
+
+    public static void sort(final int[] array) {
+        if (array == null) {
+            return;
+        }
+        sort(array, 0, array.length - 1);
+    }
+
+    public static void sort(final int[] array, int startIndex, int endIndex) {
+        final int size = endIndex - startIndex + 1;
+        for (int parentIndex = (size >> 1) - 1; parentIndex > -1; --parentIndex) {
+            goDown(array, startIndex, parentIndex, size);
+        }
+        for (int i = size - 1; i > 0; --i) {
+            swap(array, startIndex, startIndex + i);
+            goDown(array, startIndex, 0, i);
+        }
+    }
+
+    private static void goDown(final int[] array, int offset, int parentIndex, int size) {
+        for (int childIndex = (parentIndex << 1) + 1; childIndex < size; childIndex = (parentIndex << 1) + 1) {
+            if (childIndex + 1 < size && isLessThan(array[offset + childIndex], array[offset + childIndex + 1])) ++childIndex;
+            if (!isLessThan(array[offset + parentIndex], array[offset + childIndex])) return;
+            swap(array, offset + parentIndex, offset + childIndex);
+            parentIndex = childIndex;
+        }
+    }
+
+    public static void sort(final long[] array) {
+        if (array == null) {
+            return;
+        }
+        sort(array, 0, array.length - 1);
+    }
+
+    public static void sort(final long[] array, int startIndex, int endIndex) {
+        final int size = endIndex - startIndex + 1;
+        for (int parentIndex = (size >> 1) - 1; parentIndex > -1; --parentIndex) {
+            goDown(array, startIndex, parentIndex, size);
+        }
+        for (int i = size - 1; i > 0; --i) {
+            swap(array, startIndex, startIndex + i);
+            goDown(array, startIndex, 0, i);
+        }
+    }
+
+    private static void goDown(final long[] array, int offset, int parentIndex, int size) {
+        for (int childIndex = (parentIndex << 1) + 1; childIndex < size; childIndex = (parentIndex << 1) + 1) {
+            if (childIndex + 1 < size && isLessThan(array[offset + childIndex], array[offset + childIndex + 1])) ++childIndex;
+            if (!isLessThan(array[offset + parentIndex], array[offset + childIndex])) return;
+            swap(array, offset + parentIndex, offset + childIndex);
+            parentIndex = childIndex;
+        }
+    }
+
+    public static void sort(final double[] array) {
+        if (array == null) {
+            return;
+        }
+        sort(array, 0, array.length - 1);
+    }
+
+    public static void sort(final double[] array, int startIndex, int endIndex) {
+        final int size = endIndex - startIndex + 1;
+        for (int parentIndex = (size >> 1) - 1; parentIndex > -1; --parentIndex) {
+            goDown(array, startIndex, parentIndex, size);
+        }
+        for (int i = size - 1; i > 0; --i) {
+            swap(array, startIndex, startIndex + i);
+            goDown(array, startIndex, 0, i);
+        }
+    }
+
+    private static void goDown(final double[] array, int offset, int parentIndex, int size) {
+        for (int childIndex = (parentIndex << 1) + 1; childIndex < size; childIndex = (parentIndex << 1) + 1) {
+            if (childIndex + 1 < size && isLessThan(array[offset + childIndex], array[offset + childIndex + 1])) ++childIndex;
+            if (!isLessThan(array[offset + parentIndex], array[offset + childIndex])) return;
+            swap(array, offset + parentIndex, offset + childIndex);
+            parentIndex = childIndex;
+        }
+    }
 }
@@ -1,7 +1,7 @@
 package lz.renatkaitmazov.algorithms.week4;
 
 import lz.renatkaitmazov.algorithms.week2.LinkedList;
-import lz.renatkaitmazov.algorithms.week2.LinkedQueue;
+import lz.renatkaitmazov.algorithms.week2.ArrayQueue;
 import lz.renatkaitmazov.algorithms.week2.Queue;
 
 /**
@@ -379,9 +379,10 @@ public final class OrderedSymbolTable<K extends Comparable<K>, V> implements Sym
             return null;
         }
         validateRange(start, end);
-        final Queue<K> keys = new LinkedQueue<>();
         final int startIndex = helperRank(start);
         final int endIndex = helperRank(end);
+        // One extra slot for the end of the range.
+        final Queue<K> keys = new ArrayQueue<>(endIndex - startIndex + 1);
         for (int i = startIndex; i < endIndex; ++i) {
             final Entry<K, V> entry = entries[i];
             keys.enqueue(entry.getKey());
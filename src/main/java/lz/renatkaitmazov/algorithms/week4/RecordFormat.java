@@ -0,0 +1,131 @@
+package lz.renatkaitmazov.algorithms.week4;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * The way {@link ByteRecord}s are laid out in a file.
+ *
+ * @author Renat Kaitmazov
+ */
+
+public interface RecordFormat {
+
+    /**
+     * Reads the next record from the buffer.
+     *
+     * @param buffer to read from, its position is advanced past the record.
+     * @return the record, or <code>null</code> if the buffer does not hold the whole record,
+     * in which case the position of the buffer is not changed.
+     * @throws IOException if the record is malformed.
+     */
+    ByteRecord read(ByteBuffer buffer) throws IOException;
+
+    /**
+     * Returns the number of bytes the next record takes, which may be known from its first bytes
+     * before the whole record is in the buffer.
+     *
+     * @param buffer to look at, its position is not changed.
+     * @return the size of the next record in bytes, or a lower bound of it
+     * if the buffer does not hold enough bytes to tell.
+     * @throws IOException if the record is malformed.
+     */
+    long sizeOfNext(ByteBuffer buffer) throws IOException;
+
+    /**
+     * Writes the record into the buffer that has at least {@link #size(ByteRecord)} bytes remaining.
+     *
+     * @param record to write.
+     * @param buffer to write into.
+     */
+    void write(ByteRecord record, ByteBuffer buffer);
+
+    /**
+     * Returns the number of bytes the record takes in a file.
+     *
+     * @param record to measure.
+     * @return the size of the record in bytes.
+     */
+    int size(ByteRecord record);
+
+    /**
+     * Returns the format of records that are exactly the given number of bytes long.
+     *
+     * @param width of a record in bytes.
+     * @return the format.
+     */
+    static RecordFormat fixedWidth(int width) {
+        if (width < 1) {
+            throw new IllegalArgumentException("Width must be positive");
+        }
+        return new RecordFormat() {
+            @Override
+            public ByteRecord read(ByteBuffer buffer) {
+                if (buffer.remaining() < width) return null;
+                final byte[] bytes = new byte[width];
+                buffer.get(bytes);
+                return new ByteRecord(bytes);
+            }
+
+            @Override
+            public long sizeOfNext(ByteBuffer buffer) {
+                return width;
+            }
+
+            @Override
+            public void write(ByteRecord record, ByteBuffer buffer) {
+                if (record.length() != width) {
+                    throw new IllegalArgumentException("Record must be " + width + " bytes long");
+                }
+                buffer.put(record.bytes());
+            }
+
+            @Override
+            public int size(ByteRecord record) {
+                return width;
+            }
+        };
+    }
+
+    /**
+     * Returns the format of records that are preceded by their length
+     * as a big-endian int.
+     *
+     * @return the format.
+     */
+    static RecordFormat lengthPrefixed() {
+        return new RecordFormat() {
+            @Override
+            public ByteRecord read(ByteBuffer buffer) throws IOException {
+                if (buffer.remaining() < Integer.BYTES) return null;
+                final long size = sizeOfNext(buffer);
+                if (buffer.remaining() < size) return null;
+                final byte[] bytes = new byte[(int) size - Integer.BYTES];
+                buffer.position(buffer.position() + Integer.BYTES);
+                buffer.get(bytes);
+                return new ByteRecord(bytes);
+            }
+
+            @Override
+            public long sizeOfNext(ByteBuffer buffer) throws IOException {
+                if (buffer.remaining() < Integer.BYTES) return Integer.BYTES;
+                final int length = buffer.getInt(buffer.position());
+                if (length < 0) {
+                    throw new IOException("Negative record length " + length);
+                }
+                return Integer.BYTES + (long) length;
+            }
+
+            @Override
+            public void write(ByteRecord record, ByteBuffer buffer) {
+                buffer.putInt(record.length());
+                buffer.put(record.bytes());
+            }
+
+            @Override
+            public int size(ByteRecord record) {
+                return Integer.BYTES + record.length();
+            }
+        };
+    }
+}
@@ -1,6 +1,6 @@
 package lz.renatkaitmazov.algorithms.week5;
 
-import lz.renatkaitmazov.algorithms.week2.LinkedQueue;
+import lz.renatkaitmazov.algorithms.week2.ArrayQueue;
 import lz.renatkaitmazov.algorithms.week2.Queue;
 import lz.renatkaitmazov.algorithms.week4.SearchTree;
 
@@ -176,7 +176,7 @@ public final class RedBlackTree<T extends Comparable<T>> implements SearchTree<T
 
     @Override
     public Iterable<T> items() {
-        final Queue<T> queue = new LinkedQueue<>();
+        final Queue<T> queue = new ArrayQueue<>(size());
         inOrderTraversal(root, queue);
         return queue;
     }
@@ -186,7 +186,7 @@ public final class RedBlackTree<T extends Comparable<T>> implements SearchTree<T
         validateNotNull(left);
         validateNotNull(right);
         validateRange(left, right);
-        final Queue<T> queue = new LinkedQueue<>();
+        final Queue<T> queue = new ArrayQueue<>(size(left, right));
         inOrderTraversalInRange(root, left, right, queue);
         return queue;
     }
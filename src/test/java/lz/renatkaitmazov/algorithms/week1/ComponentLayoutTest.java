@@ -0,0 +1,92 @@
+package lz.renatkaitmazov.algorithms.week1;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Renat Kaitmazov
+ */
+
+@RunWith(JUnit4.class)
+public final class ComponentLayoutTest {
+
+    @Test
+    public final void layoutTest() {
+        final ConnectedComponent union = new QuickUnion(10);
+        union.union(4, 3);
+        union.union(3, 8);
+        union.union(6, 5);
+        union.union(9, 4);
+        union.union(2, 1);
+        final int[] elements = union.elements();
+
+        final ComponentLayout layout = union.layout();
+        assertEquals(union.components(), layout.count());
+        // Components are ordered by their first elements: {0}, {1, 2}, {3, 4, 8, 9}, {5, 6}, {7}
+        assertArrayEquals(new int[]{0, 1, 3, 7, 9, 10}, layout.offsets());
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4, 8, 9, 5, 6, 7}, layout.members());
+        assertEquals(2, layout.largest());
+        assertEquals(4, layout.size(layout.largest()));
+        assertEquals(9, layout.root(2));
+        assertArrayEquals(new int[]{0, 2, 2, 0, 1}, layout.sizeHistogram());
+        // The structure itself is left intact.
+        assertArrayEquals(elements, union.elements());
+    }
+
+    @Test
+    public final void singleComponentTest() {
+        final ConnectedComponent union = new QuickFind(3);
+        union.union(0, 1);
+        union.union(2, 1);
+        final ComponentLayout layout = union.layout();
+        assertEquals(1, layout.count());
+        assertArrayEquals(new int[]{0, 1, 2}, layout.members());
+        assertArrayEquals(new int[]{0, 0, 0, 1}, layout.sizeHistogram());
+    }
+
+    @Test
+    public final void largeLayoutTest() {
+        final int size = 200_000;
+        final WeightedQuickUnion union = new WeightedQuickUnion(size);
+        final Random random = new Random(5);
+        for (int i = 0; i < size * 4 / 5; ++i) {
+            union.union(random.nextInt(size), random.nextInt(size));
+        }
+
+        final ComponentLayout layout = union.layout();
+        assertEquals(union.components(), layout.count());
+        final int[] offsets = layout.offsets();
+        final int[] members = layout.members();
+        assertEquals(size, offsets[layout.count()]);
+        final boolean[] seen = new boolean[size];
+        int largestSize = 0;
+        for (int c = 0; c < layout.count(); ++c) {
+            final int root = layout.root(c);
+            assertEquals(root, union.findId(root));
+            for (int k = offsets[c]; k < offsets[c + 1]; ++k) {
+                final int member = members[k];
+                assertFalse(seen[member]);
+                seen[member] = true;
+                assertEquals(root, union.findId(member));
+                if (k > offsets[c]) assertTrue(members[k - 1] < member);
+            }
+            largestSize = Math.max(largestSize, layout.size(c));
+        }
+        assertEquals(largestSize, layout.size(layout.largest()));
+
+        final int[] histogram = layout.sizeHistogram();
+        int components = 0;
+        int elements = 0;
+        for (int s = 0; s < histogram.length; ++s) {
+            components += histogram[s];
+            elements += s * histogram[s];
+        }
+        assertEquals(layout.count(), components);
+        assertEquals(size, elements);
+    }
+}
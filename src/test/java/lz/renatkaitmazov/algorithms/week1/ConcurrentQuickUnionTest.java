@@ -0,0 +1,146 @@
+package lz.renatkaitmazov.algorithms.week1;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Renat Kaitmazov
+ */
+
+@RunWith(JUnit4.class)
+public final class ConcurrentQuickUnionTest {
+
+    private ConcurrentQuickUnion union;
+    private final int numberOfComponents = 10;
+
+    @Before
+    public final void setUp() {
+        union = new ConcurrentQuickUnion(numberOfComponents);
+    }
+
+    @After
+    public final void tearDown() {
+        union = null;
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void nonPositiveSizeFailsTest() {
+        new ConcurrentQuickUnion(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void wrongIndexFailsTest() {
+        union.union(0, numberOfComponents);
+    }
+
+    @Test
+    public final void unionTest() {
+        assertTrue(union.union(4, 3));
+        assertTrue(union.union(3, 8));
+        assertTrue(union.union(6, 5));
+        assertTrue(union.union(9, 4));
+        assertTrue(union.union(2, 1));
+        assertEquals(5, union.components());
+
+        assertTrue(union.union(5, 0));
+        assertTrue(union.union(7, 2));
+        assertTrue(union.union(6, 1));
+        assertEquals(2, union.components());
+
+        // Already connected.
+        assertFalse(union.union(2, 6));
+
+        assertTrue(union.union(0, 9));
+        assertEquals(1, union.components());
+    }
+
+    @Test
+    public final void isConnectedTest() {
+        union.union(4, 3);
+        union.union(3, 8);
+        union.union(6, 5);
+        union.union(9, 4);
+        union.union(2, 1);
+
+        assertFalse(union.isConnected(0, 7));
+        assertTrue(union.isConnected(8, 9));
+    }
+
+    @Test
+    public final void unionWithItself() {
+        assertFalse(union.union(0, 0));
+    }
+
+    @Test
+    public final void concurrentUnionsMatchWeightedQuickUnionTest() throws Exception {
+        final int size = 100_000;
+        final int edges = 200_000;
+        final int threads = 8;
+        final Random random = new Random(42);
+        final int[] from = new int[edges];
+        final int[] to = new int[edges];
+        for (int i = 0; i < edges; ++i) {
+            from[i] = random.nextInt(size);
+            to[i] = random.nextInt(size);
+        }
+
+        final WeightedQuickUnion expected = new WeightedQuickUnion(size);
+        int expectedSuccessfulUnions = 0;
+        for (int i = 0; i < edges; ++i) {
+            if (expected.union(from[i], to[i])) ++expectedSuccessfulUnions;
+        }
+
+        final ConcurrentQuickUnion actual = new ConcurrentQuickUnion(size);
+        final AtomicInteger successfulUnions = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        final Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; ++t) {
+            final int offset = t;
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                // Threads interleave over the same edge stream, so every edge
+                // is applied exactly once but in an unpredictable order.
+                for (int i = offset; i < edges; i += threads) {
+                    if (actual.union(from[i], to[i])) successfulUnions.incrementAndGet();
+                    actual.isConnected(to[i], from[i]);
+                }
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (final Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals(expected.components(), actual.components());
+        assertEquals(expectedSuccessfulUnions, successfulUnions.get());
+
+        // Both structures must describe the very same partition:
+        // the roots of one must map one-to-one onto the roots of the other.
+        final Map<Integer, Integer> roots = new HashMap<>();
+        final Map<Integer, Integer> reversedRoots = new HashMap<>();
+        for (int i = 0; i < size; ++i) {
+            final int expectedRoot = expected.findId(i);
+            final int actualRoot = actual.findId(i);
+            final Integer mapped = roots.putIfAbsent(expectedRoot, actualRoot);
+            final Integer reversed = reversedRoots.putIfAbsent(actualRoot, expectedRoot);
+            if (mapped != null) assertEquals(mapped.intValue(), actualRoot);
+            if (reversed != null) assertEquals(reversed.intValue(), expectedRoot);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package lz.renatkaitmazov.algorithms.week1;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Renat Kaitmazov
+ */
+
+@RunWith(JUnit4.class)
+public final class MappedUnionTest {
+
+    private Path file;
+
+    @Before
+    public final void setUp() throws IOException {
+        file = Files.createTempFile("union", ".snapshot");
+    }
+
+    @After
+    public final void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+        file = null;
+    }
+
+    @Test
+    public final void saveAndLoadWeightedQuickUnionTest() throws IOException {
+        final int size = 10_000;
+        final WeightedQuickUnion original = new WeightedQuickUnion(size);
+        final Random random = new Random(3);
+        for (int i = 0; i < size / 2; ++i) {
+            original.union(random.nextInt(size), random.nextInt(size));
+        }
+        MappedUnion.save(original, file);
+        assertEquals(32 + 2L * size * Integer.BYTES, Files.size(file));
+
+        final MappedUnion loaded = MappedUnion.load(file);
+        assertEquals(size, loaded.size());
+        assertEquals(original.components(), loaded.components());
+        for (int i = 0; i < size; ++i) {
+            assertEquals(original.findId(i), loaded.findId(i));
+        }
+
+        // Unions on the loaded instance behave exactly like on the original one.
+        for (int i = 0; i < size / 4; ++i) {
+            final int element1 = random.nextInt(size);
+            final int element2 = random.nextInt(size);
+            assertEquals(original.union(element1, element2), loaded.union(element1, element2));
+        }
+        assertEquals(original.components(), loaded.components());
+        for (int i = 0; i < size; ++i) {
+            assertTrue(loaded.isConnected(i, original.findId(i)));
+        }
+    }
+
+    @Test
+    public final void unionsDoNotChangeFileTest() throws IOException {
+        final ConnectedComponent original = new QuickFind(5);
+        original.union(0, 1);
+        MappedUnion.save(original, file);
+        final byte[] bytes = Files.readAllBytes(file);
+
+        final MappedUnion loaded = MappedUnion.load(file);
+        assertTrue(loaded.isConnected(1, 0));
+        assertTrue(loaded.union(2, 3));
+        assertTrue(loaded.union(4, 0));
+        assertEquals(2, loaded.components());
+        assertTrue(loaded.isConnected(1, 4));
+
+        assertArrayEquals(bytes, Files.readAllBytes(file));
+        final MappedUnion reloaded = MappedUnion.load(file);
+        assertEquals(4, reloaded.components());
+        assertFalse(reloaded.isConnected(2, 3));
+    }
+
+    @Test(expected = IOException.class)
+    public final void wrongFileFailsTest() throws IOException {
+        Files.write(file, new byte[64]);
+        MappedUnion.load(file);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void wrongIndexFailsTest() throws IOException {
+        MappedUnion.save(new QuickUnion(3), file);
+        MappedUnion.load(file).isConnected(0, 3);
+    }
+}
@@ -0,0 +1,96 @@
+package lz.renatkaitmazov.algorithms.week1;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Renat Kaitmazov
+ */
+
+@RunWith(JUnit4.class)
+public final class OfflineDynamicConnectivityTest {
+
+    @Test
+    public void simpleSequenceTest() {
+        final OfflineDynamicConnectivity connectivity = new OfflineDynamicConnectivity(4);
+        final int before = connectivity.isConnected(0, 2);
+        connectivity.addEdge(0, 1);
+        connectivity.addEdge(1, 2);
+        final int connected = connectivity.isConnected(0, 2);
+        connectivity.removeEdge(2, 1);
+        final int disconnected = connectivity.isConnected(0, 2);
+        final int stillConnected = connectivity.isConnected(1, 0);
+        final int itself = connectivity.isConnected(3, 3);
+
+        final boolean[] answers = connectivity.solve();
+        assertEquals(5, answers.length);
+        assertFalse(answers[before]);
+        assertTrue(answers[connected]);
+        assertFalse(answers[disconnected]);
+        assertTrue(answers[stillConnected]);
+        assertTrue(answers[itself]);
+    }
+
+    @Test
+    public void duplicateEdgesTest() {
+        final OfflineDynamicConnectivity connectivity = new OfflineDynamicConnectivity(2);
+        connectivity.addEdge(0, 1);
+        connectivity.addEdge(1, 0);
+        connectivity.removeEdge(0, 1);
+        final int first = connectivity.isConnected(0, 1);
+        connectivity.removeEdge(0, 1);
+        final int second = connectivity.isConnected(0, 1);
+        final boolean[] answers = connectivity.solve();
+        assertTrue(answers[first]);
+        assertFalse(answers[second]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void removeMissingEdgeFailsTest() {
+        final OfflineDynamicConnectivity connectivity = new OfflineDynamicConnectivity(3);
+        connectivity.addEdge(0, 1);
+        connectivity.removeEdge(1, 2);
+    }
+
+    @Test
+    public void matchesRecomputationFromScratchTest() {
+        final int size = 30;
+        final Random random = new Random(11);
+        final OfflineDynamicConnectivity connectivity = new OfflineDynamicConnectivity(size);
+        final List<int[]> edges = new ArrayList<>();
+        final List<Boolean> expected = new ArrayList<>();
+        for (int step = 0; step < 3_000; ++step) {
+            final int operation = random.nextInt(3);
+            if (operation == 0 || edges.isEmpty()) {
+                final int[] edge = {random.nextInt(size), random.nextInt(size)};
+                edges.add(edge);
+                connectivity.addEdge(edge[0], edge[1]);
+            } else if (operation == 1) {
+                final int[] edge = edges.remove(random.nextInt(edges.size()));
+                connectivity.removeEdge(edge[0], edge[1]);
+            } else {
+                final int element1 = random.nextInt(size);
+                final int element2 = random.nextInt(size);
+                connectivity.isConnected(element1, element2);
+                // Recompute the components from scratch.
+                final ConnectedComponent union = new WeightedQuickUnion(size);
+                for (final int[] edge : edges) {
+                    union.union(edge[0], edge[1]);
+                }
+                expected.add(union.isConnected(element1, element2));
+            }
+        }
+        final boolean[] answers = connectivity.solve();
+        assertEquals(expected.size(), answers.length);
+        for (int i = 0; i < answers.length; ++i) {
+            assertEquals(expected.get(i), answers[i]);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package lz.renatkaitmazov.algorithms.week1;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Renat Kaitmazov
+ */
+
+@RunWith(JUnit4.class)
+public final class RollbackUnionTest {
+
+    private RollbackUnion union;
+    private final int numberOfComponents = 10;
+
+    @Before
+    public final void setUp() {
+        union = new RollbackUnion(numberOfComponents);
+    }
+
+    @After
+    public final void tearDown() {
+        union = null;
+    }
+
+    @Test
+    public final void unionTest() {
+        assertTrue(union.union(4, 3));
+        assertTrue(union.union(3, 8));
+        assertTrue(union.union(6, 5));
+        assertTrue(union.union(9, 4));
+        assertTrue(union.union(2, 1));
+        assertEquals(5, union.components());
+        assertFalse(union.union(8, 9));
+        assertArrayEquals(
+                new int[]{0, 2, 2, 4, 4, 6, 6, 7, 4, 4},
+                union.elements
+        );
+    }
+
+    @Test
+    public final void rollbackTest() {
+        union.union(4, 3);
+        union.union(3, 8);
+        final int snapshot = union.snapshot();
+        final int[] elements = union.elements();
+        union.union(6, 5);
+        union.union(9, 4);
+        union.union(5, 3);
+        // Already connected, leaves no trace in the history.
+        union.union(6, 8);
+        assertEquals(snapshot + 3, union.snapshot());
+        assertTrue(union.isConnected(6, 9));
+
+        union.rollback(snapshot);
+        assertEquals(snapshot, union.snapshot());
+        assertEquals(numberOfComponents - 2, union.components());
+        assertArrayEquals(elements, union.elements());
+        assertFalse(union.isConnected(6, 9));
+        assertTrue(union.isConnected(3, 8));
+
+        union.rollback(0);
+        assertEquals(numberOfComponents, union.components());
+        assertFalse(union.isConnected(3, 4));
+
+        // Weights must be restored as well: 3 is a single element again.
+        union.union(0, 1);
+        union.union(0, 2);
+        union.union(3, 0);
+        assertEquals(0, union.elements[3]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void unknownSnapshotFailsTest() {
+        union.union(1, 2);
+        union.rollback(2);
+    }
+}
@@ -7,6 +7,8 @@ import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
 import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
 
 import static org.junit.Assert.*;
 
@@ -97,6 +99,52 @@ public final class WeightedQuickUnionTest {
         assertFalse(quickUnion.union(0, 0));
     }
 
+    @Test
+    public final void unionAllTest() {
+        final int[] from = {-1, 4, 3, 6, 9, 2, 5, 7, 6, 2, 0};
+        final int[] to = {-1, 3, 8, 5, 4, 1, 0, 2, 1, 6, 9};
+        // Skip the first (invalid) edge.
+        assertEquals(9, quickUnion.unionAll(from, to, 1, from.length - 1));
+        assertEquals(1, quickUnion.components());
+        // The same edges in the same order give the same trees as the per-call loop.
+        assertArrayEquals(
+                new int[]{6, 2, 6, 4, 6, 6, 6, 2, 4, 4},
+                quickUnion.elements
+        );
+    }
+
+    @Test
+    public final void unionAllFromBufferTest() {
+        final ByteBuffer bytes = ByteBuffer.allocate(5 * 2 * Integer.BYTES);
+        final IntBuffer edges = bytes.asIntBuffer();
+        edges.put(new int[]{4, 3, 3, 8, 6, 5, 9, 4, 2, 1}).flip();
+        assertEquals(5, quickUnion.unionAll(edges));
+        assertFalse(edges.hasRemaining());
+        assertEquals(5, quickUnion.components());
+        assertArrayEquals(
+                new int[]{0, 2, 2, 4, 4, 6, 6, 7, 4, 4},
+                quickUnion.elements
+        );
+    }
+
+    @Test
+    public final void unionAllRejectsWholeBatchTest() {
+        final int[] from = {1, 2, numberOfComponents};
+        final int[] to = {0, 0, 0};
+        try {
+            quickUnion.unionAll(from, to, 0, from.length);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // Nothing must have been connected.
+            assertEquals(numberOfComponents, quickUnion.components());
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public final void unionAllWrongRangeFailsTest() {
+        quickUnion.unionAll(new int[2], new int[2], 1, 2);
+    }
+
     @After
     public final void tearDown() {
         quickUnion = null;
@@ -0,0 +1,125 @@
+package lz.renatkaitmazov.algorithms.week1.homework;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static lz.renatkaitmazov.algorithms.week1.homework.HeadlessPercolationRenderer.*;
+import static org.junit.Assert.*;
+
+/**
+ * @author Renat Kaitmazov
+ */
+
+@RunWith(JUnit4.class)
+public final class HeadlessPercolationRendererTest {
+
+    private final int size = 4;
+    private ByteArrayOutputStream log;
+    private HeadlessPercolationRenderer renderer;
+
+    @Before
+    public void setUp() throws IOException {
+        log = new ByteArrayOutputStream();
+        renderer = new HeadlessPercolationRenderer(size, log);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        renderer.close();
+        renderer = null;
+    }
+
+    @Test
+    public void statesFollowPercolationTest() {
+        renderer.open(4, 1);
+        renderer.open(3, 1);
+        assertEquals(OPEN, renderer.state(4, 1));
+        assertEquals(OPEN, renderer.state(3, 1));
+        assertEquals(BLOCKED, renderer.state(2, 1));
+
+        renderer.open(4, 4);
+        renderer.open(3, 4);
+        renderer.open(2, 4);
+        renderer.open(1, 4);
+        assertTrue(renderer.percolation().percolates());
+        for (int row = 1; row <= size; ++row) {
+            assertEquals(FULL, renderer.state(row, 4));
+            assertEquals(renderer.percolation().isFull(row, 1), renderer.state(row, 1) == FULL);
+        }
+
+        // Connects the left column to the top through (1, 1).
+        renderer.open(2, 1);
+        renderer.open(1, 1);
+        for (int row = 1; row <= size; ++row) {
+            assertEquals(FULL, renderer.state(row, 1));
+        }
+    }
+
+    @Test
+    public void frameLogTest() throws IOException {
+        renderer.frame(); // Nothing has changed, nothing is written.
+        renderer.open(2, 2);
+        renderer.open(3, 3);
+        renderer.frame();
+        renderer.open(1, 2);
+        renderer.frame();
+        renderer.close();
+
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(log.toByteArray()));
+        assertEquals(MAGIC, in.readInt());
+        assertEquals(VERSION, in.readInt());
+        assertEquals(size, in.readInt());
+
+        // The first frame covers rows and columns 1..2 (zero-based).
+        assertEquals(2, in.readInt());
+        assertEquals(1, in.readInt());
+        assertEquals(1, in.readInt());
+        assertEquals(2, in.readInt());
+        assertEquals(2, in.readInt());
+        final byte[] first = new byte[4];
+        in.readFully(first);
+        assertArrayEquals(new byte[]{OPEN, BLOCKED, BLOCKED, OPEN}, first);
+
+        // The second frame covers (0, 1) and (1, 1) that became full together.
+        assertEquals(3, in.readInt());
+        assertEquals(0, in.readInt());
+        assertEquals(1, in.readInt());
+        assertEquals(2, in.readInt());
+        assertEquals(1, in.readInt());
+        final byte[] second = new byte[2];
+        in.readFully(second);
+        assertArrayEquals(new byte[]{FULL, FULL}, second);
+
+        assertEquals(-1, in.read());
+    }
+
+    @Test
+    public void writePngTest() throws IOException {
+        renderer.open(1, 1);
+        renderer.open(4, 4);
+        final Path file = Files.createTempFile("percolation", ".png");
+        try {
+            renderer.writePng(file, 2);
+            final BufferedImage image = ImageIO.read(file.toFile());
+            assertEquals(size * 2, image.getWidth());
+            assertEquals(size * 2, image.getHeight());
+            assertEquals(0x67C6F3, image.getRGB(1, 1) & 0xFFFFFF);
+            assertEquals(0xFFFFFF, image.getRGB(7, 7) & 0xFFFFFF);
+            assertEquals(0x000000, image.getRGB(3, 3) & 0xFFFFFF);
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
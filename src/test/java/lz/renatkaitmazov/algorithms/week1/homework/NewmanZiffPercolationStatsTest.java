@@ -0,0 +1,82 @@
+package lz.renatkaitmazov.algorithms.week1.homework;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Renat Kaitmazov
+ */
+
+@RunWith(JUnit4.class)
+public final class NewmanZiffPercolationStatsTest {
+
+    private final int size = 32;
+    private final int sites = size * size;
+    private NewmanZiffPercolationStats stats;
+
+    @Before
+    public void setUp() {
+        stats = new NewmanZiffPercolationStats(size, 200, 2017L);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void wrongArgumentsFailTest() {
+        new NewmanZiffPercolationStats(size, 0, 1L);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void wrongProbabilityFailsTest() {
+        stats.spanningProbability(1.5);
+    }
+
+    @Test
+    public void thresholdEstimateTest() {
+        // The percolation threshold of a square lattice is about 0.5927.
+        assertEquals(0.5927, stats.mean(), 0.02);
+        assertTrue(stats.confidenceLo() < stats.mean());
+        assertTrue(stats.confidenceHi() > stats.mean());
+    }
+
+    @Test
+    public void sameSeedSameResultsTest() {
+        final NewmanZiffPercolationStats other = new NewmanZiffPercolationStats(size, 200, 2017L);
+        assertEquals(Double.doubleToLongBits(stats.mean()), Double.doubleToLongBits(other.mean()));
+        assertEquals(Double.doubleToLongBits(stats.stddev()), Double.doubleToLongBits(other.stddev()));
+    }
+
+    @Test
+    public void spanningProbabilityByOpenSitesTest() {
+        assertEquals(0.0, stats.spanningProbability(0), 0.0);
+        assertEquals(0.0, stats.spanningProbability(size - 1), 0.0);
+        assertEquals(1.0, stats.spanningProbability(sites), 0.0);
+        double previous = 0;
+        for (int openSites = 0; openSites <= sites; ++openSites) {
+            final double current = stats.spanningProbability(openSites);
+            assertTrue(current >= previous);
+            previous = current;
+        }
+    }
+
+    @Test
+    public void spanningProbabilityByProbabilityTest() {
+        assertEquals(0.0, stats.spanningProbability(0.0), 1e-12);
+        assertEquals(1.0, stats.spanningProbability(1.0), 1e-12);
+        assertTrue(stats.spanningProbability(0.4) < 0.05);
+        assertTrue(stats.spanningProbability(0.8) > 0.95);
+        assertTrue(stats.spanningProbability(0.55) < stats.spanningProbability(0.65));
+    }
+
+    @Test
+    public void fullFractionTest() {
+        assertEquals(0.0, stats.fullFraction(0), 0.0);
+        // A single open site is full only if it lies in the top row.
+        assertTrue(stats.fullFraction(1) <= 1.0 / sites);
+        assertEquals(1.0, stats.fullFraction(sites), 0.0);
+        assertEquals(1.0, stats.fullFraction(1.0), 1e-12);
+        assertTrue(stats.fullFraction(0.3) < stats.fullFraction(0.7));
+    }
+}
@@ -0,0 +1,88 @@
+package lz.renatkaitmazov.algorithms.week1.homework;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Renat Kaitmazov
+ */
+
+@RunWith(JUnit4.class)
+public final class ParallelPercolationStatsTest {
+
+    private final int size = 40;
+    private final int trials = 200;
+    private final long seed = 2017L;
+
+    @Test(expected = IllegalArgumentException.class)
+    public void wrongSizeFailsTest() {
+        new ParallelPercolationStats(0, trials, seed, 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void wrongTrialsFailsTest() {
+        new ParallelPercolationStats(size, 0, seed, 2);
+    }
+
+    @Test
+    public void thresholdEstimateTest() {
+        final ParallelPercolationStats stats = new ParallelPercolationStats(size, trials, seed);
+        // The percolation threshold of a square lattice is about 0.5927.
+        assertEquals(0.5927, stats.mean(), 0.02);
+        assertTrue(stats.confidenceLo() < stats.mean());
+        assertTrue(stats.confidenceHi() > stats.mean());
+    }
+
+    @Test
+    public void sameResultsForAnyParallelismTest() {
+        final ParallelPercolationStats single = new ParallelPercolationStats(size, trials, seed, 1);
+        final int[] parallelisms = {2, 3, 8};
+        for (final int parallelism : parallelisms) {
+            final ParallelPercolationStats stats = new ParallelPercolationStats(size, trials, seed, parallelism);
+            assertEquals(Double.doubleToLongBits(single.mean()), Double.doubleToLongBits(stats.mean()));
+            assertEquals(Double.doubleToLongBits(single.stddev()), Double.doubleToLongBits(stats.stddev()));
+            assertEquals(Double.doubleToLongBits(single.confidenceLo()), Double.doubleToLongBits(stats.confidenceLo()));
+            assertEquals(Double.doubleToLongBits(single.confidenceHi()), Double.doubleToLongBits(stats.confidenceHi()));
+        }
+    }
+
+    @Test
+    public void differentSeedsDifferTest() {
+        final ParallelPercolationStats stats1 = new ParallelPercolationStats(size, trials, seed, 2);
+        final ParallelPercolationStats stats2 = new ParallelPercolationStats(size, trials, seed + 1, 2);
+        assertNotEquals(Double.doubleToLongBits(stats1.mean()), Double.doubleToLongBits(stats2.mean()));
+    }
+
+    @Test
+    public void neighbouringTrialsAreNotShiftedCopiesTest() {
+        final int draws = 16;
+        for (int trial = 0; trial < trials; ++trial) {
+            final long[] current = draw(PercolationTrial.random(seed, trial), draws);
+            final long[] next = draw(PercolationTrial.random(seed, trial + 1), draws);
+            for (int shift = 0; shift < draws / 2; ++shift) {
+                assertFalse(Arrays.equals(Arrays.copyOfRange(current, shift, shift + draws / 2),
+                                          Arrays.copyOfRange(next, 0, draws / 2)));
+                assertFalse(Arrays.equals(Arrays.copyOfRange(next, shift, shift + draws / 2),
+                                          Arrays.copyOfRange(current, 0, draws / 2)));
+            }
+        }
+    }
+
+    /*--------------------------------------------------------*/
+    /* Helper
+    /*--------------------------------------------------------*/
+
+    private static long[] draw(SplittableRandom random, int draws) {
+        final long[] values = new long[draws];
+        for (int i = 0; i < draws; ++i) {
+            values[i] = random.nextLong();
+        }
+        return values;
+    }
+}
@@ -0,0 +1,134 @@
+package lz.renatkaitmazov.algorithms.week2;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Renat Kaitmazov
+ */
+
+@RunWith(JUnit4.class)
+public class ArrayQueueTest {
+
+    private Queue<Integer> queue;
+
+    @Before
+    public final void setUp() {
+        queue = new ArrayQueue<>(2);
+    }
+
+    @After
+    public final void tearDown() {
+        queue = null;
+    }
+
+    @Test
+    public final void isEmptyTest() {
+        assertTrue(queue.isEmpty());
+        addValues(1);
+        assertFalse(queue.isEmpty());
+    }
+
+    @Test
+    public final void sizeTest() {
+        assertEquals(0, queue.size());
+        addValues(1, 2, 3, 4, 5);
+        assertEquals(5, queue.size());
+    }
+
+    @Test
+    public final void toStringTest() {
+        assertEquals("[]", queue.toString());
+        addValues(5, 3, 6, 2);
+        assertEquals("[5, 3, 6, 2]", queue.toString());
+    }
+
+    @Test
+    public final void enqueueTest() {
+        addValues(10, 54, 23, 192);
+        assertEquals("[10, 54, 23, 192]", queue.toString());
+        assertEquals(4, queue.size());
+    }
+
+    @Test
+    public final void dequeue() {
+        addValues(90, 64, 7, 12, 429);
+        assertEquals((Integer) 90, queue.dequeue());
+        assertEquals(4, queue.size());
+        assertEquals((Integer) 64, queue.dequeue());
+        assertEquals(3, queue.size());
+        assertEquals((Integer) 7, queue.dequeue());
+        assertEquals(2, queue.size());
+    }
+
+    @Test
+    public final void enqueueAndDequeueAllTest() {
+        addValues(12, 54, 23, 76, 34, 12);
+        while (!queue.isEmpty()) {
+            queue.dequeue();
+        }
+        assertEquals(0, queue.size());
+        assertTrue(queue.isEmpty());
+        assertEquals("[]", queue.toString());
+    }
+
+    @Test
+    public final void iteratorTest() {
+        addValues(4, 5, 10, 34);
+        String string = "";
+        for (final Integer number : queue) {
+            string += number;
+        }
+        assertEquals("451034", string);
+    }
+
+    @Test
+    public final void wrapAroundAndGrowTest() {
+        addValues(1, 2);
+        assertEquals((Integer) 1, queue.dequeue());
+        // The tail wraps around to the start of the buffer.
+        addValues(3);
+        // The buffer is full and the head is not at index 0.
+        addValues(4, 5, 6);
+        assertEquals("[2, 3, 4, 5, 6]", queue.toString());
+        assertEquals((Integer) 2, queue.dequeue());
+        assertEquals((Integer) 3, queue.dequeue());
+        assertEquals(3, queue.size());
+    }
+
+    @Test
+    public final void dequeueEmptyQueueTest() {
+        assertNull(queue.dequeue());
+        addValues(1);
+        queue.dequeue();
+        assertNull(queue.dequeue());
+    }
+
+    @Test
+    public final void zeroCapacityTest() {
+        final Queue<Integer> empty = new ArrayQueue<>(0);
+        for (int i = 0; i < 100; ++i) {
+            empty.enqueue(i);
+        }
+        for (int i = 0; i < 100; ++i) {
+            assertEquals((Integer) i, empty.dequeue());
+        }
+        assertTrue(empty.isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void negativeCapacityFailsTest() {
+        new ArrayQueue<Integer>(-1);
+    }
+
+    private void addValues(Integer... values) {
+        for (final Integer value : values) {
+            queue.enqueue(value);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,338 @@
+package lz.renatkaitmazov.algorithms.week2;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Renat Kaitmazov
+ */
+
+@RunWith(JUnit4.class)
+public final class ConcurrentArrayQueueTest {
+
+    private ConcurrentArrayQueue<Integer> queue;
+
+    @Before
+    public final void setUp() {
+        queue = new ConcurrentArrayQueue<>(4);
+    }
+
+    @Test
+    public final void capacityIsRoundedUpTest() {
+        assertEquals(4, queue.capacity());
+        assertEquals(2, new ConcurrentArrayQueue<Integer>(1).capacity());
+        assertEquals(8, new ConcurrentArrayQueue<Integer>(5).capacity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void zeroCapacityFailsTest() {
+        new ConcurrentArrayQueue<Integer>(0);
+    }
+
+    @Test
+    public final void enqueueDequeueTest() {
+        assertTrue(queue.isEmpty());
+        assertNull(queue.dequeue());
+        for (int lap = 0; lap < 3; ++lap) {
+            for (int i = 0; i < 4; ++i) {
+                assertTrue(queue.offer(i));
+            }
+            assertFalse(queue.offer(4));
+            assertEquals(4, queue.size());
+            for (int i = 0; i < 4; ++i) {
+                assertEquals((Integer) i, queue.dequeue());
+            }
+            assertNull(queue.dequeue());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public final void enqueueFullQueueFailsTest() {
+        for (int i = 0; i < 5; ++i) {
+            queue.enqueue(i);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void nullItemFailsTest() {
+        queue.offer(null);
+    }
+
+    @Test
+    public final void offerAllAndDrainToTest() {
+        queue.enqueue(-1);
+        assertEquals(3, queue.offerAll(new Integer[]{0, 1, 2, 3, 4}, 0, 5));
+        assertEquals(0, queue.offerAll(new Integer[]{5}, 0, 1));
+        final Queue<Integer> target = new ArrayQueue<>();
+        assertEquals(2, queue.drainTo(target, 2));
+        assertEquals("[-1, 0]", target.toString());
+        assertEquals(2, queue.offerAll(new Integer[]{7, 8, 9}, 1, 2));
+        assertEquals(4, queue.drainTo(target, 10));
+        assertEquals("[-1, 0, 1, 2, 8, 9]", target.toString());
+        assertEquals(0, queue.drainTo(target, 10));
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public final void drainToFullTargetKeepsItemsTest() {
+        queue.offerAll(new Integer[]{0, 1, 2, 3}, 0, 4);
+        final ConcurrentArrayQueue<Integer> target = new ConcurrentArrayQueue<>(2);
+        target.enqueue(-1);
+        try {
+            queue.drainTo(target, 4);
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+        assertEquals((Integer) (-1), target.dequeue());
+        assertEquals((Integer) 0, target.dequeue());
+        // The items the target has not accepted are still in the queue and the slot is free.
+        assertEquals(3, queue.size());
+        assertTrue(queue.offer(4));
+        for (int i = 1; i <= 4; ++i) {
+            assertEquals((Integer) i, queue.dequeue());
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public final void drainToFailingTargetWhileAnotherConsumerPollsTest() throws InterruptedException {
+        queue.offerAll(new Integer[]{0, 1, 2, 3}, 0, 4);
+        final LinkedQueue<Integer> delivered = new LinkedQueue<>();
+        final Integer[] polled = new Integer[1];
+        final Queue<Integer> target = new Queue<Integer>() {
+            @Override
+            public void enqueue(Integer item) {
+                if (delivered.size() == 0) {
+                    delivered.enqueue(item);
+                    return;
+                }
+                // Another consumer takes the item after the claimed run before the target fails.
+                final Thread consumer = new Thread(() -> polled[0] = queue.dequeue());
+                consumer.start();
+                try {
+                    consumer.join();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                throw new IllegalStateException("The target is full");
+            }
+
+            @Override
+            public Integer dequeue() {
+                return delivered.dequeue();
+            }
+
+            @Override
+            public int size() {
+                return delivered.size();
+            }
+
+            @Override
+            public Iterator<Integer> iterator() {
+                return delivered.iterator();
+            }
+        };
+        try {
+            queue.drainTo(target, 2);
+            fail();
+        } catch (ConcurrentArrayQueue.DrainException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+            assertArrayEquals(new Object[]{1}, e.undelivered());
+        }
+        assertEquals((Integer) 0, delivered.dequeue());
+        assertEquals((Integer) 2, polled[0]);
+        assertEquals(1, queue.size());
+        // Both freed slots can be reused.
+        assertTrue(queue.offer(4));
+        assertTrue(queue.offer(5));
+        for (int i = 3; i <= 5; ++i) {
+            assertEquals((Integer) i, queue.dequeue());
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public final void drainToFailingTargetLosesNothingTest() throws InterruptedException {
+        final int count = 100_000;
+        final ConcurrentArrayQueue<Integer> source = new ConcurrentArrayQueue<>(64);
+        final AtomicLong sum = new AtomicLong();
+        final Thread producer = new Thread(() -> {
+            for (int i = 1; i <= count; ++i) {
+                while (!source.offer(i)) Thread.yield();
+            }
+        });
+        final Thread poller = new Thread(() -> {
+            for (int polled = 0; polled < count / 4; ) {
+                final Integer item = source.dequeue();
+                if (item == null) continue;
+                sum.addAndGet(item);
+                ++polled;
+            }
+        });
+        final Queue<Integer> target = new Queue<Integer>() {
+            private int calls;
+
+            @Override
+            public void enqueue(Integer item) {
+                if (++calls % 7 == 0) throw new IllegalStateException();
+                sum.addAndGet(item);
+            }
+
+            @Override
+            public Integer dequeue() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public int size() {
+                return 0;
+            }
+
+            @Override
+            public Iterator<Integer> iterator() {
+                throw new UnsupportedOperationException();
+            }
+        };
+        producer.start();
+        poller.start();
+        long accounted = 0;
+        while (producer.isAlive() || poller.isAlive() || !source.isEmpty()) {
+            try {
+                source.drainTo(target, 16);
+            } catch (ConcurrentArrayQueue.DrainException e) {
+                for (final Object item : e.undelivered()) {
+                    accounted += (Integer) item;
+                }
+            } catch (IllegalStateException expected) {
+                // The items the target has not accepted are still in the queue.
+            }
+        }
+        producer.join();
+        poller.join();
+        assertEquals((long) count * (count + 1) / 2, sum.get() + accounted);
+    }
+
+    @Test
+    public final void iteratorTest() {
+        assertFalse(queue.iterator().hasNext());
+        for (int i = 0; i < 3; ++i) {
+            queue.enqueue(i);
+        }
+        queue.dequeue();
+        queue.dequeue();
+        // The items wrap around the end of the buffer.
+        queue.offerAll(new Integer[]{3, 4, 5}, 0, 3);
+        final StringBuilder builder = new StringBuilder();
+        for (final Integer item : queue) {
+            builder.append(item);
+        }
+        assertEquals("2345", builder.toString());
+        assertEquals(4, queue.size());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public final void iteratorPastTheEndFailsTest() {
+        queue.enqueue(0);
+        final Iterator<Integer> iterator = queue.iterator();
+        iterator.next();
+        iterator.next();
+    }
+
+    @Test
+    public final void iteratorSkipsTakenItemsTest() {
+        queue.offerAll(new Integer[]{0, 1, 2, 3}, 0, 4);
+        final Iterator<Integer> iterator = queue.iterator();
+        assertEquals((Integer) 0, iterator.next());
+        queue.dequeue();
+        queue.dequeue();
+        queue.dequeue();
+        queue.enqueue(4);
+        // The next item has been read before the items were taken.
+        assertEquals((Integer) 1, iterator.next());
+        assertEquals((Integer) 3, iterator.next());
+        assertEquals((Integer) 4, iterator.next());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public final void concurrentProducersAndConsumersTest() throws InterruptedException {
+        final int pairs = 4;
+        final int itemsPerProducer = 20_000;
+        final ConcurrentArrayQueue<Integer> shared = new ConcurrentArrayQueue<>(64);
+        final AtomicLong sum = new AtomicLong();
+        final AtomicLong count = new AtomicLong();
+        final long total = (long) pairs * itemsPerProducer;
+        final CountDownLatch start = new CountDownLatch(1);
+        final Thread[] threads = new Thread[pairs << 1];
+        for (int p = 0; p < pairs; ++p) {
+            final boolean batches = (p & 1) == 0;
+            threads[p] = new Thread(() -> {
+                await(start);
+                final Integer[] batch = new Integer[8];
+                int next = 1;
+                while (next <= itemsPerProducer) {
+                    if (batches) {
+                        final int length = Math.min(batch.length, itemsPerProducer - next + 1);
+                        for (int i = 0; i < length; ++i) {
+                            batch[i] = next + i;
+                        }
+                        final int added = shared.offerAll(batch, 0, length);
+                        // Let the consumers run when the queue is full.
+                        if (added == 0) Thread.yield();
+                        next += added;
+                    } else if (shared.offer(next)) {
+                        ++next;
+                    } else {
+                        Thread.yield();
+                    }
+                }
+            });
+            threads[pairs + p] = new Thread(() -> {
+                await(start);
+                final Queue<Integer> local = new ArrayQueue<>(8);
+                while (count.get() < total) {
+                    Integer item;
+                    if (batches) {
+                        shared.drainTo(local, 8);
+                        item = local.dequeue();
+                    } else {
+                        item = shared.dequeue();
+                    }
+                    if (item == null) Thread.yield();
+                    while (item != null) {
+                        sum.addAndGet(item);
+                        count.incrementAndGet();
+                        item = local.dequeue();
+                    }
+                }
+            });
+        }
+        for (final Thread thread : threads) {
+            thread.start();
+        }
+        start.countDown();
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(total, count.get());
+        assertEquals(pairs * ((long) itemsPerProducer * (itemsPerProducer + 1) / 2), sum.get());
+        assertTrue(shared.isEmpty());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package lz.renatkaitmazov.algorithms.week2;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Renat Kaitmazov
+ */
+
+@RunWith(JUnit4.class)
+public final class DoubleArrayStackTest {
+
+    private DoubleArrayStack stack;
+
+    @Before
+    public final void setUp() {
+        stack = new DoubleArrayStack(1);
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public final void popEmptyStackFailsTest() {
+        stack.pop();
+    }
+
+    @Test
+    public final void pushPopTest() {
+        stack.push(0.5);
+        stack.push(-1.25);
+        stack.push(Math.PI);
+        assertEquals(3, stack.size());
+        assertEquals(Math.PI, stack.peek(), 0.0);
+        assertEquals(Math.PI, stack.pop(), 0.0);
+        assertEquals(-1.25, stack.pop(), 0.0);
+        assertEquals(0.5, stack.pop(), 0.0);
+        assertTrue(stack.isEmpty());
+        stack.push(0.5);
+        assertEquals(0.5, stack.peek(), 0.0);
+    }
+
+    @Test
+    public final void pushAllPopIntoTest() {
+        stack.pushAll(new double[]{0.5, -1.25, Math.PI});
+        final double[] destination = new double[2];
+        assertEquals(2, stack.popInto(destination));
+        assertArrayEquals(new double[]{Math.PI, -1.25}, destination, 0.0);
+        assertEquals(1, stack.size());
+        assertEquals(0.5, stack.peek(), 0.0);
+    }
+
+    @Test
+    public final void iteratorTest() {
+        stack.pushAll(new double[]{0.5, -1.25});
+        final PrimitiveIterator.OfDouble iterator = stack.iterator();
+        assertEquals(-1.25, iterator.nextDouble(), 0.0);
+        assertEquals(0.5, iterator.nextDouble(), 0.0);
+        assertFalse(iterator.hasNext());
+    }
+}
@@ -0,0 +1,126 @@
+package lz.renatkaitmazov.algorithms.week2;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.lang.reflect.Field;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Renat Kaitmazov
+ */
+
+@RunWith(JUnit4.class)
+public final class IntArrayStackTest {
+
+    private IntArrayStack stack;
+
+    @Before
+    public final void setUp() {
+        stack = new IntArrayStack(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void zeroCapacityFailsTest() {
+        new IntArrayStack(0);
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public final void popEmptyStackFailsTest() {
+        stack.pop();
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public final void peekEmptyStackFailsTest() {
+        stack.peek();
+    }
+
+    @Test
+    public final void pushPopTest() {
+        stack.push(10);
+        stack.push(20);
+        stack.push(45);
+        assertEquals(3, stack.size());
+        assertEquals(45, stack.peek());
+        assertEquals("[45, 20, 10]", stack.toString());
+        assertEquals(45, stack.pop());
+        assertEquals(20, stack.pop());
+        assertEquals(10, stack.pop());
+        assertTrue(stack.isEmpty());
+        assertEquals("[]", stack.toString());
+    }
+
+    @Test
+    public final void expandAndShrinkCapacityTest() throws Exception {
+        for (int i = 0; i < 8; ++i) {
+            stack.push(i);
+        }
+        assertEquals(8, getArrayLength(stack));
+        for (int i = 0; i < 6; ++i) {
+            stack.pop();
+        }
+        assertEquals(4, getArrayLength(stack));
+        stack.pop();
+        stack.pop();
+        // Never shrinks to zero, so it can still grow.
+        assertEquals(1, getArrayLength(stack));
+        stack.push(1);
+        stack.push(2);
+        assertEquals(2, stack.pop());
+    }
+
+    @Test
+    public final void pushAllPopIntoTest() throws Exception {
+        stack.push(-1);
+        stack.pushAll(new int[]{1, 2, 3, 4, 5});
+        assertEquals(6, stack.size());
+        assertEquals(8, getArrayLength(stack));
+        final int[] destination = new int[4];
+        assertEquals(4, stack.popInto(destination));
+        assertArrayEquals(new int[]{5, 4, 3, 2}, destination);
+        assertEquals(2, stack.size());
+        assertEquals(2, stack.popInto(destination));
+        assertEquals(1, destination[0]);
+        assertEquals(-1, destination[1]);
+        assertTrue(stack.isEmpty());
+        assertEquals(0, stack.popInto(destination));
+    }
+
+    @Test
+    public final void iteratorTest() {
+        stack.pushAll(new int[]{1, 2, 3});
+        final PrimitiveIterator.OfInt iterator = stack.iterator();
+        assertEquals(3, iterator.nextInt());
+        assertEquals(2, iterator.nextInt());
+        assertEquals(1, iterator.nextInt());
+        assertFalse(iterator.hasNext());
+        assertEquals(3, stack.size());
+    }
+
+    @Test
+    public final void matchesArrayStackTest() {
+        final Stack<Integer> expected = new ArrayStack<>();
+        final java.util.Random random = new java.util.Random(7);
+        for (int i = 0; i < 10_000; ++i) {
+            if (random.nextInt(3) == 0 && !stack.isEmpty()) {
+                assertEquals((int) expected.pop(), stack.pop());
+            } else {
+                final int item = random.nextInt();
+                expected.push(item);
+                stack.push(item);
+            }
+            assertEquals(expected.size(), stack.size());
+        }
+    }
+
+    private static int getArrayLength(IntArrayStack stack) throws Exception {
+        final Field field = IntArrayStack.class.getDeclaredField("items");
+        field.setAccessible(true);
+        return ((int[]) field.get(stack)).length;
+    }
+}
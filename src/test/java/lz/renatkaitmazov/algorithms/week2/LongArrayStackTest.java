@@ -0,0 +1,65 @@
+package lz.renatkaitmazov.algorithms.week2;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Renat Kaitmazov
+ */
+
+@RunWith(JUnit4.class)
+public final class LongArrayStackTest {
+
+    private LongArrayStack stack;
+
+    @Before
+    public final void setUp() {
+        stack = new LongArrayStack(1);
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public final void popEmptyStackFailsTest() {
+        stack.pop();
+    }
+
+    @Test
+    public final void pushPopTest() {
+        stack.push(1L << 40);
+        stack.push(-7L);
+        stack.push(Long.MAX_VALUE);
+        assertEquals(3, stack.size());
+        assertEquals(Long.MAX_VALUE, stack.peek());
+        assertEquals(Long.MAX_VALUE, stack.pop());
+        assertEquals(-7L, stack.pop());
+        assertEquals(1L << 40, stack.pop());
+        assertTrue(stack.isEmpty());
+        stack.push(1L << 40);
+        assertEquals(1L << 40, stack.peek());
+    }
+
+    @Test
+    public final void pushAllPopIntoTest() {
+        stack.pushAll(new long[]{1L << 40, -7L, Long.MAX_VALUE});
+        final long[] destination = new long[2];
+        assertEquals(2, stack.popInto(destination));
+        assertArrayEquals(new long[]{Long.MAX_VALUE, -7L}, destination);
+        assertEquals(1, stack.size());
+        assertEquals(1L << 40, stack.peek());
+    }
+
+    @Test
+    public final void iteratorTest() {
+        stack.pushAll(new long[]{1L << 40, -7L});
+        final PrimitiveIterator.OfLong iterator = stack.iterator();
+        assertEquals(-7L, iterator.nextLong());
+        assertEquals(1L << 40, iterator.nextLong());
+        assertFalse(iterator.hasNext());
+    }
+}
@@ -0,0 +1,57 @@
+package lz.renatkaitmazov.algorithms.week2.homework;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Renat Kaitmazov
+ */
+
+public class ChannelReaderTest {
+
+    @Test
+    public final void readLineTest() throws IOException {
+        final ChannelReader reader = reader("first\r\n\nсекунда line\nlast", 4);
+        assertEquals("first", reader.readLine());
+        assertEquals("", reader.readLine());
+        assertEquals("секунда line", reader.readLine());
+        assertEquals("last", reader.readLine());
+        assertNull(reader.readLine());
+    }
+
+    @Test
+    public final void readTokenTest() throws IOException {
+        final ChannelReader reader = reader("  AA  BB\tCC\r\n\n   Ünïcödé  longer-than-buffer \n", 3);
+        assertEquals("AA", reader.readToken());
+        assertEquals("BB", reader.readToken());
+        assertEquals("CC", reader.readToken());
+        assertEquals("Ünïcödé", reader.readToken());
+        assertEquals("longer-than-buffer", reader.readToken());
+        assertNull(reader.readToken());
+    }
+
+    @Test
+    public final void lastTokenWithoutDelimiterTest() throws IOException {
+        final ChannelReader reader = reader("A B", 1);
+        assertEquals("A", reader.readToken());
+        assertEquals("B", reader.readToken());
+        assertNull(reader.readToken());
+    }
+
+    @Test
+    public final void emptyInputTest() throws IOException {
+        assertNull(reader("", 8).readLine());
+        assertNull(reader(" \n ", 8).readToken());
+    }
+
+    private static ChannelReader reader(String text, int bufferSize) {
+        final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        return new ChannelReader(Channels.newChannel(new ByteArrayInputStream(bytes)), bufferSize);
+    }
+}
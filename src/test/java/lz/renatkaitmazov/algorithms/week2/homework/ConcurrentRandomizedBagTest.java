@@ -0,0 +1,117 @@
+package lz.renatkaitmazov.algorithms.week2.homework;
+
+import org.junit.Test;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Renat Kaitmazov
+ */
+
+public class ConcurrentRandomizedBagTest {
+
+    @Test
+    public final void enqueueAndDequeueTest() {
+        final ConcurrentRandomizedBag<Integer> bag = new ConcurrentRandomizedBag<>(4);
+        assertTrue(bag.isEmpty());
+        for (int i = 0; i < 100; ++i) {
+            bag.enqueue(i);
+        }
+        assertEquals(100, bag.size());
+        assertNotNull(bag.sample());
+        final boolean[] seen = new boolean[100];
+        for (int i = 0; i < 100; ++i) {
+            final int item = bag.dequeue();
+            assertFalse(seen[item]);
+            seen[item] = true;
+        }
+        assertTrue(bag.isEmpty());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public final void dequeueEmptyBagFailsTest() {
+        new ConcurrentRandomizedBag<Integer>(2).dequeue();
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public final void sampleEmptyBagFailsTest() {
+        new ConcurrentRandomizedBag<Integer>(2).sample();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void nullItemFailsTest() {
+        new ConcurrentRandomizedBag<Integer>(2).enqueue(null);
+    }
+
+    @Test
+    public final void removalIsUniformWithinStripeTest() {
+        final int n = 10;
+        final int trials = 20_000;
+        final int[] firstRemoved = new int[n];
+        for (int trial = 0; trial < trials; ++trial) {
+            final ConcurrentRandomizedBag<Integer> bag = new ConcurrentRandomizedBag<>(1);
+            for (int i = 0; i < n; ++i) {
+                bag.enqueue(i);
+            }
+            ++firstRemoved[bag.dequeue()];
+        }
+        for (final int count : firstRemoved) {
+            assertEquals(trials / n, count, 250);
+        }
+    }
+
+    @Test
+    public final void stealsFromOtherThreadsTest() throws InterruptedException {
+        final ConcurrentRandomizedBag<Integer> bag = new ConcurrentRandomizedBag<>(4);
+        final Thread producer = new Thread(() -> {
+            for (int i = 0; i < 1000; ++i) {
+                bag.enqueue(i);
+            }
+        });
+        producer.start();
+        producer.join();
+        // The main thread's home stripe is empty, so every item has to be stolen at first.
+        final boolean[] seen = new boolean[1000];
+        for (int i = 0; i < 1000; ++i) {
+            final int item = bag.dequeue();
+            assertFalse(seen[item]);
+            seen[item] = true;
+        }
+        assertTrue(bag.isEmpty());
+    }
+
+    @Test
+    public final void concurrentEnqueueAndDequeueTest() throws InterruptedException {
+        final int threads = 8;
+        final int itemsPerThread = 20_000;
+        final ConcurrentRandomizedBag<Integer> bag = new ConcurrentRandomizedBag<>(threads);
+        final AtomicIntegerArray removed = new AtomicIntegerArray(threads * itemsPerThread);
+        final Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; ++t) {
+            final int offset = t * itemsPerThread;
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < itemsPerThread; ++i) {
+                    bag.enqueue(offset + i);
+                    if ((i & 1) == 1) {
+                        removed.incrementAndGet(bag.dequeue());
+                    }
+                }
+            });
+        }
+        for (final Thread worker : workers) {
+            worker.start();
+        }
+        for (final Thread worker : workers) {
+            worker.join();
+        }
+        while (!bag.isEmpty()) {
+            removed.incrementAndGet(bag.dequeue());
+        }
+        for (int i = 0; i < removed.length(); ++i) {
+            assertEquals(1, removed.get(i));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package lz.renatkaitmazov.algorithms.week2.homework;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Renat Kaitmazov
+ */
+
+public class IndexPermutationTest {
+
+    @Test
+    public final void isBijectionTest() {
+        final int[] sizes = {1, 2, 3, 4, 5, 7, 100, 1000, (1 << 16) + 3};
+        for (final int size : sizes) {
+            for (long seed = 0; seed < 3; ++seed) {
+                final IndexPermutation permutation = new IndexPermutation(size, seed);
+                final boolean[] seen = new boolean[size];
+                for (int i = 0; i < size; ++i) {
+                    final int index = permutation.get(i);
+                    assertFalse("size " + size + ", seed " + seed, seen[index]);
+                    seen[index] = true;
+                }
+            }
+        }
+    }
+
+    @Test
+    public final void sameSeedSameOrderTest() {
+        final IndexPermutation first = new IndexPermutation(1000, 42L);
+        final IndexPermutation second = new IndexPermutation(1000, 42L);
+        final IndexPermutation third = new IndexPermutation(1000, 43L);
+        boolean differs = false;
+        for (int i = 0; i < 1000; ++i) {
+            assertEquals(first.get(i), second.get(i));
+            differs |= first.get(i) != third.get(i);
+        }
+        assertTrue(differs);
+    }
+
+    @Test
+    public final void positionsAreSpreadTest() {
+        // Over many seeds every index should land at every position about equally often.
+        final int size = 10;
+        final int seeds = 20_000;
+        final int[][] counts = new int[size][size];
+        for (long seed = 0; seed < seeds; ++seed) {
+            final IndexPermutation permutation = new IndexPermutation(size, seed);
+            for (int i = 0; i < size; ++i) {
+                ++counts[i][permutation.get(i)];
+            }
+        }
+        for (final int[] row : counts) {
+            for (final int count : row) {
+                assertEquals(seeds / size, count, 250);
+            }
+        }
+    }
+
+    @Test
+    public final void emptyRangeTest() {
+        assertEquals(0, new IndexPermutation(0, 1L).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void indexOutOfRangeFailsTest() {
+        new IndexPermutation(5, 1L).get(5);
+    }
+}
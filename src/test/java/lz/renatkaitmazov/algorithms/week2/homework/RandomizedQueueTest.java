@@ -4,6 +4,9 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+
 import static org.junit.Assert.*;
 
 /**
@@ -74,6 +77,37 @@ public class RandomizedQueueTest {
         assertNotEquals("5423871421", string);
     }
 
+    @Test
+    public final void lazyIterator() {
+        final int size = 1000;
+        for (int i = 0; i < size; ++i) {
+            queue.enqueue(i);
+        }
+        final boolean[] seen = new boolean[size];
+        final Iterator<Integer> iterator = queue.lazyIterator();
+        // Another iterator can run at the same time.
+        final Iterator<Integer> other = queue.lazyIterator();
+        int count = 0;
+        while (iterator.hasNext()) {
+            final int item = iterator.next();
+            assertFalse(seen[item]);
+            seen[item] = true;
+            assertNotNull(other.next());
+            ++count;
+        }
+        assertEquals(size, count);
+        assertFalse(other.hasNext());
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public final void lazyIteratorFailsAfterModification() {
+        addItems(1, 2, 3);
+        final Iterator<Integer> iterator = queue.lazyIterator();
+        iterator.next();
+        queue.enqueue(4);
+        iterator.next();
+    }
+
     private void addItems(Integer... values) {
         for (final Integer value : values) {
             queue.enqueue(value);
@@ -0,0 +1,79 @@
+package lz.renatkaitmazov.algorithms.week2.homework;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Renat Kaitmazov
+ */
+
+public class ReservoirSamplerTest {
+
+    @Test
+    public final void shortStreamIsSampledWholeTest() {
+        final ReservoirSampler<Integer> sampler = new ReservoirSampler<>(10, 1L);
+        for (int i = 0; i < 5; ++i) {
+            sampler.add(i);
+        }
+        assertEquals(5, sampler.size());
+        assertEquals(5, sampler.count());
+        final boolean[] seen = new boolean[5];
+        for (final Integer item : sampler.sample()) {
+            assertFalse(seen[item]);
+            seen[item] = true;
+        }
+    }
+
+    @Test
+    public final void emptySampleTest() {
+        final ReservoirSampler<Integer> sampler = new ReservoirSampler<>(0, 1L);
+        for (int i = 0; i < 100; ++i) {
+            sampler.add(i);
+        }
+        assertEquals(0, sampler.size());
+        assertEquals(100, sampler.count());
+        assertFalse(sampler.iterator().hasNext());
+    }
+
+    @Test
+    public final void sampleHasDistinctItemsTest() {
+        final ReservoirSampler<Integer> sampler = new ReservoirSampler<>(100, 7L);
+        for (int i = 0; i < 1_000_000; ++i) {
+            sampler.add(i);
+        }
+        assertEquals(100, sampler.size());
+        final java.util.Set<Integer> distinct = new java.util.HashSet<>();
+        for (final Integer item : sampler) {
+            assertTrue(distinct.add(item));
+        }
+        assertEquals(100, distinct.size());
+    }
+
+    @Test
+    public final void uniformityTest() {
+        final int n = 20;
+        final int k = 5;
+        final int trials = 40_000;
+        final int[] hits = new int[n];
+        for (int trial = 0; trial < trials; ++trial) {
+            final ReservoirSampler<Integer> sampler = new ReservoirSampler<>(k, trial);
+            for (int i = 0; i < n; ++i) {
+                sampler.add(i);
+            }
+            for (final Integer item : sampler) {
+                ++hits[item];
+            }
+        }
+        // Every item is expected to be picked k / n of the time, 10000 times with sd of about 87.
+        final double expected = (double) trials * k / n;
+        for (final int hit : hits) {
+            assertEquals(expected, hit, 500);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void nullItemFailsTest() {
+        new ReservoirSampler<String>(1).add(null);
+    }
+}
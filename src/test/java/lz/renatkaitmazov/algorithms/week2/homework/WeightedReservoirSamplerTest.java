@@ -0,0 +1,65 @@
+package lz.renatkaitmazov.algorithms.week2.homework;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Renat Kaitmazov
+ */
+
+public class WeightedReservoirSamplerTest {
+
+    @Test
+    public final void zeroWeightsAreNeverSampledTest() {
+        final WeightedReservoirSampler<Integer> sampler = new WeightedReservoirSampler<>(3, 1L);
+        for (int i = 0; i < 100; ++i) {
+            sampler.add(i, i % 10 == 0 ? 1.0 : 0.0);
+        }
+        assertEquals(100, sampler.count());
+        assertEquals(3, sampler.size());
+        for (final Integer item : sampler.sample()) {
+            assertEquals(0, item % 10);
+        }
+    }
+
+    @Test
+    public final void firstPickFollowsWeightsTest() {
+        final int trials = 30_000;
+        final int[] hits = new int[3];
+        for (int trial = 0; trial < trials; ++trial) {
+            final WeightedReservoirSampler<Integer> sampler = new WeightedReservoirSampler<>(2, trial);
+            sampler.add(0, 1.0);
+            sampler.add(1, 2.0);
+            sampler.add(2, 7.0);
+            ++hits[sampler.sample().iterator().next()];
+        }
+        // The first item of the sample is picked with probability weight / total weight.
+        assertEquals(0.1, hits[0] / (double) trials, 0.01);
+        assertEquals(0.2, hits[1] / (double) trials, 0.01);
+        assertEquals(0.7, hits[2] / (double) trials, 0.01);
+    }
+
+    @Test
+    public final void sampleHasDistinctItemsTest() {
+        final WeightedReservoirSampler<Integer> sampler = new WeightedReservoirSampler<>(50, 3L);
+        for (int i = 0; i < 10_000; ++i) {
+            sampler.add(i, 1.0 + (i % 7));
+        }
+        final java.util.Set<Integer> distinct = new java.util.HashSet<>();
+        for (final Integer item : sampler.sample()) {
+            assertTrue(distinct.add(item));
+        }
+        assertEquals(50, distinct.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void negativeWeightFailsTest() {
+        new WeightedReservoirSampler<String>(1).add("a", -1.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void nanWeightFailsTest() {
+        new WeightedReservoirSampler<String>(1).add("a", Double.NaN);
+    }
+}
@@ -5,6 +5,9 @@ import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
 import static org.junit.Assert.*;
+import static lz.renatkaitmazov.algorithms.week2.sort.SortTestUtil.assertSortsIntArrays;
+import static lz.renatkaitmazov.algorithms.week2.sort.SortTestUtil.assertSortsLongArrays;
+import static lz.renatkaitmazov.algorithms.week2.sort.SortTestUtil.assertSortsDoubleArrays;
 import static lz.renatkaitmazov.algorithms.week2.sort.SortUtil.isSorted;
 import static lz.renatkaitmazov.algorithms.week2.sort.SortUtil.getSortedIntegerArray;
 import static lz.renatkaitmazov.algorithms.week2.sort.SortUtil.getUnsortedIntegerArray;
@@ -47,4 +50,19 @@ public class InsertionTest {
         Insertion.sort(numbers);
         assertTrue(isSorted(numbers));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void sortIntArrays() {
+        assertSortsIntArrays(10_000, Insertion::sort);
+    }
+
+    @Test
+    public void sortLongArrays() {
+        assertSortsLongArrays(10_000, Insertion::sort);
+    }
+
+    @Test
+    public void sortDoubleArrays() {
+        assertSortsDoubleArrays(10_000, Insertion::sort);
+    }
+}
@@ -0,0 +1,93 @@
+package lz.renatkaitmazov.algorithms.week2.sort;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+import static lz.renatkaitmazov.algorithms.week2.sort.SortUtil.getUnsortedDoubleArray;
+import static lz.renatkaitmazov.algorithms.week2.sort.SortUtil.getUnsortedIntArray;
+import static lz.renatkaitmazov.algorithms.week2.sort.SortUtil.getUnsortedLongArray;
+import static lz.renatkaitmazov.algorithms.week2.sort.SortUtil.isSorted;
+
+/**
+ * @author Renat Kaitmazov
+ */
+
+public final class SortTestUtil {
+
+    private SortTestUtil() {
+    }
+
+    /**
+     * Sorts the array with the given sort and checks that the result is the same as the one of {@link Arrays#sort}.
+     */
+
+    public static <T extends Comparable<T>> void assertSortsLikeArraysSort(T[] numbers, Consumer<T[]> sort) {
+        final T[] expected = numbers.clone();
+        Arrays.sort(expected);
+        sort.accept(numbers);
+        assertArrayEquals(expected, numbers);
+    }
+
+    public static void assertSortsLikeArraysSort(int[] numbers, Consumer<int[]> sort) {
+        final int[] expected = numbers.clone();
+        Arrays.sort(expected);
+        sort.accept(numbers);
+        assertArrayEquals(expected, numbers);
+    }
+
+    public static void assertSortsLikeArraysSort(long[] numbers, Consumer<long[]> sort) {
+        final long[] expected = numbers.clone();
+        Arrays.sort(expected);
+        sort.accept(numbers);
+        assertArrayEquals(expected, numbers);
+    }
+
+    /**
+     * A zero delta does not tell -0.0 from 0.0, so the order is also checked with {@link Double#compare}.
+     */
+
+    public static void assertSortsLikeArraysSort(double[] numbers, Consumer<double[]> sort) {
+        final double[] expected = numbers.clone();
+        Arrays.sort(expected);
+        sort.accept(numbers);
+        assertTrue(isSorted(numbers));
+        assertArrayEquals(expected, numbers, 0.0);
+    }
+
+    /**
+     * Checks the given sort on random, already sorted and all-equal arrays of the given size.
+     */
+
+    public static void assertSortsIntArrays(int size, Consumer<int[]> sort) {
+        final int[] numbers = getUnsortedIntArray(size);
+        assertSortsLikeArraysSort(numbers.clone(), sort);
+        Arrays.sort(numbers);
+        assertSortsLikeArraysSort(numbers, sort);
+        Arrays.fill(numbers, 42);
+        assertSortsLikeArraysSort(numbers, sort);
+    }
+
+    public static void assertSortsLongArrays(int size, Consumer<long[]> sort) {
+        final long[] numbers = getUnsortedLongArray(size);
+        assertSortsLikeArraysSort(numbers.clone(), sort);
+        Arrays.sort(numbers);
+        assertSortsLikeArraysSort(numbers, sort);
+        Arrays.fill(numbers, 42L);
+        assertSortsLikeArraysSort(numbers, sort);
+    }
+
+    /**
+     * The random array contains NaN, -0.0, 0.0 and -Infinity, see {@link SortUtil#getUnsortedDoubleArray}.
+     */
+
+    public static void assertSortsDoubleArrays(int size, Consumer<double[]> sort) {
+        final double[] numbers = getUnsortedDoubleArray(size);
+        assertSortsLikeArraysSort(numbers.clone(), sort);
+        Arrays.sort(numbers);
+        assertSortsLikeArraysSort(numbers, sort);
+        Arrays.fill(numbers, 42.0);
+        assertSortsLikeArraysSort(numbers, sort);
+    }
+}
@@ -5,7 +5,13 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
+import java.util.Arrays;
+import java.util.Random;
+
 import static org.junit.Assert.*;
+import static lz.renatkaitmazov.algorithms.week2.sort.SortTestUtil.assertSortsIntArrays;
+import static lz.renatkaitmazov.algorithms.week2.sort.SortTestUtil.assertSortsLongArrays;
+import static lz.renatkaitmazov.algorithms.week2.sort.SortTestUtil.assertSortsDoubleArrays;
 import static lz.renatkaitmazov.algorithms.week2.sort.SortUtil.isSorted;
 import static lz.renatkaitmazov.algorithms.week2.sort.SortUtil.getUnsortedIntegerArray;
 
@@ -48,4 +54,122 @@ public final class BottomUpMergeTest {
         assertTrue(isSorted(numbers));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void sortIntArrays() {
+        assertSortsIntArrays(10_000, BottomUpMerge::sort);
+    }
+
+    @Test
+    public void sortLongArrays() {
+        assertSortsLongArrays(10_000, BottomUpMerge::sort);
+    }
+
+    @Test
+    public void sortDoubleArrays() {
+        assertSortsDoubleArrays(10_000, BottomUpMerge::sort);
+    }
+
+    @Test
+    public void sortAdaptiveSmallArrays() {
+        for (int size = 0; size < 100; ++size) {
+            final Integer[] numbers = getUnsortedIntegerArray(size);
+            final Integer[] expected = numbers.clone();
+            Arrays.sort(expected);
+            BottomUpMerge.sortAdaptive(numbers);
+            assertArrayEquals(expected, numbers);
+        }
+    }
+
+    @Test
+    public void sortAdaptive100000Items() {
+        final Integer[] numbers = getUnsortedIntegerArray(100_000);
+        final Integer[] expected = numbers.clone();
+        Arrays.sort(expected);
+        BottomUpMerge.sortAdaptive(numbers);
+        assertArrayEquals(expected, numbers);
+    }
+
+    @Test
+    public void sortAdaptiveRuns() {
+        // Ascending and descending runs of random lengths.
+        final Random random = new Random(42);
+        final Integer[] numbers = new Integer[100_000];
+        int i = 0;
+        while (i < numbers.length) {
+            final int length = Math.min(numbers.length - i, 1 + random.nextInt(5_000));
+            final boolean descending = random.nextBoolean();
+            final int first = random.nextInt(100_000);
+            for (int j = 0; j < length; ++j) {
+                numbers[i + j] = descending ? first - j : first + j;
+            }
+            i += length;
+        }
+        final Integer[] expected = numbers.clone();
+        Arrays.sort(expected);
+        BottomUpMerge.sortAdaptive(numbers);
+        assertArrayEquals(expected, numbers);
+    }
+
+    @Test
+    public void sortAdaptiveIsStable() {
+        final Random random = new Random(42);
+        final Record[] records = new Record[100_000];
+        for (int i = 0; i < records.length; ++i) {
+            // Mostly sorted keys with lots of duplicates, so that the merges gallop over equal items.
+            records[i] = new Record(random.nextInt(10) == 0 ? random.nextInt(100) : i / 1_000, i);
+        }
+        final Record[] expected = records.clone();
+        Arrays.sort(expected);
+        BottomUpMerge.sortAdaptive(records);
+        for (int i = 0; i < records.length; ++i) {
+            assertSame(expected[i], records[i]);
+        }
+    }
+
+    @Test
+    public void sortAdaptiveTakesLinearTimeOnAlmostSortedItems() {
+        final int size = 100_000;
+        final Record[] records = new Record[size];
+        for (int i = 0; i < size; ++i) {
+            records[i] = new Record(i, i);
+        }
+        // A few items out of place.
+        final Random random = new Random(42);
+        for (int i = 0; i < 10; ++i) {
+            records[random.nextInt(size)] = new Record(random.nextInt(size), -1);
+        }
+        final Record[] expected = records.clone();
+        Arrays.sort(expected);
+        Record.comparisons = 0;
+        BottomUpMerge.sortAdaptive(records);
+        assertArrayEquals(expected, records);
+        assertTrue("comparisons: " + Record.comparisons, Record.comparisons < 2 * size);
+
+        Record.comparisons = 0;
+        BottomUpMerge.sortAdaptive(records);
+        assertTrue("comparisons: " + Record.comparisons, Record.comparisons < size);
+    }
+
+    private static final class Record implements Comparable<Record> {
+        private static long comparisons;
+
+        private final int key;
+        private final int order;
+
+        Record(int key, int order) {
+            this.key = key;
+            this.order = order;
+        }
+
+        @Override
+        public int compareTo(Record other) {
+            ++comparisons;
+            return Integer.compare(key, other.key);
+        }
+
+        @Override
+        public String toString() {
+            return key + ":" + order;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package lz.renatkaitmazov.algorithms.week3;
+
+import lz.renatkaitmazov.algorithms.week2.sort.SortTestUtil;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+import static lz.renatkaitmazov.algorithms.week2.sort.SortUtil.isSorted;
+import static lz.renatkaitmazov.algorithms.week2.sort.SortUtil.getSortedIntegerArray;
+import static lz.renatkaitmazov.algorithms.week2.sort.SortUtil.getUnsortedIntegerArray;
+
+/**
+ * @author Renat Kaitmazov
+ */
+
+@RunWith(JUnit4.class)
+public final class IntrosortTest {
+
+    @Test
+    public void sortSmallArray() {
+        final Integer[] numbers = getUnsortedIntegerArray(11);
+        final Integer[] copy = numbers.clone();
+        Introsort.sort(numbers);
+        Introsort.sortDualPivot(copy);
+        assertTrue(isSorted(numbers));
+        assertTrue(isSorted(copy));
+    }
+
+    @Test
+    public void sortEmptyArray() {
+        Introsort.sort(new Integer[0]);
+        Introsort.sortDualPivot(new Integer[0]);
+    }
+
+    @Test
+    public void sort100000Items() {
+        assertSortsLikeArraysSort(getUnsortedIntegerArray(100_000));
+    }
+
+    @Test
+    public void sortAlreadySorted100000Items() {
+        assertSortsLikeArraysSort(getSortedIntegerArray(100_000));
+    }
+
+    @Test
+    public void sortReversed100000Items() {
+        final Integer[] numbers = new Integer[100_000];
+        for (int i = 0; i < numbers.length; ++i) {
+            numbers[i] = numbers.length - i;
+        }
+        assertSortsLikeArraysSort(numbers);
+    }
+
+    @Test
+    public void sortAllEqual100000Items() {
+        final Integer[] numbers = new Integer[100_000];
+        Arrays.fill(numbers, 42);
+        assertSortsLikeArraysSort(numbers);
+    }
+
+    @Test
+    public void sortFewDistinct100000Items() {
+        assertSortsLikeArraysSort(getUnsortedIntegerArray(100_000, 3));
+    }
+
+    @Test
+    public void sortOrganPipe100000Items() {
+        final Integer[] numbers = new Integer[100_000];
+        final int half = numbers.length >> 1;
+        for (int i = 0; i < numbers.length; ++i) {
+            numbers[i] = i < half ? i : numbers.length - i;
+        }
+        assertSortsLikeArraysSort(numbers);
+    }
+
+    @Test
+    public void sortMedianOfThreeKiller() {
+        // Makes the median of three the second smallest item of every subarray,
+        // which would take Quick O(N^2) steps.
+        final int size = 100_000;
+        final Integer[] numbers = new Integer[size];
+        final int half = size >> 1;
+        for (int i = 1; i <= half; ++i) {
+            if ((i & 1) == 1) {
+                numbers[i - 1] = i;
+                numbers[i] = half + i;
+            }
+            numbers[half + i - 1] = i << 1;
+        }
+        assertSortsLikeArraysSort(numbers);
+    }
+
+    private static void assertSortsLikeArraysSort(Integer[] numbers) {
+        SortTestUtil.assertSortsLikeArraysSort(numbers.clone(), Introsort::sortDualPivot);
+        SortTestUtil.assertSortsLikeArraysSort(numbers, Introsort::sort);
+    }
+}
@@ -5,6 +5,9 @@ import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
 import static org.junit.Assert.*;
+import static lz.renatkaitmazov.algorithms.week2.sort.SortTestUtil.assertSortsIntArrays;
+import static lz.renatkaitmazov.algorithms.week2.sort.SortTestUtil.assertSortsLongArrays;
+import static lz.renatkaitmazov.algorithms.week2.sort.SortTestUtil.assertSortsDoubleArrays;
 import static lz.renatkaitmazov.algorithms.week2.sort.SortUtil.isSorted;
 import static lz.renatkaitmazov.algorithms.week2.sort.SortUtil.getUnsortedIntegerArray;
 
@@ -38,4 +41,19 @@ public final class MergeTest {
         Merge.sort(numbers);
         assertTrue(isSorted(numbers));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void sortIntArrays() {
+        assertSortsIntArrays(10_000, Merge::sort);
+    }
+
+    @Test
+    public void sortLongArrays() {
+        assertSortsLongArrays(10_000, Merge::sort);
+    }
+
+    @Test
+    public void sortDoubleArrays() {
+        assertSortsDoubleArrays(10_000, Merge::sort);
+    }
+}
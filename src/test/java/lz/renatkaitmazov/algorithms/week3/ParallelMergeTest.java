@@ -0,0 +1,111 @@
+package lz.renatkaitmazov.algorithms.week3;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+import static lz.renatkaitmazov.algorithms.week2.sort.SortUtil.isSorted;
+import static lz.renatkaitmazov.algorithms.week2.sort.SortUtil.getSortedIntegerArray;
+import static lz.renatkaitmazov.algorithms.week2.sort.SortUtil.getUnsortedIntegerArray;
+
+/**
+ * @author Renat Kaitmazov
+ */
+
+@RunWith(JUnit4.class)
+public final class ParallelMergeTest {
+
+    @Test
+    public void sortSmallArray() {
+        final Integer[] numbers = getUnsortedIntegerArray(51);
+        assertFalse(isSorted(numbers));
+        ParallelMerge.sort(numbers);
+        assertTrue(isSorted(numbers));
+    }
+
+    @Test
+    public void sortEmptyArray() {
+        final Integer[] numbers = new Integer[0];
+        ParallelMerge.sort(numbers);
+        assertEquals(0, numbers.length);
+    }
+
+    @Test
+    public void sort500000Items() {
+        final Integer[] numbers = getUnsortedIntegerArray(500_000);
+        final Integer[] expected = numbers.clone();
+        Arrays.sort(expected);
+        ParallelMerge.sort(numbers);
+        assertArrayEquals(expected, numbers);
+    }
+
+    @Test
+    public void sortAlreadySorted500000Items() {
+        final Integer[] numbers = getSortedIntegerArray(500_000);
+        ParallelMerge.sort(numbers);
+        assertTrue(isSorted(numbers));
+    }
+
+    @Test
+    public void sortReversed500000Items() {
+        final Integer[] numbers = new Integer[500_000];
+        for (int i = 0; i < numbers.length; ++i) {
+            numbers[i] = numbers.length - i;
+        }
+        ParallelMerge.sort(numbers);
+        assertTrue(isSorted(numbers));
+    }
+
+    @Test
+    public void sortWithCustomPool() {
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final Integer[] numbers = getUnsortedIntegerArray(200_000);
+            ParallelMerge.sort(numbers, pool);
+            assertTrue(isSorted(numbers));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void sortIsStable() {
+        final Random random = new Random(42);
+        final Record[] records = new Record[300_000];
+        for (int i = 0; i < records.length; ++i) {
+            // Few distinct keys, so the parallel merges split runs full of equal items.
+            records[i] = new Record(random.nextInt(16), i);
+        }
+        final Record[] expected = records.clone();
+        Arrays.sort(expected);
+        ParallelMerge.sort(records);
+        for (int i = 0; i < records.length; ++i) {
+            assertSame(expected[i], records[i]);
+        }
+    }
+
+    private static final class Record implements Comparable<Record> {
+        private final int key;
+        private final int order;
+
+        Record(int key, int order) {
+            this.key = key;
+            this.order = order;
+        }
+
+        @Override
+        public int compareTo(Record other) {
+            return Integer.compare(key, other.key);
+        }
+
+        @Override
+        public String toString() {
+            return key + ":" + order;
+        }
+    }
+}
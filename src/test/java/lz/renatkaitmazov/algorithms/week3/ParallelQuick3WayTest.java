@@ -0,0 +1,131 @@
+package lz.renatkaitmazov.algorithms.week3;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+import static lz.renatkaitmazov.algorithms.week2.sort.SortUtil.isSorted;
+import static lz.renatkaitmazov.algorithms.week2.sort.SortUtil.getSortedIntegerArray;
+import static lz.renatkaitmazov.algorithms.week2.sort.SortUtil.getUnsortedIntegerArray;
+import static lz.renatkaitmazov.algorithms.week2.sort.SortTestUtil.assertSortsLikeArraysSort;
+
+/**
+ * @author Renat Kaitmazov
+ */
+
+@RunWith(JUnit4.class)
+public final class ParallelQuick3WayTest {
+
+    private static final int SIZE = 500_000;
+    private static final int LARGE_SIZE = 1 << 22;
+
+    @Test
+    public void sortSmallArray() {
+        final Integer[] numbers = getUnsortedIntegerArray(51);
+        ParallelQuick3Way.sort(numbers);
+        assertTrue(isSorted(numbers));
+    }
+
+    @Test
+    public void sortEmptyArray() {
+        ParallelQuick3Way.sort(new Integer[0]);
+        ParallelQuick3Way.sort(new int[0]);
+    }
+
+    @Test
+    public void sort10DistinctKeys() {
+        assertSortsLikeArraysSort(getUnsortedIntegerArray(SIZE, 10), ParallelQuick3Way::sort);
+    }
+
+    @Test
+    public void sort1000DistinctKeys() {
+        assertSortsLikeArraysSort(getUnsortedIntegerArray(SIZE, 1_000), ParallelQuick3Way::sort);
+    }
+
+    @Test
+    public void sortMillionDistinctKeys() {
+        assertSortsLikeArraysSort(getUnsortedIntegerArray(SIZE, 1_000_000), ParallelQuick3Way::sort);
+    }
+
+    @Test(timeout = 10_000)
+    public void sortAlreadySorted() {
+        // Quadratic if the pivot is near an end of every subarray.
+        assertSortsLikeArraysSort(getSortedIntegerArray(1 << 21), ParallelQuick3Way::sort);
+    }
+
+    @Test
+    public void sortAllEqual() {
+        final Integer[] numbers = new Integer[SIZE];
+        Arrays.fill(numbers, 42);
+        assertSortsLikeArraysSort(numbers, ParallelQuick3Way::sort);
+    }
+
+    @Test
+    public void sortWithCustomPool() {
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final Integer[] numbers = getUnsortedIntegerArray(SIZE, 100);
+            ParallelQuick3Way.sort(numbers, pool);
+            assertTrue(isSorted(numbers));
+
+            final int[] ints = randomInts(SIZE, 100);
+            ParallelQuick3Way.sort(ints, pool);
+            assertTrue(isSorted(ints));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void sortIntsWith10DistinctKeys() {
+        assertSortsLikeArraysSort(randomInts(SIZE, 10), ParallelQuick3Way::sort);
+    }
+
+    @Test
+    public void sortIntsWith1000DistinctKeys() {
+        assertSortsLikeArraysSort(randomInts(SIZE, 1_000), ParallelQuick3Way::sort);
+    }
+
+    @Test
+    public void sortIntsWithMillionDistinctKeys() {
+        assertSortsLikeArraysSort(randomInts(SIZE, 1_000_000), ParallelQuick3Way::sort);
+    }
+
+    @Test(timeout = 5_000)
+    public void sortReversedInts() {
+        final int[] numbers = new int[LARGE_SIZE];
+        for (int i = 0; i < LARGE_SIZE; ++i) {
+            numbers[i] = LARGE_SIZE - i;
+        }
+        assertSortsLikeArraysSort(numbers, ParallelQuick3Way::sort);
+    }
+
+    @Test(timeout = 5_000)
+    public void sortPeriodicKeys() {
+        // Samples at a fixed stride of a multiple of the period all hit equal keys.
+        for (final int size : new int[]{1 << 20, 1_000_000}) {
+            final int[] ints = new int[size];
+            final Integer[] numbers = new Integer[size];
+            for (int i = 0; i < size; ++i) {
+                ints[i] = i % 1_000;
+                numbers[i] = i % 1_000;
+            }
+            assertSortsLikeArraysSort(ints, ParallelQuick3Way::sort);
+            assertSortsLikeArraysSort(numbers, ParallelQuick3Way::sort);
+        }
+    }
+
+    private static int[] randomInts(int size, int distinct) {
+        final Random random = new Random(42);
+        final int[] numbers = new int[size];
+        for (int i = 0; i < size; ++i) {
+            numbers[i] = random.nextInt(distinct) - (distinct >> 1);
+        }
+        return numbers;
+    }
+}
@@ -0,0 +1,152 @@
+package lz.renatkaitmazov.algorithms.week3;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+import static lz.renatkaitmazov.algorithms.week2.sort.SortUtil.isSorted;
+import static lz.renatkaitmazov.algorithms.week2.sort.SortTestUtil.assertSortsLikeArraysSort;
+
+/**
+ * @author Renat Kaitmazov
+ */
+
+@RunWith(JUnit4.class)
+public final class PatternDefeatingQuickTest {
+
+    private static final int SIZE = 100_000;
+
+    private final Random random = new Random(42);
+
+    @Test
+    public void sortEmptyAndSmallArrays() {
+        for (int size = 0; size < 300; ++size) {
+            assertSortsLikeArraysSort(randomInts(size, Integer.MAX_VALUE), PatternDefeatingQuick::sort);
+        }
+    }
+
+    @Test
+    public void sortRandomInts() {
+        assertSortsLikeArraysSort(randomInts(SIZE, Integer.MAX_VALUE), PatternDefeatingQuick::sort);
+    }
+
+    @Test
+    public void sortSortedInts() {
+        final int[] numbers = new int[SIZE];
+        for (int i = 0; i < SIZE; ++i) {
+            numbers[i] = i;
+        }
+        assertSortsLikeArraysSort(numbers, PatternDefeatingQuick::sort);
+    }
+
+    @Test
+    public void sortReversedInts() {
+        final int[] numbers = new int[SIZE];
+        for (int i = 0; i < SIZE; ++i) {
+            numbers[i] = SIZE - i;
+        }
+        assertSortsLikeArraysSort(numbers, PatternDefeatingQuick::sort);
+    }
+
+    @Test
+    public void sortOrganPipeInts() {
+        final int[] numbers = new int[SIZE];
+        final int half = SIZE >> 1;
+        for (int i = 0; i < SIZE; ++i) {
+            numbers[i] = i < half ? i : SIZE - i;
+        }
+        assertSortsLikeArraysSort(numbers, PatternDefeatingQuick::sort);
+    }
+
+    @Test
+    public void sortFewUniqueInts() {
+        assertSortsLikeArraysSort(randomInts(SIZE, 4), PatternDefeatingQuick::sort);
+    }
+
+    @Test
+    public void sortAllEqualInts() {
+        final int[] numbers = new int[SIZE];
+        Arrays.fill(numbers, 7);
+        assertSortsLikeArraysSort(numbers, PatternDefeatingQuick::sort);
+    }
+
+    @Test
+    public void sortAlmostSortedInts() {
+        final int[] numbers = new int[SIZE];
+        for (int i = 0; i < SIZE; ++i) {
+            numbers[i] = i;
+        }
+        for (int i = 0; i < 10; ++i) {
+            final int j = random.nextInt(SIZE);
+            final int k = random.nextInt(SIZE);
+            final int temp = numbers[j];
+            numbers[j] = numbers[k];
+            numbers[k] = temp;
+        }
+        assertSortsLikeArraysSort(numbers, PatternDefeatingQuick::sort);
+    }
+
+    @Test
+    public void sortSawtoothInts() {
+        final int[] numbers = new int[SIZE];
+        for (int i = 0; i < SIZE; ++i) {
+            numbers[i] = i % 1_000;
+        }
+        assertSortsLikeArraysSort(numbers, PatternDefeatingQuick::sort);
+    }
+
+    @Test
+    public void sortRandomLongs() {
+        final long[] numbers = new long[SIZE];
+        for (int i = 0; i < SIZE; ++i) {
+            numbers[i] = random.nextLong();
+        }
+        final long[] expected = numbers.clone();
+        Arrays.sort(expected);
+        PatternDefeatingQuick.sort(numbers);
+        assertArrayEquals(expected, numbers);
+    }
+
+    @Test
+    public void sortFewUniqueLongs() {
+        final long[] numbers = new long[SIZE];
+        for (int i = 0; i < SIZE; ++i) {
+            numbers[i] = random.nextInt(3) * Long.MAX_VALUE;
+        }
+        final long[] expected = numbers.clone();
+        Arrays.sort(expected);
+        PatternDefeatingQuick.sort(numbers);
+        assertArrayEquals(expected, numbers);
+    }
+
+    @Test
+    public void sortDoublesWithNaNAndSignedZeros() {
+        final double[] numbers = new double[SIZE];
+        for (int i = 0; i < SIZE; ++i) {
+            switch (random.nextInt(8)) {
+                case 0: numbers[i] = Double.NaN; break;
+                case 1: numbers[i] = -0.0; break;
+                case 2: numbers[i] = 0.0; break;
+                case 3: numbers[i] = Double.NEGATIVE_INFINITY; break;
+                default: numbers[i] = random.nextGaussian();
+            }
+        }
+        final double[] expected = numbers.clone();
+        Arrays.sort(expected);
+        PatternDefeatingQuick.sort(numbers);
+        assertTrue(isSorted(numbers));
+        assertArrayEquals(expected, numbers, 0.0);
+    }
+
+    private int[] randomInts(int size, int upperBound) {
+        final int[] numbers = new int[size];
+        for (int i = 0; i < size; ++i) {
+            numbers[i] = random.nextInt(upperBound);
+        }
+        return numbers;
+    }
+}
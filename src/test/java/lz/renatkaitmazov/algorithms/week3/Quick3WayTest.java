@@ -5,6 +5,9 @@ import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
 import static org.junit.Assert.*;
+import static lz.renatkaitmazov.algorithms.week2.sort.SortTestUtil.assertSortsIntArrays;
+import static lz.renatkaitmazov.algorithms.week2.sort.SortTestUtil.assertSortsLongArrays;
+import static lz.renatkaitmazov.algorithms.week2.sort.SortTestUtil.assertSortsDoubleArrays;
 import static lz.renatkaitmazov.algorithms.week2.sort.SortUtil.getUnsortedIntegerArray;
 import static lz.renatkaitmazov.algorithms.week2.sort.SortUtil.isSorted;
 
@@ -39,4 +42,35 @@ public final class Quick3WayTest {
         Quick3Way.sort(numbers);
         assertTrue(isSorted(numbers));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void sortIntArrays() {
+        assertSortsIntArrays(10_000, Quick3Way::sort);
+    }
+
+    @Test(timeout = 5_000)
+    public void sortSortedAndReversedIntArrays() {
+        // Quadratic if the pivot is near an end of every subarray.
+        final int[] numbers = new int[1 << 21];
+        for (int i = 0; i < numbers.length; ++i) {
+            numbers[i] = i;
+        }
+        Quick3Way.sort(numbers);
+        assertTrue(isSorted(numbers));
+        for (int i = 0; i < numbers.length; ++i) {
+            numbers[i] = numbers.length - i;
+        }
+        Quick3Way.sort(numbers);
+        assertTrue(isSorted(numbers));
+    }
+
+    @Test
+    public void sortLongArrays() {
+        assertSortsLongArrays(10_000, Quick3Way::sort);
+    }
+
+    @Test
+    public void sortDoubleArrays() {
+        assertSortsDoubleArrays(10_000, Quick3Way::sort);
+    }
+}
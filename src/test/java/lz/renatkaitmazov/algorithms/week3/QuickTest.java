@@ -5,9 +5,14 @@ import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
 import static org.junit.Assert.*;
+import static lz.renatkaitmazov.algorithms.week2.sort.SortTestUtil.assertSortsLikeArraysSort;
+import static lz.renatkaitmazov.algorithms.week2.sort.SortTestUtil.assertSortsIntArrays;
+import static lz.renatkaitmazov.algorithms.week2.sort.SortTestUtil.assertSortsLongArrays;
+import static lz.renatkaitmazov.algorithms.week2.sort.SortTestUtil.assertSortsDoubleArrays;
 import static lz.renatkaitmazov.algorithms.week2.sort.SortUtil.isSorted;
 import static lz.renatkaitmazov.algorithms.week2.sort.SortUtil.getSortedIntegerArray;
 import static lz.renatkaitmazov.algorithms.week2.sort.SortUtil.getUnsortedIntegerArray;
+import static lz.renatkaitmazov.algorithms.week2.sort.SortUtil.getUnsortedIntArray;
 
 /**
  * @author Renat Kaitmazov
@@ -49,4 +54,40 @@ public final class QuickTest {
         assertTrue(isSorted(numbers));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void sortIntArrays() {
+        assertSortsIntArrays(10_000, Quick::sort);
+    }
+
+    @Test
+    public void sortLongArrays() {
+        assertSortsLongArrays(10_000, Quick::sort);
+    }
+
+    @Test
+    public void sortDoubleArrays() {
+        assertSortsDoubleArrays(10_000, Quick::sort);
+    }
+
+    @Test(timeout = 5_000)
+    public void sortAllEqualPrimitiveArrays() {
+        assertSortsLikeArraysSort(new int[1_000_000], Quick::sort);
+        assertSortsLikeArraysSort(new long[1_000_000], Quick::sort);
+        assertSortsLikeArraysSort(new double[1_000_000], Quick::sort);
+    }
+
+    @Test(timeout = 5_000)
+    public void sortFewDistinctPrimitiveArrays() {
+        final int[] ints = getUnsortedIntArray(1_000_000);
+        final long[] longs = new long[ints.length];
+        final double[] doubles = new double[ints.length];
+        for (int i = 0; i < ints.length; ++i) {
+            ints[i] = Math.floorMod(ints[i], 10);
+            longs[i] = ints[i];
+            doubles[i] = ints[i];
+        }
+        assertSortsLikeArraysSort(ints, Quick::sort);
+        assertSortsLikeArraysSort(longs, Quick::sort);
+        assertSortsLikeArraysSort(doubles, Quick::sort);
+    }
+}
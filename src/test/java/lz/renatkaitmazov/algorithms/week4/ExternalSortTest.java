@@ -0,0 +1,241 @@
+package lz.renatkaitmazov.algorithms.week4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Renat Kaitmazov
+ */
+
+@RunWith(JUnit4.class)
+public final class ExternalSortTest {
+
+    private Path directory;
+    private Path input;
+    private Path output;
+
+    @Before
+    public final void setUp() throws IOException {
+        directory = Files.createTempDirectory("external-sort");
+        input = directory.resolve("input");
+        output = directory.resolve("output");
+    }
+
+    @After
+    public final void tearDown() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (final Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    public final void sortFixedWidthRecordsInManyPassesTest() throws IOException {
+        final RecordFormat format = RecordFormat.fixedWidth(12);
+        final ByteRecord[] records = randomRecords(new Random(7), 20_000, 12, 12);
+        write(format, records);
+
+        // About 100 runs of 200 records merged 4 at a time.
+        final long chunkSize = 200L * (12 + ExternalSort.RECORD_OVERHEAD);
+        new ExternalSort(format, directory, chunkSize, 4, 1_000, 3).sort(input, output);
+
+        Arrays.sort(records);
+        assertArrayEquals(records, read(format));
+        assertEquals(2, countFiles());
+    }
+
+    @Test
+    public final void sortLengthPrefixedRecordsTest() throws IOException {
+        final RecordFormat format = RecordFormat.lengthPrefixed();
+        final Random random = new Random(11);
+        final ByteRecord[] records = randomRecords(random, 5_000, 0, 40);
+        // A record larger than every buffer.
+        records[random.nextInt(records.length)] = randomRecords(random, 1, 5_000, 5_000)[0];
+        write(format, records);
+
+        new ExternalSort(format, directory, 8_192, 3, 256, 2).sort(input, output);
+
+        Arrays.sort(records);
+        assertArrayEquals(records, read(format));
+        assertEquals(2, countFiles());
+    }
+
+    @Test
+    public final void sortWithTinyBuffersTest() throws IOException {
+        final RecordFormat format = RecordFormat.fixedWidth(12);
+        final ByteRecord[] records = randomRecords(new Random(5), 50_000, 12, 12);
+        write(format, records);
+
+        // Every run is read thousands of times through a buffer smaller than a record.
+        final long chunkSize = 5_000L * (12 + ExternalSort.RECORD_OVERHEAD);
+        new ExternalSort(format, directory, chunkSize, 3, 8, 2).sort(input, output);
+
+        Arrays.sort(records);
+        assertArrayEquals(records, read(format));
+        assertEquals(2, countFiles());
+    }
+
+    @Test
+    public final void sortWithDefaultsTest() throws IOException {
+        final RecordFormat format = RecordFormat.lengthPrefixed();
+        final ByteRecord[] records = randomRecords(new Random(3), 1_000, 1, 20);
+        write(format, records);
+
+        new ExternalSort(format).sort(input, output);
+
+        Arrays.sort(records);
+        assertArrayEquals(records, read(format));
+    }
+
+    @Test
+    public final void sortEmptyFileTest() throws IOException {
+        Files.write(input, new byte[0]);
+        new ExternalSort(RecordFormat.fixedWidth(4), directory, 100, 2, 16, 1).sort(input, output);
+        assertEquals(0, Files.size(output));
+    }
+
+    @Test
+    public final void truncatedRecordTest() throws IOException {
+        Files.write(input, new byte[10]);
+        try {
+            new ExternalSort(RecordFormat.fixedWidth(4), directory, 100, 2, 16, 1).sort(input, output);
+            fail();
+        } catch (IOException expected) {
+        }
+        // No runs are left behind.
+        assertEquals(1, countFiles());
+    }
+
+    @Test
+    public final void corruptRecordLengthTest() throws IOException {
+        final RecordFormat format = RecordFormat.lengthPrefixed();
+        for (final int length : new int[]{-1, Integer.MAX_VALUE}) {
+            // A valid record of 2 bytes followed by a record of the given length.
+            final ByteBuffer buffer = ByteBuffer.allocate(16);
+            buffer.putInt(2).put(new byte[]{1, 2}).putInt(length).put(new byte[]{3, 4, 5, 6});
+            Files.write(input, buffer.array());
+            try {
+                new ExternalSort(format, directory, 100, 2, 8, 1).sort(input, output);
+                fail();
+            } catch (IOException expected) {
+                assertTrue(expected.getMessage(), expected.getMessage().endsWith("at byte 6"));
+            }
+            // No runs are left behind.
+            assertEquals(1, countFiles());
+        }
+    }
+
+    @Test
+    public final void failedMergeLeavesNoRunsTest() throws IOException {
+        final RecordFormat fixedWidth = RecordFormat.fixedWidth(4);
+        final ByteRecord[] records = randomRecords(new Random(11), 400, 4, 4);
+        write(fixedWidth, records);
+        // The runs are written successfully, the first record of the merge pass fails.
+        final AtomicInteger writes = new AtomicInteger();
+        final RecordFormat format = new RecordFormat() {
+            @Override
+            public ByteRecord read(ByteBuffer buffer) throws IOException {
+                return fixedWidth.read(buffer);
+            }
+
+            @Override
+            public long sizeOfNext(ByteBuffer buffer) throws IOException {
+                return fixedWidth.sizeOfNext(buffer);
+            }
+
+            @Override
+            public void write(ByteRecord record, ByteBuffer buffer) {
+                if (writes.incrementAndGet() == records.length + 1) throw new IllegalStateException();
+                fixedWidth.write(record, buffer);
+            }
+
+            @Override
+            public int size(ByteRecord record) {
+                return fixedWidth.size(record);
+            }
+        };
+        // 40 runs of 10 records merged 4 at a time by 3 threads.
+        final long chunkSize = 10L * (4 + ExternalSort.RECORD_OVERHEAD);
+        try {
+            new ExternalSort(format, directory, chunkSize, 4, 16, 3).sort(input, output);
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+        assertEquals(1, countFiles());
+    }
+
+    @Test
+    public final void byteRecordOrderTest() {
+        final ByteRecord empty = new ByteRecord(new byte[0]);
+        final ByteRecord small = new ByteRecord(new byte[]{1});
+        final ByteRecord large = new ByteRecord(new byte[]{(byte) 0x80});
+        final ByteRecord longer = new ByteRecord(new byte[]{1, 0});
+        final ByteRecord[] records = {large, longer, small, empty};
+        Arrays.sort(records);
+        assertArrayEquals(new ByteRecord[]{empty, small, longer, large}, records);
+        assertEquals(0, small.compareTo(new ByteRecord(new byte[]{1})));
+    }
+
+    /*--------------------------------------------------------*/
+    /* Helper
+    /*--------------------------------------------------------*/
+
+    private static ByteRecord[] randomRecords(Random random, int count, int minLength, int maxLength) {
+        final ByteRecord[] records = new ByteRecord[count];
+        for (int i = 0; i < count; ++i) {
+            final byte[] bytes = new byte[minLength + random.nextInt(maxLength - minLength + 1)];
+            random.nextBytes(bytes);
+            // Lots of equal prefixes.
+            if (bytes.length > 0) bytes[0] &= 3;
+            records[i] = new ByteRecord(bytes);
+        }
+        return records;
+    }
+
+    private void write(RecordFormat format, ByteRecord[] records) throws IOException {
+        int size = 0;
+        for (final ByteRecord record : records) {
+            size += format.size(record);
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(size);
+        for (final ByteRecord record : records) {
+            format.write(record, buffer);
+        }
+        Files.write(input, buffer.array());
+    }
+
+    private ByteRecord[] read(RecordFormat format) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(output));
+        final List<ByteRecord> records = new ArrayList<>();
+        ByteRecord record;
+        while ((record = format.read(buffer)) != null) {
+            records.add(record);
+        }
+        assertFalse(buffer.hasRemaining());
+        return records.toArray(new ByteRecord[0]);
+    }
+
+    private long countFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+}
@@ -4,9 +4,15 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
+import java.util.Arrays;
+
 import static org.junit.Assert.*;
+import static lz.renatkaitmazov.algorithms.week2.sort.SortTestUtil.assertSortsIntArrays;
+import static lz.renatkaitmazov.algorithms.week2.sort.SortTestUtil.assertSortsLongArrays;
+import static lz.renatkaitmazov.algorithms.week2.sort.SortTestUtil.assertSortsDoubleArrays;
 import static lz.renatkaitmazov.algorithms.week2.sort.SortUtil.isSorted;
 import static lz.renatkaitmazov.algorithms.week2.sort.SortUtil.getUnsortedIntegerArray;
+import static lz.renatkaitmazov.algorithms.week2.sort.SortUtil.getUnsortedIntArray;
 
 /**
  * @author Renat Kaitmazov
@@ -39,4 +45,37 @@ public final class HeapSortTest {
         HeapSort.sort(numbers);
         assertTrue(isSorted(numbers));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void sortIntArrays() {
+        assertSortsIntArrays(10_000, HeapSort::sort);
+    }
+
+    @Test
+    public void sortLongArrays() {
+        assertSortsLongArrays(10_000, HeapSort::sort);
+    }
+
+    @Test
+    public void sortDoubleArrays() {
+        assertSortsDoubleArrays(10_000, HeapSort::sort);
+    }
+
+    @Test
+    public void sortSubarray() {
+        final Integer[] numbers = getUnsortedIntegerArray(1_000);
+        final Integer[] expected = numbers.clone();
+        Arrays.sort(expected, 100, 901);
+        HeapSort.sort(numbers, 100, 900);
+        assertArrayEquals(expected, numbers);
+    }
+
+    @Test
+    public void sortIntSubarray() {
+        final int[] numbers = getUnsortedIntArray(1_000);
+        final int[] expected = numbers.clone();
+        Arrays.sort(expected, 100, 901);
+        HeapSort.sort(numbers, 100, 900);
+        assertArrayEquals(expected, numbers);
+    }
+}